@@ -1,14 +1,28 @@
 package com.ams.config;
 
+import com.ams.entity.enums.AlertType;
+import com.ams.entity.enums.LeaveType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.Set;
+
 @Component
 @ConfigurationProperties(prefix = "app")
 public class AppProperties {
 
     private final Jwt jwt = new Jwt();
     private final Cors cors = new Cors();
+    private final Dashboard dashboard = new Dashboard();
+    private final Export export = new Export();
+    private final Attendance attendance = new Attendance();
+    private final Outbox outbox = new Outbox();
+    private final Alerts alerts = new Alerts();
+    private final AutoApproval autoApproval = new AutoApproval();
+    private final Escalation escalation = new Escalation();
+    private final LeaveBalance leaveBalance = new LeaveBalance();
 
     public Jwt getJwt() {
         return jwt;
@@ -18,6 +32,38 @@ public class AppProperties {
         return cors;
     }
 
+    public Dashboard getDashboard() {
+        return dashboard;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Attendance getAttendance() {
+        return attendance;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Alerts getAlerts() {
+        return alerts;
+    }
+
+    public AutoApproval getAutoApproval() {
+        return autoApproval;
+    }
+
+    public Escalation getEscalation() {
+        return escalation;
+    }
+
+    public LeaveBalance getLeaveBalance() {
+        return leaveBalance;
+    }
+
     public static class Jwt {
         private String secret;
         private long accessTokenExpiration;
@@ -86,4 +132,507 @@ public class AppProperties {
             this.allowCredentials = allowCredentials;
         }
     }
-}
\ No newline at end of file
+
+    public static class Dashboard {
+        private boolean concurrent = true;
+        private long timeoutMillis = 3000;
+        private int maxConcurrentQueries = 4;
+        private long unreadCounterReconcileMillis = 300000;
+
+        public boolean isConcurrent() {
+            return concurrent;
+        }
+
+        public void setConcurrent(boolean concurrent) {
+            this.concurrent = concurrent;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        public void setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        public int getMaxConcurrentQueries() {
+            return maxConcurrentQueries;
+        }
+
+        public void setMaxConcurrentQueries(int maxConcurrentQueries) {
+            this.maxConcurrentQueries = maxConcurrentQueries;
+        }
+
+        public long getUnreadCounterReconcileMillis() {
+            return unreadCounterReconcileMillis;
+        }
+
+        public void setUnreadCounterReconcileMillis(long unreadCounterReconcileMillis) {
+            this.unreadCounterReconcileMillis = unreadCounterReconcileMillis;
+        }
+    }
+
+    public static class Export {
+        private boolean csvBom = true;
+        private String stagingDirectory = System.getProperty("java.io.tmpdir") + "/ams-exports";
+        private int jobWorkers = 2;
+        private int jobQueueCapacity = 16;
+        private long jobResultTtlMinutes = 60;
+        private long deltaSafetyLagSeconds = 60;
+        private int deltaMaxPageSize = 1000;
+        private int deltaTombstoneRetentionDays = 30;
+        private boolean cacheEnabled = true;
+        private String cacheDirectory = System.getProperty("java.io.tmpdir") + "/ams-export-cache";
+        private long cacheMaxSizeMb = 512;
+        private boolean parallelEnabled = true;
+        private int parallelism = 4;
+        private int partitionDays = 7;
+
+        public boolean isCsvBom() {
+            return csvBom;
+        }
+
+        public void setCsvBom(boolean csvBom) {
+            this.csvBom = csvBom;
+        }
+
+        public String getStagingDirectory() {
+            return stagingDirectory;
+        }
+
+        public void setStagingDirectory(String stagingDirectory) {
+            this.stagingDirectory = stagingDirectory;
+        }
+
+        public int getJobWorkers() {
+            return jobWorkers;
+        }
+
+        public void setJobWorkers(int jobWorkers) {
+            this.jobWorkers = jobWorkers;
+        }
+
+        public int getJobQueueCapacity() {
+            return jobQueueCapacity;
+        }
+
+        public void setJobQueueCapacity(int jobQueueCapacity) {
+            this.jobQueueCapacity = jobQueueCapacity;
+        }
+
+        public long getJobResultTtlMinutes() {
+            return jobResultTtlMinutes;
+        }
+
+        public void setJobResultTtlMinutes(long jobResultTtlMinutes) {
+            this.jobResultTtlMinutes = jobResultTtlMinutes;
+        }
+
+        public long getDeltaSafetyLagSeconds() {
+            return deltaSafetyLagSeconds;
+        }
+
+        public void setDeltaSafetyLagSeconds(long deltaSafetyLagSeconds) {
+            this.deltaSafetyLagSeconds = deltaSafetyLagSeconds;
+        }
+
+        public int getDeltaMaxPageSize() {
+            return deltaMaxPageSize;
+        }
+
+        public void setDeltaMaxPageSize(int deltaMaxPageSize) {
+            this.deltaMaxPageSize = deltaMaxPageSize;
+        }
+
+        public int getDeltaTombstoneRetentionDays() {
+            return deltaTombstoneRetentionDays;
+        }
+
+        public void setDeltaTombstoneRetentionDays(int deltaTombstoneRetentionDays) {
+            this.deltaTombstoneRetentionDays = deltaTombstoneRetentionDays;
+        }
+
+        public boolean isCacheEnabled() {
+            return cacheEnabled;
+        }
+
+        public void setCacheEnabled(boolean cacheEnabled) {
+            this.cacheEnabled = cacheEnabled;
+        }
+
+        public String getCacheDirectory() {
+            return cacheDirectory;
+        }
+
+        public void setCacheDirectory(String cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+        }
+
+        public long getCacheMaxSizeMb() {
+            return cacheMaxSizeMb;
+        }
+
+        public void setCacheMaxSizeMb(long cacheMaxSizeMb) {
+            this.cacheMaxSizeMb = cacheMaxSizeMb;
+        }
+
+        public boolean isParallelEnabled() {
+            return parallelEnabled;
+        }
+
+        public void setParallelEnabled(boolean parallelEnabled) {
+            this.parallelEnabled = parallelEnabled;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getPartitionDays() {
+            return partitionDays;
+        }
+
+        public void setPartitionDays(int partitionDays) {
+            this.partitionDays = partitionDays;
+        }
+    }
+
+    public static class Attendance {
+        private boolean absenceCheckEnabled = true;
+        private boolean missingClockOutCheckEnabled = true;
+        private int checkLookbackDays = 3;
+        private Set<DayOfWeek> workingDays = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+        private boolean rulesEnabled = true;
+        private int standardDailyMinutes = 480;
+        private int dailyOvertimeAlertMinutes = 120;
+        private int monthlyOvertimeWarningHours = 36;
+        private int monthlyOvertimeLimitHours = 45;
+        private int continuousWorkLimitMinutes = 360;
+
+        public boolean isAbsenceCheckEnabled() {
+            return absenceCheckEnabled;
+        }
+
+        public void setAbsenceCheckEnabled(boolean absenceCheckEnabled) {
+            this.absenceCheckEnabled = absenceCheckEnabled;
+        }
+
+        public boolean isMissingClockOutCheckEnabled() {
+            return missingClockOutCheckEnabled;
+        }
+
+        public void setMissingClockOutCheckEnabled(boolean missingClockOutCheckEnabled) {
+            this.missingClockOutCheckEnabled = missingClockOutCheckEnabled;
+        }
+
+        public int getCheckLookbackDays() {
+            return checkLookbackDays;
+        }
+
+        public void setCheckLookbackDays(int checkLookbackDays) {
+            this.checkLookbackDays = checkLookbackDays;
+        }
+
+        public Set<DayOfWeek> getWorkingDays() {
+            return workingDays;
+        }
+
+        public void setWorkingDays(Set<DayOfWeek> workingDays) {
+            this.workingDays = workingDays;
+        }
+
+        public boolean isRulesEnabled() {
+            return rulesEnabled;
+        }
+
+        public void setRulesEnabled(boolean rulesEnabled) {
+            this.rulesEnabled = rulesEnabled;
+        }
+
+        public int getStandardDailyMinutes() {
+            return standardDailyMinutes;
+        }
+
+        public void setStandardDailyMinutes(int standardDailyMinutes) {
+            this.standardDailyMinutes = standardDailyMinutes;
+        }
+
+        public int getDailyOvertimeAlertMinutes() {
+            return dailyOvertimeAlertMinutes;
+        }
+
+        public void setDailyOvertimeAlertMinutes(int dailyOvertimeAlertMinutes) {
+            this.dailyOvertimeAlertMinutes = dailyOvertimeAlertMinutes;
+        }
+
+        public int getMonthlyOvertimeWarningHours() {
+            return monthlyOvertimeWarningHours;
+        }
+
+        public void setMonthlyOvertimeWarningHours(int monthlyOvertimeWarningHours) {
+            this.monthlyOvertimeWarningHours = monthlyOvertimeWarningHours;
+        }
+
+        public int getMonthlyOvertimeLimitHours() {
+            return monthlyOvertimeLimitHours;
+        }
+
+        public void setMonthlyOvertimeLimitHours(int monthlyOvertimeLimitHours) {
+            this.monthlyOvertimeLimitHours = monthlyOvertimeLimitHours;
+        }
+
+        public int getContinuousWorkLimitMinutes() {
+            return continuousWorkLimitMinutes;
+        }
+
+        public void setContinuousWorkLimitMinutes(int continuousWorkLimitMinutes) {
+            this.continuousWorkLimitMinutes = continuousWorkLimitMinutes;
+        }
+    }
+
+    public static class Outbox {
+        private boolean relayEnabled = true;
+        private int batchSize = 100;
+        private int maxBatchesPerPoll = 10;
+        private long leaseSeconds = 60;
+        private int maxAttempts = 10;
+        private long retryBaseSeconds = 5;
+        private int retentionDays = 7;
+
+        public boolean isRelayEnabled() {
+            return relayEnabled;
+        }
+
+        public void setRelayEnabled(boolean relayEnabled) {
+            this.relayEnabled = relayEnabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxBatchesPerPoll() {
+            return maxBatchesPerPoll;
+        }
+
+        public void setMaxBatchesPerPoll(int maxBatchesPerPoll) {
+            this.maxBatchesPerPoll = maxBatchesPerPoll;
+        }
+
+        public long getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(long leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getRetryBaseSeconds() {
+            return retryBaseSeconds;
+        }
+
+        public void setRetryBaseSeconds(long retryBaseSeconds) {
+            this.retryBaseSeconds = retryBaseSeconds;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+    }
+
+    public static class Alerts {
+        private static final Set<AlertType> UNDIGESTABLE_TYPES =
+                EnumSet.of(AlertType.ABSENT, AlertType.MISSING_CLOCK_OUT);
+
+        private int retentionDays = 90;
+        private int partitionMonthsAhead = 3;
+        private Set<AlertType> digestTypes = EnumSet.noneOf(AlertType.class);
+        private int digestWindowMinutes = 15;
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+
+        public int getPartitionMonthsAhead() {
+            return partitionMonthsAhead;
+        }
+
+        public void setPartitionMonthsAhead(int partitionMonthsAhead) {
+            this.partitionMonthsAhead = partitionMonthsAhead;
+        }
+
+        public Set<AlertType> getDigestTypes() {
+            return digestTypes;
+        }
+
+        // ABSENT and MISSING_CLOCK_OUT are created by set-based inserts that bypass the digest, so enabling them
+        // here would have no effect; fail binding instead of silently ignoring them
+        public void setDigestTypes(Set<AlertType> digestTypes) {
+            Set<AlertType> unsupported = EnumSet.noneOf(AlertType.class);
+            unsupported.addAll(digestTypes);
+            unsupported.retainAll(UNDIGESTABLE_TYPES);
+            if (!unsupported.isEmpty()) {
+                throw new IllegalArgumentException("Alert types cannot be digested: " + unsupported);
+            }
+            this.digestTypes = digestTypes;
+        }
+
+        public int getDigestWindowMinutes() {
+            return digestWindowMinutes;
+        }
+
+        public void setDigestWindowMinutes(int digestWindowMinutes) {
+            this.digestWindowMinutes = digestWindowMinutes;
+        }
+    }
+
+    public static class AutoApproval {
+        private boolean enabled = false;
+        private boolean dryRun = true;
+        private int batchSize = 200;
+        private int timeCorrectionMaxMinutes = 15;
+        private int leaveMaxDays = 1;
+        private Set<LeaveType> leaveTypes = EnumSet.of(LeaveType.PAID, LeaveType.ANNUAL);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isDryRun() {
+            return dryRun;
+        }
+
+        public void setDryRun(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getTimeCorrectionMaxMinutes() {
+            return timeCorrectionMaxMinutes;
+        }
+
+        public void setTimeCorrectionMaxMinutes(int timeCorrectionMaxMinutes) {
+            this.timeCorrectionMaxMinutes = timeCorrectionMaxMinutes;
+        }
+
+        public int getLeaveMaxDays() {
+            return leaveMaxDays;
+        }
+
+        public void setLeaveMaxDays(int leaveMaxDays) {
+            this.leaveMaxDays = leaveMaxDays;
+        }
+
+        public Set<LeaveType> getLeaveTypes() {
+            return leaveTypes;
+        }
+
+        public void setLeaveTypes(Set<LeaveType> leaveTypes) {
+            this.leaveTypes = leaveTypes;
+        }
+    }
+
+    public static class Escalation {
+        private boolean enabled = true;
+        private int slaHours = 48;
+        private int maxLevel = 2;
+        private int batchSize = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSlaHours() {
+            return slaHours;
+        }
+
+        public void setSlaHours(int slaHours) {
+            this.slaHours = slaHours;
+        }
+
+        public int getMaxLevel() {
+            return maxLevel;
+        }
+
+        public void setMaxLevel(int maxLevel) {
+            this.maxLevel = maxLevel;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class LeaveBalance {
+        private Set<LeaveType> trackedTypes = EnumSet.of(LeaveType.ANNUAL);
+        private int yearlyGrantDays = 20;
+        private int maxCarryOverDays = 20;
+
+        public Set<LeaveType> getTrackedTypes() {
+            return trackedTypes;
+        }
+
+        public void setTrackedTypes(Set<LeaveType> trackedTypes) {
+            this.trackedTypes = trackedTypes;
+        }
+
+        public int getYearlyGrantDays() {
+            return yearlyGrantDays;
+        }
+
+        public void setYearlyGrantDays(int yearlyGrantDays) {
+            this.yearlyGrantDays = yearlyGrantDays;
+        }
+
+        public int getMaxCarryOverDays() {
+            return maxCarryOverDays;
+        }
+
+        public void setMaxCarryOverDays(int maxCarryOverDays) {
+            this.maxCarryOverDays = maxCarryOverDays;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ams.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Declaring our own executors disables Boot's default one, so keep it for MVC async requests
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    // Virtual threads for short blocking read-only sub-queries; the dashboard service limits how many hold a
+    // connection at once
+    @Bean(name = "dashboardQueryExecutor", destroyMethod = "shutdown")
+    public ExecutorService dashboardQueryExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // Virtual threads for export partitions; the export service limits how many hold a connection at once
+    @Bean(name = "exportPartitionExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService exportPartitionExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // Bounded pool for export jobs; submissions beyond the queue capacity are rejected
+    @Bean(name = "exportJobExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService exportJobExecutor(AppProperties appProperties) {
+        AppProperties.Export export = appProperties.getExport();
+        return new ThreadPoolExecutor(
+                export.getJobWorkers(), export.getJobWorkers(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(export.getJobQueueCapacity()),
+                Thread.ofPlatform().name("export-job-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -1,6 +1,8 @@
 package com.ams.controller;
 
 import com.ams.service.CsvExportService;
+import com.ams.service.ExportCacheService;
+import com.ams.util.ExportCompression;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletResponse;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
@@ -33,12 +36,17 @@ public class CsvExportController {
     @Autowired
     private CsvExportService csvExportService;
 
+    @Autowired
+    private ExportCacheService exportCacheService;
+
     @GetMapping("/attendance")
     @PreAuthorize("hasRole('MANAGER')")
     @Operation(summary = "出勤記録CSV出力", description = "指定期間のチーム出勤記録をCSV形式で出力します")
     public StreamingResponseBody exportAttendanceRecords(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             HttpServletResponse response) {
         
         try {
@@ -51,19 +59,26 @@ public class CsvExportController {
                                            startDate.format(DATE_FORMATTER), 
                                            endDate.format(DATE_FORMATTER));
             
-            setupCsvResponse(response, filename);
+            ExportCompression compression = setupCsvResponse(response, filename, format, acceptEncoding);
+            ExportCacheService.CacheKey cacheKey = exportCacheService.buildKey(
+                    ExportCacheService.CacheableExport.ATTENDANCE, managerId, startDate, endDate, compression);
             
             return outputStream -> {
-                try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
-                    // Write BOM for Excel compatibility
-                    writer.write('\ufeff');
-                    csvExportService.exportAttendanceRecords(writer, startDate, endDate, managerId);
+                try {
+                    exportCacheService.serve(cacheKey, outputStream, out -> {
+                        try (Writer writer = openWriter(out, compression)) {
+                            csvExportService.exportAttendanceRecords(writer, startDate, endDate, managerId);
+                        }
+                    });
                 } catch (IOException e) {
                     logger.error("Error exporting attendance records", e);
                     throw new RuntimeException("CSV出力でエラーが発生しました", e);
                 }
             };
             
+        } catch (IllegalArgumentException e) {
+            // Invalid dates or format; GlobalExceptionHandler answers 400
+            throw e;
         } catch (Exception e) {
             logger.error("Error setting up attendance export", e);
             throw new RuntimeException("CSV出力の準備でエラーが発生しました", e);
@@ -76,6 +91,8 @@ public class CsvExportController {
     public StreamingResponseBody exportAllAttendanceRecords(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             HttpServletResponse response) {
         
         try {
@@ -87,19 +104,25 @@ public class CsvExportController {
                                            startDate.format(DATE_FORMATTER), 
                                            endDate.format(DATE_FORMATTER));
             
-            setupCsvResponse(response, filename);
+            ExportCompression compression = setupCsvResponse(response, filename, format, acceptEncoding);
+            ExportCacheService.CacheKey cacheKey = exportCacheService.buildKey(
+                    ExportCacheService.CacheableExport.ALL_ATTENDANCE, null, startDate, endDate, compression);
             
             return outputStream -> {
-                try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
-                    // Write BOM for Excel compatibility
-                    writer.write('\ufeff');
-                    csvExportService.exportAllAttendanceRecords(writer, startDate, endDate);
+                try {
+                    exportCacheService.serve(cacheKey, outputStream, out -> {
+                        try (Writer writer = openWriter(out, compression)) {
+                            csvExportService.exportAllAttendanceRecords(writer, startDate, endDate);
+                        }
+                    });
                 } catch (IOException e) {
                     logger.error("Error exporting all attendance records", e);
                     throw new RuntimeException("CSV出力でエラーが発生しました", e);
                 }
             };
             
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error setting up all attendance export", e);
             throw new RuntimeException("CSV出力の準備でエラーが発生しました", e);
@@ -112,6 +135,8 @@ public class CsvExportController {
     public StreamingResponseBody exportLeaveRequests(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             HttpServletResponse response) {
         
         try {
@@ -124,12 +149,10 @@ public class CsvExportController {
                                            startDate.format(DATE_FORMATTER), 
                                            endDate.format(DATE_FORMATTER));
             
-            setupCsvResponse(response, filename);
+            ExportCompression compression = setupCsvResponse(response, filename, format, acceptEncoding);
             
             return outputStream -> {
-                try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
-                    // Write BOM for Excel compatibility
-                    writer.write('\ufeff');
+                try (Writer writer = openWriter(outputStream, compression)) {
                     csvExportService.exportLeaveRequests(writer, startDate, endDate, managerId);
                 } catch (IOException e) {
                     logger.error("Error exporting leave requests", e);
@@ -137,6 +160,8 @@ public class CsvExportController {
                 }
             };
             
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error setting up leave requests export", e);
             throw new RuntimeException("CSV出力の準備でエラーが発生しました", e);
@@ -149,6 +174,8 @@ public class CsvExportController {
     public StreamingResponseBody exportTimeModificationRequests(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             HttpServletResponse response) {
         
         try {
@@ -161,12 +188,10 @@ public class CsvExportController {
                                            startDate.format(DATE_FORMATTER), 
                                            endDate.format(DATE_FORMATTER));
             
-            setupCsvResponse(response, filename);
+            ExportCompression compression = setupCsvResponse(response, filename, format, acceptEncoding);
             
             return outputStream -> {
-                try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
-                    // Write BOM for Excel compatibility
-                    writer.write('\ufeff');
+                try (Writer writer = openWriter(outputStream, compression)) {
                     csvExportService.exportTimeModificationRequests(writer, startDate, endDate, managerId);
                 } catch (IOException e) {
                     logger.error("Error exporting time modification requests", e);
@@ -174,6 +199,8 @@ public class CsvExportController {
                 }
             };
             
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error setting up time modification requests export", e);
             throw new RuntimeException("CSV出力の準備でエラーが発生しました", e);
@@ -186,6 +213,8 @@ public class CsvExportController {
     public StreamingResponseBody exportTeamSummary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             HttpServletResponse response) {
         
         try {
@@ -198,28 +227,48 @@ public class CsvExportController {
                                            startDate.format(DATE_FORMATTER), 
                                            endDate.format(DATE_FORMATTER));
             
-            setupCsvResponse(response, filename);
+            ExportCompression compression = setupCsvResponse(response, filename, format, acceptEncoding);
+            ExportCacheService.CacheKey cacheKey = exportCacheService.buildKey(
+                    ExportCacheService.CacheableExport.TEAM_SUMMARY, managerId, startDate, endDate, compression);
             
             return outputStream -> {
-                try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
-                    // Write BOM for Excel compatibility
-                    writer.write('\ufeff');
-                    csvExportService.exportTeamSummary(writer, startDate, endDate, managerId);
+                try {
+                    exportCacheService.serve(cacheKey, outputStream, out -> {
+                        try (Writer writer = openWriter(out, compression)) {
+                            csvExportService.exportTeamSummary(writer, startDate, endDate, managerId);
+                        }
+                    });
                 } catch (IOException e) {
                     logger.error("Error exporting team summary", e);
                     throw new RuntimeException("CSV出力でエラーが発生しました", e);
                 }
             };
             
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error setting up team summary export", e);
             throw new RuntimeException("CSV出力の準備でエラーが発生しました", e);
         }
     }
 
-    private void setupCsvResponse(HttpServletResponse response, String filename) {
-        response.setContentType("text/csv");
-        response.setCharacterEncoding("UTF-8");
+    // An explicit format yields a compressed file; otherwise gzip is applied as a transfer encoding if accepted
+    private ExportCompression setupCsvResponse(HttpServletResponse response, String filename,
+                                               String format, String acceptEncoding) {
+        ExportCompression compression = ExportCompression.fromFormat(format);
+
+        if (compression != ExportCompression.NONE) {
+            response.setContentType(compression.getContentType());
+            filename = filename + compression.getFileExtension();
+        } else {
+            response.setContentType("text/csv");
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (ExportCompression.acceptsGzip(acceptEncoding)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                compression = ExportCompression.GZIP;
+            }
+        }
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION, 
                           "attachment; filename=\"" + filename + "\"");
         
@@ -227,6 +276,12 @@ public class CsvExportController {
         response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
         response.setHeader(HttpHeaders.PRAGMA, "no-cache");
         response.setDateHeader(HttpHeaders.EXPIRES, 0);
+        return compression;
+    }
+
+    // Closing the writer finishes the compressed stream before the response is completed
+    private Writer openWriter(OutputStream outputStream, ExportCompression compression) throws IOException {
+        return new OutputStreamWriter(compression.wrap(outputStream), StandardCharsets.UTF_8);
     }
 
     private String getCurrentEmployeeId() {
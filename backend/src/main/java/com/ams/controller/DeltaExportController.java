@@ -0,0 +1,87 @@
+package com.ams.controller;
+
+import com.ams.dto.ApiResponses;
+import com.ams.dto.export.DeltaPage;
+import com.ams.dto.request.LeaveRequestDto;
+import com.ams.dto.request.TimeModificationRequestDto;
+import com.ams.dto.time.TimeRecordDto;
+import com.ams.service.DeltaExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/export/delta")
+@PreAuthorize("hasRole('MANAGER')")
+@Tag(name = "Delta Export", description = "差分エクスポート関連のAPI")
+public class DeltaExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeltaExportController.class);
+
+    @Autowired
+    private DeltaExportService deltaExportService;
+
+    @GetMapping("/time-records")
+    @Operation(summary = "出勤記録差分取得", description = "前回のウォーターマーク以降に変更・削除されたチームの出勤記録を取得します")
+    public ResponseEntity<ApiResponses<DeltaPage<TimeRecordDto>>> getTimeRecordDelta(
+            @RequestParam(required = false) String watermark,
+            @RequestParam(defaultValue = "0") int limit) {
+        try {
+            DeltaPage<TimeRecordDto> page = deltaExportService.getTimeRecordDelta(getCurrentEmployeeId(), watermark, limit);
+            return ResponseEntity.ok(ApiResponses.success(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting time record delta", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("出勤記録の差分取得でエラーが発生しました"));
+        }
+    }
+
+    @GetMapping("/leave-requests")
+    @Operation(summary = "休暇申請差分取得", description = "前回のウォーターマーク以降に変更・削除されたチームの休暇申請を取得します")
+    public ResponseEntity<ApiResponses<DeltaPage<LeaveRequestDto>>> getLeaveRequestDelta(
+            @RequestParam(required = false) String watermark,
+            @RequestParam(defaultValue = "0") int limit) {
+        try {
+            DeltaPage<LeaveRequestDto> page = deltaExportService.getLeaveRequestDelta(getCurrentEmployeeId(), watermark, limit);
+            return ResponseEntity.ok(ApiResponses.success(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting leave request delta", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("休暇申請の差分取得でエラーが発生しました"));
+        }
+    }
+
+    @GetMapping("/time-modifications")
+    @Operation(summary = "打刻修正申請差分取得", description = "前回のウォーターマーク以降に変更・削除されたチームの打刻修正申請を取得します")
+    public ResponseEntity<ApiResponses<DeltaPage<TimeModificationRequestDto>>> getTimeModificationDelta(
+            @RequestParam(required = false) String watermark,
+            @RequestParam(defaultValue = "0") int limit) {
+        try {
+            DeltaPage<TimeModificationRequestDto> page =
+                    deltaExportService.getTimeModificationDelta(getCurrentEmployeeId(), watermark, limit);
+            return ResponseEntity.ok(ApiResponses.success(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting time modification delta", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("打刻修正申請の差分取得でエラーが発生しました"));
+        }
+    }
+
+    private String getCurrentEmployeeId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new IllegalStateException("認証が必要です");
+        }
+        return authentication.getName();
+    }
+}
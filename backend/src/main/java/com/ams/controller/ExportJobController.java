@@ -0,0 +1,177 @@
+package com.ams.controller;
+
+import com.ams.dto.ApiResponses;
+import com.ams.exception.ResourceNotFoundException;
+import com.ams.service.ExportJobService;
+import com.ams.util.ExportCompression;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/export/jobs")
+@Tag(name = "Export Jobs", description = "非同期エクスポートジョブ関連のAPI")
+public class ExportJobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobController.class);
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    // Either role may submit; which one is required depends on the export type and is checked below
+    @PostMapping
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "エクスポートジョブ登録", description = "エクスポートをバックグラウンドで実行するジョブを登録します（format で csv.gz / csv.zst を指定可能）")
+    public ResponseEntity<ApiResponses<ExportJobService.ExportJob>> submitJob(
+            @Valid @RequestBody ExportJobRequestDto request) {
+        try {
+            // Same roles as the synchronous endpoints: company-wide attendance is ADMIN only, the
+            // manager-scoped exports are MANAGER only
+            if (request.getType() == ExportJobService.ExportType.ALL_ATTENDANCE) {
+                if (!hasRole("ROLE_ADMIN")) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ApiResponses.error("全社員の出勤記録は管理者のみ出力できます"));
+                }
+            } else if (!hasRole("ROLE_MANAGER")) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ApiResponses.error("チームのエクスポートは管理者のみ出力できます"));
+            }
+
+            ExportJobService.ExportJob job = exportJobService.submitJob(request.getType(), getCurrentEmployeeId(),
+                    request.getStartDate(), request.getEndDate(), ExportCompression.fromFormat(request.getFormat()));
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponses.success(job, "エクスポートジョブを登録しました"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponses.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error submitting export job", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("エクスポートジョブの登録でエラーが発生しました"));
+        }
+    }
+
+    // Jobs are only visible to their requester, so these grant nothing beyond what submitting allowed
+    @GetMapping("/{jobId}")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "エクスポートジョブ状況取得", description = "エクスポートジョブの状態と進捗（出力済みバイト数）を取得します")
+    public ResponseEntity<ApiResponses<ExportJobService.ExportJob>> getJob(@PathVariable UUID jobId) {
+        try {
+            ExportJobService.ExportJob job = exportJobService.getJob(jobId, getCurrentEmployeeId());
+            return ResponseEntity.ok(ApiResponses.success(job));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponses.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting export job", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("エクスポートジョブの取得でエラーが発生しました"));
+        }
+    }
+
+    // Returning a Resource lets Spring MVC answer Range requests, so interrupted downloads can resume
+    @GetMapping("/{jobId}/download")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "エクスポートファイルダウンロード", description = "完了したエクスポートジョブの結果をダウンロードします（Rangeリクエスト対応）")
+    public ResponseEntity<?> downloadResult(@PathVariable UUID jobId) {
+        try {
+            String employeeId = getCurrentEmployeeId();
+            ExportJobService.ExportJob job = exportJobService.getJob(jobId, employeeId);
+            Path file = exportJobService.getResultFile(jobId, employeeId);
+
+            Resource resource = new FileSystemResource(file);
+            MediaType contentType = job.getCompression() != ExportCompression.NONE
+                    ? MediaType.parseMediaType(job.getCompression().getContentType())
+                    : new MediaType("text", "csv", StandardCharsets.UTF_8);
+            return ResponseEntity.ok()
+                    .contentType(contentType)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(job.getFilename()).build().toString())
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .body(resource);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponses.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponses.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error downloading export result", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("エクスポートファイルのダウンロードでエラーが発生しました"));
+        }
+    }
+
+    private boolean hasRole(String authority) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(granted -> authority.equals(granted.getAuthority()));
+    }
+
+    private String getCurrentEmployeeId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new IllegalStateException("認証が必要です");
+        }
+        return authentication.getName();
+    }
+
+    public static class ExportJobRequestDto {
+        @NotNull(message = "エクスポート種別は必須です")
+        private ExportJobService.ExportType type;
+
+        @NotNull(message = "開始日は必須です")
+        private LocalDate startDate;
+
+        @NotNull(message = "終了日は必須です")
+        private LocalDate endDate;
+
+        // csv (default), csv.gz or csv.zst, as on the synchronous endpoints
+        private String format;
+
+        public ExportJobService.ExportType getType() {
+            return type;
+        }
+
+        public void setType(ExportJobService.ExportType type) {
+            this.type = type;
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public void setStartDate(LocalDate startDate) {
+            this.startDate = startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        public void setEndDate(LocalDate endDate) {
+            this.endDate = endDate;
+        }
+
+        public String getFormat() {
+            return format;
+        }
+
+        public void setFormat(String format) {
+            this.format = format;
+        }
+    }
+}
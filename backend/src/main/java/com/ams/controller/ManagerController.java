@@ -1,16 +1,25 @@
 package com.ams.controller;
 
 import com.ams.dto.ApiResponses;
+import com.ams.dto.CursorPage;
+import com.ams.dto.request.ApprovalInboxItem;
+import com.ams.dto.request.BulkApprovalResult;
 import com.ams.service.ApprovalWorkflowService;
 import com.ams.service.ManagerDashboardService;
 import com.ams.service.AlertService;
+import com.ams.service.AlertDigestService;
 import com.ams.entity.Alert;
+import com.ams.entity.AlertDigest;
+import com.ams.entity.AlertDigestItem;
+import com.ams.exception.ResourceNotFoundException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -39,8 +48,11 @@ public class ManagerController {
     @Autowired
     private AlertService alertService;
 
+    @Autowired
+    private AlertDigestService alertDigestService;
+
     @GetMapping("/dashboard")
-    @Operation(summary = "ダッシュボード概要取得", description = "管理者ダッシュボードの概要情報を取得します")
+    @Operation(summary = "ダッシュボード概要取得", description = "管理者ダッシュボードの概要情報を取得します。時間内に取得できなかった項目がある場合は部分的な結果を返します")
     public ResponseEntity<ApiResponses<ManagerDashboardService.DashboardOverview>> getDashboardOverview() {
         try {
             String managerId = getCurrentEmployeeId();
@@ -130,13 +142,20 @@ public class ManagerController {
     }
 
     @GetMapping("/approvals/pending")
-    @Operation(summary = "承認待ち申請一覧取得", description = "すべての承認待ち申請を取得します")
-    public ResponseEntity<ApiResponses<List<Object>>> getPendingApprovals() {
+    @Operation(summary = "承認待ち申請一覧取得", description = "休暇申請と打刻修正申請をまとめて新しい順にカーソル方式でページ取得します")
+    public ResponseEntity<ApiResponses<CursorPage<ApprovalInboxItem>>> getPendingApprovals(
+            @RequestParam(required = false) String requestType,
+            @RequestParam(required = false) String employeeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             String managerId = getCurrentEmployeeId();
-            List<Object> pendingRequests = approvalWorkflowService.getAllPendingRequestsForManager(managerId);
+            CursorPage<ApprovalInboxItem> pendingRequests = approvalWorkflowService.getPendingRequestsPageForManager(
+                    managerId, requestType, employeeId, cursor, limit);
             
             return ResponseEntity.ok(ApiResponses.success(pendingRequests));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error getting pending approvals", e);
             return ResponseEntity.internalServerError().body(ApiResponses.error("承認待ち申請の取得でエラーが発生しました"));
@@ -155,6 +174,9 @@ public class ManagerController {
             return ResponseEntity.ok(ApiResponses.successMessage("申請を承認しました"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            // Already decided, or still conflicting after the retries; reported as 409 by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error approving request", e);
             return ResponseEntity.internalServerError().body(ApiResponses.error("申請の承認でエラーが発生しました"));
@@ -180,6 +202,9 @@ public class ManagerController {
             return ResponseEntity.ok(ApiResponses.successMessage("申請を却下しました"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            // Already decided, or still conflicting after the retries; reported as 409 by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error rejecting request", e);
             return ResponseEntity.internalServerError().body(ApiResponses.error("申請の却下でエラーが発生しました"));
@@ -187,14 +212,20 @@ public class ManagerController {
     }
 
     @PostMapping("/approvals/bulk/approve")
-    @Operation(summary = "一括承認", description = "複数の申請を一括で承認します")
-    public ResponseEntity<ApiResponses<Void>> bulkApproveRequests(
+    @Operation(summary = "一括承認", description = "複数の申請を一括で承認し、申請ごとの結果を返します")
+    public ResponseEntity<ApiResponses<BulkApprovalResult>> bulkApproveRequests(
             @RequestBody List<ApprovalWorkflowService.BulkApprovalRequest> requests) {
         try {
             String managerId = getCurrentEmployeeId();
-            approvalWorkflowService.bulkApproveRequests(requests, managerId);
+            BulkApprovalResult result = approvalWorkflowService.bulkApproveRequests(requests, managerId);
             
-            return ResponseEntity.ok(ApiResponses.successMessage(requests.size() + "件の申請を一括承認しました"));
+            return ResponseEntity.ok(ApiResponses.success(result,
+                    result.getSucceeded() + "件の申請を一括承認しました（失敗: " + result.getFailed() + "件）"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            // Still conflicting after the retries; reported as 409 by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error bulk approving requests", e);
             return ResponseEntity.internalServerError().body(ApiResponses.error("一括承認でエラーが発生しました"));
@@ -202,14 +233,20 @@ public class ManagerController {
     }
 
     @PostMapping("/approvals/bulk/reject")
-    @Operation(summary = "一括却下", description = "複数の申請を一括で却下します")
-    public ResponseEntity<ApiResponses<Void>> bulkRejectRequests(
+    @Operation(summary = "一括却下", description = "複数の申請を一括で却下し、申請ごとの結果を返します")
+    public ResponseEntity<ApiResponses<BulkApprovalResult>> bulkRejectRequests(
             @RequestBody List<ApprovalWorkflowService.BulkRejectionRequest> requests) {
         try {
             String managerId = getCurrentEmployeeId();
-            approvalWorkflowService.bulkRejectRequests(requests, managerId);
+            BulkApprovalResult result = approvalWorkflowService.bulkRejectRequests(requests, managerId);
             
-            return ResponseEntity.ok(ApiResponses.successMessage(requests.size() + "件の申請を一括却下しました"));
+            return ResponseEntity.ok(ApiResponses.success(result,
+                    result.getSucceeded() + "件の申請を一括却下しました（失敗: " + result.getFailed() + "件）"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            // Still conflicting after the retries; reported as 409 by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error bulk rejecting requests", e);
             return ResponseEntity.internalServerError().body(ApiResponses.error("一括却下でエラーが発生しました"));
@@ -217,13 +254,17 @@ public class ManagerController {
     }
 
     @GetMapping("/alerts")
-    @Operation(summary = "アラート一覧取得", description = "管理者のアラート一覧を取得します")
-    public ResponseEntity<ApiResponses<List<Alert>>> getAlerts() {
+    @Operation(summary = "アラート一覧取得", description = "管理者のアラートを新しい順にカーソル方式でページ取得します")
+    public ResponseEntity<ApiResponses<CursorPage<Alert>>> getAlerts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             String managerId = getCurrentEmployeeId();
-            List<Alert> alerts = alertService.getAlertsForManager(managerId);
+            CursorPage<Alert> alerts = alertService.getAlertsPageForManager(managerId, cursor, limit);
             
             return ResponseEntity.ok(ApiResponses.success(alerts));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error getting alerts", e);
             return ResponseEntity.internalServerError().body(ApiResponses.error("アラートの取得でエラーが発生しました"));
@@ -231,19 +272,37 @@ public class ManagerController {
     }
 
     @GetMapping("/alerts/unread")
-    @Operation(summary = "未読アラート取得", description = "未読のアラート一覧を取得します")
-    public ResponseEntity<ApiResponses<List<Alert>>> getUnreadAlerts() {
+    @Operation(summary = "未読アラート取得", description = "未読のアラートを新しい順にカーソル方式でページ取得します")
+    public ResponseEntity<ApiResponses<CursorPage<Alert>>> getUnreadAlerts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             String managerId = getCurrentEmployeeId();
-            List<Alert> unreadAlerts = alertService.getUnreadAlertsForManager(managerId);
+            CursorPage<Alert> unreadAlerts = alertService.getUnreadAlertsPageForManager(managerId, cursor, limit);
             
             return ResponseEntity.ok(ApiResponses.success(unreadAlerts));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error getting unread alerts", e);
             return ResponseEntity.internalServerError().body(ApiResponses.error("未読アラートの取得でエラーが発生しました"));
         }
     }
 
+    @GetMapping("/alerts/unread/count")
+    @Operation(summary = "未読アラート件数取得", description = "通知バッジ用に未読アラートの件数を取得します")
+    public ResponseEntity<ApiResponses<Long>> getUnreadAlertCount() {
+        try {
+            String managerId = getCurrentEmployeeId();
+            long count = alertService.countUnreadAlertsForManager(managerId);
+            
+            return ResponseEntity.ok(ApiResponses.success(count));
+        } catch (Exception e) {
+            logger.error("Error getting unread alert count", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("未読アラート件数の取得でエラーが発生しました"));
+        }
+    }
+
     @PostMapping("/alerts/{alertId}/read")
     @Operation(summary = "アラート既読", description = "指定されたアラートを既読にします")
     public ResponseEntity<ApiResponses<Void>> markAlertAsRead(@PathVariable UUID alertId) {
@@ -270,6 +329,61 @@ public class ManagerController {
         }
     }
 
+    @GetMapping("/alert-digests")
+    @Operation(summary = "アラートダイジェスト一覧取得", description = "時間帯ごとにまとめたアラートを新しい順にカーソル方式でページ取得します")
+    public ResponseEntity<ApiResponses<CursorPage<AlertDigest>>> getAlertDigests(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            String managerId = getCurrentEmployeeId();
+            CursorPage<AlertDigest> digests = alertDigestService.getDigestsPageForManager(managerId, cursor, limit);
+            
+            return ResponseEntity.ok(ApiResponses.success(digests));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting alert digests", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("アラートダイジェストの取得でエラーが発生しました"));
+        }
+    }
+
+    @GetMapping("/alert-digests/{digestId}/items")
+    @Operation(summary = "アラートダイジェスト明細取得", description = "ダイジェストに含まれる社員ごとのアラートをカーソル方式でページ取得します")
+    public ResponseEntity<ApiResponses<CursorPage<AlertDigestItem>>> getAlertDigestItems(
+            @PathVariable UUID digestId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            String managerId = getCurrentEmployeeId();
+            CursorPage<AlertDigestItem> items = alertDigestService.getDigestItemsPage(digestId, managerId, cursor, limit);
+            
+            return ResponseEntity.ok(ApiResponses.success(items));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponses.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting alert digest items", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("アラートダイジェスト明細の取得でエラーが発生しました"));
+        }
+    }
+
+    @PostMapping("/alert-digests/{digestId}/read")
+    @Operation(summary = "アラートダイジェスト既読", description = "指定されたアラートダイジェストを既読にします")
+    public ResponseEntity<ApiResponses<Void>> markAlertDigestAsRead(@PathVariable UUID digestId) {
+        try {
+            String managerId = getCurrentEmployeeId();
+            alertDigestService.markDigestAsRead(digestId, managerId);
+            
+            return ResponseEntity.ok(ApiResponses.successMessage("アラートダイジェストを既読にしました"));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponses.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error marking alert digest as read", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("アラートダイジェストの既読処理でエラーが発生しました"));
+        }
+    }
+
     private String getCurrentEmployeeId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
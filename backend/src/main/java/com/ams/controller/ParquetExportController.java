@@ -0,0 +1,158 @@
+package com.ams.controller;
+
+import com.ams.service.ParquetExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+@RestController
+@RequestMapping("/export/parquet")
+@Tag(name = "Parquet Export", description = "Parquet形式でのデータエクスポート機能（給与計算・分析向け）")
+public class ParquetExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParquetExportController.class);
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String PARQUET_CONTENT_TYPE = "application/vnd.apache.parquet";
+
+    @Autowired
+    private ParquetExportService parquetExportService;
+
+    @GetMapping("/attendance")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "出勤記録Parquet出力", description = "指定期間のチーム出勤記録をParquet形式で出力します")
+    public StreamingResponseBody exportAttendanceRecords(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            HttpServletResponse response) {
+        
+        try {
+            validateDateRange(startDate, endDate);
+
+            String managerId = getCurrentEmployeeId();
+            setupParquetResponse(response, buildFilename("attendance", startDate, endDate));
+            
+            return outputStream -> {
+                try {
+                    parquetExportService.exportAttendanceRecords(outputStream, startDate, endDate, managerId);
+                } catch (IOException e) {
+                    logger.error("Error exporting attendance records as Parquet", e);
+                    throw new RuntimeException("Parquet出力でエラーが発生しました", e);
+                }
+            };
+            
+        } catch (IllegalArgumentException e) {
+            // Invalid dates; GlobalExceptionHandler answers 400
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error setting up attendance Parquet export", e);
+            throw new RuntimeException("Parquet出力の準備でエラーが発生しました", e);
+        }
+    }
+
+    @GetMapping("/leave-requests")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "休暇申請Parquet出力", description = "指定期間のチーム休暇申請をParquet形式で出力します")
+    public StreamingResponseBody exportLeaveRequests(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            HttpServletResponse response) {
+        
+        try {
+            validateDateRange(startDate, endDate);
+
+            String managerId = getCurrentEmployeeId();
+            setupParquetResponse(response, buildFilename("leave_requests", startDate, endDate));
+            
+            return outputStream -> {
+                try {
+                    parquetExportService.exportLeaveRequests(outputStream, startDate, endDate, managerId);
+                } catch (IOException e) {
+                    logger.error("Error exporting leave requests as Parquet", e);
+                    throw new RuntimeException("Parquet出力でエラーが発生しました", e);
+                }
+            };
+            
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error setting up leave requests Parquet export", e);
+            throw new RuntimeException("Parquet出力の準備でエラーが発生しました", e);
+        }
+    }
+
+    @GetMapping("/time-modifications")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "勤務時間修正申請Parquet出力", description = "指定期間のチーム勤務時間修正申請をParquet形式で出力します")
+    public StreamingResponseBody exportTimeModificationRequests(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            HttpServletResponse response) {
+        
+        try {
+            validateDateRange(startDate, endDate);
+
+            String managerId = getCurrentEmployeeId();
+            setupParquetResponse(response, buildFilename("time_modifications", startDate, endDate));
+            
+            return outputStream -> {
+                try {
+                    parquetExportService.exportTimeModificationRequests(outputStream, startDate, endDate, managerId);
+                } catch (IOException e) {
+                    logger.error("Error exporting time modification requests as Parquet", e);
+                    throw new RuntimeException("Parquet出力でエラーが発生しました", e);
+                }
+            };
+            
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error setting up time modification requests Parquet export", e);
+            throw new RuntimeException("Parquet出力の準備でエラーが発生しました", e);
+        }
+    }
+
+    private void validateDateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("開始日は終了日より前である必要があります");
+        }
+    }
+
+    private String buildFilename(String prefix, LocalDate startDate, LocalDate endDate) {
+        return String.format("%s_%s_%s.parquet", prefix,
+                             startDate.format(DATE_FORMATTER),
+                             endDate.format(DATE_FORMATTER));
+    }
+
+    private void setupParquetResponse(HttpServletResponse response, String filename) {
+        response.setContentType(PARQUET_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, 
+                          "attachment; filename=\"" + filename + "\"");
+        
+        // Set cache control headers
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
+        response.setHeader(HttpHeaders.PRAGMA, "no-cache");
+        response.setDateHeader(HttpHeaders.EXPIRES, 0);
+    }
+
+    private String getCurrentEmployeeId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new IllegalStateException("認証が必要です");
+        }
+        return authentication.getName();
+    }
+}
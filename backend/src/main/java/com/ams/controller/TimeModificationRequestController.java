@@ -1,8 +1,10 @@
 package com.ams.controller;
 
 import com.ams.dto.ApiResponses;
+import com.ams.dto.CursorPage;
 import com.ams.entity.TimeModificationRequest;
 import com.ams.entity.enums.RequestStatus;
+import com.ams.service.ApprovalWorkflowService;
 import com.ams.service.TimeModificationRequestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,6 +16,7 @@ import com.ams.validation.ValidWorkingHours;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -38,6 +41,9 @@ public class TimeModificationRequestController {
     @Autowired
     private TimeModificationRequestService timeModificationRequestService;
 
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+
     @PostMapping
     @Operation(summary = "勤務時間修正申請作成", description = "新しい勤務時間修正申請を作成します")
     public ResponseEntity<ApiResponses<TimeModificationRequest>> createTimeModificationRequest(
@@ -66,21 +72,21 @@ public class TimeModificationRequestController {
     }
 
     @GetMapping
-    @Operation(summary = "勤務時間修正申請一覧取得", description = "ログインユーザーの勤務時間修正申請一覧を取得します")
-    public ResponseEntity<ApiResponses<List<TimeModificationRequest>>> getMyTimeModificationRequests(
-            @RequestParam(required = false) RequestStatus status) {
+    @Operation(summary = "勤務時間修正申請一覧取得", description = "ログインユーザーの勤務時間修正申請を新しい順にカーソル方式でページ取得します")
+    public ResponseEntity<ApiResponses<CursorPage<TimeModificationRequest>>> getMyTimeModificationRequests(
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             String employeeId = getCurrentEmployeeId();
             
-            List<TimeModificationRequest> requests;
-            if (status != null) {
-                requests = timeModificationRequestService.getTimeModificationRequestsByUserAndStatus(employeeId, status);
-            } else {
-                requests = timeModificationRequestService.getTimeModificationRequestsByUser(employeeId);
-            }
+            CursorPage<TimeModificationRequest> requests = timeModificationRequestService
+                    .getTimeModificationRequestsPageByUser(employeeId, status, cursor, limit);
             
             return ResponseEntity.ok(ApiResponses.success(requests));
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error getting time modification requests", e);
             return ResponseEntity.internalServerError()
@@ -202,13 +208,17 @@ public class TimeModificationRequestController {
     public ResponseEntity<ApiResponses<TimeModificationRequest>> approveTimeModificationRequest(@PathVariable UUID id) {
         try {
             String approverEmployeeId = getCurrentEmployeeId();
-            TimeModificationRequest approvedRequest = timeModificationRequestService
-                    .approveTimeModificationRequest(id, approverEmployeeId);
+            // Through the workflow service so the decision is retried on an optimistic lock conflict
+            approvalWorkflowService.approveRequest("time_modification", id, approverEmployeeId);
+            TimeModificationRequest approvedRequest = timeModificationRequestService.getTimeModificationRequestById(id);
             
             return ResponseEntity.ok(ApiResponses.success(approvedRequest));
             
-        } catch (IllegalArgumentException | IllegalStateException e) {
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            // Already decided, or still conflicting after the retries; reported as 409 by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error approving time modification request", e);
             return ResponseEntity.internalServerError()
@@ -228,13 +238,17 @@ public class TimeModificationRequestController {
                 return ResponseEntity.badRequest().body(ApiResponses.error("却下理由は必須です"));
             }
             
-            TimeModificationRequest rejectedRequest = timeModificationRequestService
-                    .rejectTimeModificationRequest(id, approverEmployeeId, rejectDto.getRejectionReason());
+            approvalWorkflowService.rejectRequest("time_modification", id, approverEmployeeId,
+                    rejectDto.getRejectionReason());
+            TimeModificationRequest rejectedRequest = timeModificationRequestService.getTimeModificationRequestById(id);
             
             return ResponseEntity.ok(ApiResponses.success(rejectedRequest));
             
-        } catch (IllegalArgumentException | IllegalStateException e) {
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            // Already decided, or still conflicting after the retries; reported as 409 by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error rejecting time modification request", e);
             return ResponseEntity.internalServerError()
@@ -1,9 +1,12 @@
 package com.ams.controller;
 
 import com.ams.dto.ApiResponses;
+import com.ams.dto.CursorPage;
 import com.ams.dto.user.UserDto;
+import com.ams.entity.LeaveBalance;
 import com.ams.entity.User;
 import com.ams.service.AuthService;
+import com.ams.service.LeaveBalanceService;
 import com.ams.service.UserService;
 import com.ams.util.UserMapper;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,6 +21,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -36,6 +40,9 @@ public class UserController {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
     @GetMapping("/profile")
     @Operation(summary = "プロフィール取得", description = "現在のユーザーのプロフィール情報を取得します")
     public ResponseEntity<ApiResponses<UserDto>> getProfile() {
@@ -91,19 +98,38 @@ public class UserController {
             return ResponseEntity.internalServerError().body(ApiResponses.error("パスワードの変更でエラーが発生しました"));
         }
     }
+    @GetMapping("/leave-balances")
+    @Operation(summary = "休暇残日数取得", description = "現在のユーザーの指定年（省略時は今年）の休暇残日数を種別ごとに取得します")
+    public ResponseEntity<ApiResponses<List<LeaveBalance>>> getLeaveBalances(
+            @RequestParam(required = false) Integer year) {
+        try {
+            String employeeId = getCurrentEmployeeId();
+            List<LeaveBalance> balances = leaveBalanceService.getBalances(employeeId,
+                    year != null ? year : LocalDate.now().getYear());
+            
+            return ResponseEntity.ok(ApiResponses.success(balances));
+        } catch (Exception e) {
+            logger.error("Error getting leave balances", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("休暇残日数の取得でエラーが発生しました"));
+        }
+    }
 
     // Manager-only endpoints
     @GetMapping
     @PreAuthorize("hasRole('MANAGER')")
-    @Operation(summary = "ユーザー一覧取得", description = "全てのアクティブユーザーを取得します（管理者のみ）")
-    public ResponseEntity<ApiResponses<List<UserDto>>> getAllUsers() {
+    @Operation(summary = "ユーザー一覧取得", description = "アクティブユーザーを登録の新しい順にカーソル方式でページ取得します（管理者のみ）")
+    public ResponseEntity<ApiResponses<CursorPage<UserDto>>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<User> users = userService.getAllActiveUsers();
-            List<UserDto> userDtos = users.stream()
-                    .map(userMapper::toDto)
-                    .toList();
+            CursorPage<User> users = userService.getActiveUsersPage(cursor, limit);
+            CursorPage<UserDto> userDtos = new CursorPage<>(
+                    users.getItems().stream().map(userMapper::toDto).toList(),
+                    users.getNextCursor(), users.isHasMore());
             
             return ResponseEntity.ok(ApiResponses.success(userDtos));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error getting all users", e);
             return ResponseEntity.internalServerError().body(ApiResponses.error("ユーザー一覧の取得でエラーが発生しました"));
@@ -152,6 +178,25 @@ public class UserController {
         }
     }
 
+    @PostMapping("/{employeeId}/leave-balances/grants")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "休暇付与", description = "指定ユーザーの休暇日数を追加付与します。負の日数で付与を取り消します（管理者のみ）")
+    public ResponseEntity<ApiResponses<LeaveBalance>> grantLeave(
+            @PathVariable String employeeId,
+            @Valid @RequestBody GrantLeaveRequest request) {
+        try {
+            int year = request.getYear() != null ? request.getYear() : LocalDate.now().getYear();
+            LeaveBalance balance = leaveBalanceService.grant(employeeId, request.getLeaveType(), year, request.getDays());
+            
+            return ResponseEntity.ok(ApiResponses.success(balance, "休暇を付与しました"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponses.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error granting leave", e);
+            return ResponseEntity.internalServerError().body(ApiResponses.error("休暇の付与でエラーが発生しました"));
+        }
+    }
+
     private String getCurrentEmployeeId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -228,4 +273,39 @@ public class UserController {
             this.role = role;
         }
     }
+
+    public static class GrantLeaveRequest {
+        @jakarta.validation.constraints.NotNull
+        private com.ams.entity.enums.LeaveType leaveType;
+
+        // Defaults to the current year
+        private Integer year;
+
+        @jakarta.validation.constraints.NotNull
+        private Integer days;
+
+        public com.ams.entity.enums.LeaveType getLeaveType() {
+            return leaveType;
+        }
+
+        public void setLeaveType(com.ams.entity.enums.LeaveType leaveType) {
+            this.leaveType = leaveType;
+        }
+
+        public Integer getYear() {
+            return year;
+        }
+
+        public void setYear(Integer year) {
+            this.year = year;
+        }
+
+        public Integer getDays() {
+            return days;
+        }
+
+        public void setDays(Integer days) {
+            this.days = days;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.ams.dto;
+
+import com.ams.entity.BaseEntity;
+import com.ams.util.KeysetCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list, returned as the data of an {@link ApiResponses}.
+ * Clients pass {@code nextCursor} back as {@code cursor} while {@code hasMore} is true.
+ */
+public class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Clamps a requested page size; missing or non-positive values fall back to the default
+    public static int resolveLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    // Builds a page from rows fetched with limit + 1, the extra row only signalling that more exist
+    public static <E extends BaseEntity> CursorPage<E> of(List<E> fetched, int limit) {
+        return of(fetched, limit, Function.identity());
+    }
+
+    public static <E extends BaseEntity, T> CursorPage<T> of(List<E> fetched, int limit, Function<E, T> mapper) {
+        boolean hasMore = fetched.size() > limit;
+        List<E> rows = hasMore ? fetched.subList(0, limit) : fetched;
+        String nextCursor = hasMore ? KeysetCursor.encode(rows.get(rows.size() - 1)) : null;
+        return new CursorPage<>(rows.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ams.dto.export;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap fingerprint of a set of rows: how many there are and when the newest one changed.
+ * Any insert, update or removal within the set changes at least one of the two values, once transactions
+ * that started before the newest change have committed.
+ */
+public class DataVersion {
+
+    private final long count;
+    private final LocalDateTime lastUpdated;
+
+    // Constructor used by JPQL constructor expressions; MAX over an empty set arrives as null
+    public DataVersion(Number count, LocalDateTime lastUpdated) {
+        this.count = count != null ? count.longValue() : 0L;
+        this.lastUpdated = lastUpdated;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    @Override
+    public String toString() {
+        return count + "@" + lastUpdated;
+    }
+}
@@ -0,0 +1,98 @@
+package com.ams.dto.export;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of a delta export: rows changed and rows deleted since the client's watermark.
+ * Clients pass {@code watermark} back on the next call and keep paging while {@code hasMore} is true.
+ */
+public class DeltaPage<T> {
+
+    private List<T> changes;
+    private List<Tombstone> deletions;
+    private String watermark;
+    private boolean hasMore;
+
+    public DeltaPage() {
+    }
+
+    public DeltaPage(List<T> changes, List<Tombstone> deletions, String watermark, boolean hasMore) {
+        this.changes = changes;
+        this.deletions = deletions;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<T> changes) {
+        this.changes = changes;
+    }
+
+    public List<Tombstone> getDeletions() {
+        return deletions;
+    }
+
+    public void setDeletions(List<Tombstone> deletions) {
+        this.deletions = deletions;
+    }
+
+    public String getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(String watermark) {
+        this.watermark = watermark;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public static class Tombstone {
+        private UUID id;
+        private UUID userId;
+        private LocalDateTime deletedAt;
+
+        public Tombstone() {
+        }
+
+        public Tombstone(UUID id, UUID userId, LocalDateTime deletedAt) {
+            this.id = id;
+            this.userId = userId;
+            this.deletedAt = deletedAt;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public void setId(UUID id) {
+            this.id = id;
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public void setUserId(UUID userId) {
+            this.userId = userId;
+        }
+
+        public LocalDateTime getDeletedAt() {
+            return deletedAt;
+        }
+
+        public void setDeletedAt(LocalDateTime deletedAt) {
+            this.deletedAt = deletedAt;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ams.dto.export;
+
+/**
+ * Per-member attendance summary produced by a single grouped aggregation query.
+ */
+public class TeamSummaryRow {
+
+    private final String employeeId;
+    private final String name;
+    private final String departmentName;
+    private final double totalHours;
+    private final double averageHours;
+    private final long presentDays;
+    private final long lateDays;
+    private final long absentDays;
+
+    // Constructor used by JPQL constructor expressions; aggregates arrive as Number and may be null
+    public TeamSummaryRow(String employeeId, String name, String departmentName,
+                          Number totalHours, Number averageHours,
+                          Number presentDays, Number lateDays, Number absentDays) {
+        this.employeeId = employeeId;
+        this.name = name;
+        this.departmentName = departmentName;
+        this.totalHours = totalHours != null ? totalHours.doubleValue() : 0.0;
+        this.averageHours = averageHours != null ? averageHours.doubleValue() : 0.0;
+        this.presentDays = presentDays != null ? presentDays.longValue() : 0L;
+        this.lateDays = lateDays != null ? lateDays.longValue() : 0L;
+        this.absentDays = absentDays != null ? absentDays.longValue() : 0L;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public double getTotalHours() {
+        return totalHours;
+    }
+
+    public double getAverageHours() {
+        return averageHours;
+    }
+
+    public long getPresentDays() {
+        return presentDays;
+    }
+
+    public long getLateDays() {
+        return lateDays;
+    }
+
+    public long getAbsentDays() {
+        return absentDays;
+    }
+
+    @Override
+    public String toString() {
+        return "TeamSummaryRow{" +
+                "employeeId='" + employeeId + '\'' +
+                ", totalHours=" + totalHours +
+                ", presentDays=" + presentDays +
+                ", lateDays=" + lateDays +
+                ", absentDays=" + absentDays +
+                '}';
+    }
+}
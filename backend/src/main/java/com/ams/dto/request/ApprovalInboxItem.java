@@ -0,0 +1,46 @@
+package com.ams.dto.request;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of the unified approval inbox, read by a native UNION ALL over leave and time modification
+ * requests. {@code requestType} is "leave" or "time_modification"; columns of the other type are null.
+ */
+public interface ApprovalInboxItem {
+
+    String getRequestType();
+
+    UUID getId();
+
+    LocalDateTime getCreatedAt();
+
+    UUID getUserId();
+
+    String getEmployeeId();
+
+    String getEmployeeName();
+
+    String getDepartmentName();
+
+    String getReason();
+
+    // Leave requests
+    String getLeaveType();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+
+    // Time modification requests
+    LocalDate getRequestDate();
+
+    LocalDateTime getOriginalClockIn();
+
+    LocalDateTime getOriginalClockOut();
+
+    LocalDateTime getRequestedClockIn();
+
+    LocalDateTime getRequestedClockOut();
+}
@@ -0,0 +1,106 @@
+package com.ams.dto.request;
+
+import com.ams.entity.enums.RequestStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk approval or rejection, with one item per submitted request in submission order.
+ * A failed item carries the reason it was skipped; the other items are still decided.
+ */
+public class BulkApprovalResult {
+
+    private List<Item> items = new ArrayList<>();
+
+    public BulkApprovalResult() {
+    }
+
+    public BulkApprovalResult(List<Item> items) {
+        this.items = items;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public long getSucceeded() {
+        return items.stream().filter(Item::isSuccess).count();
+    }
+
+    public long getFailed() {
+        return items.size() - getSucceeded();
+    }
+
+    public static class Item {
+        private String requestType;
+        private UUID requestId;
+        private boolean success;
+        private RequestStatus status;
+        private String error;
+
+        public Item() {
+        }
+
+        public Item(String requestType, UUID requestId, boolean success, RequestStatus status, String error) {
+            this.requestType = requestType;
+            this.requestId = requestId;
+            this.success = success;
+            this.status = status;
+            this.error = error;
+        }
+
+        public static Item success(String requestType, UUID requestId, RequestStatus status) {
+            return new Item(requestType, requestId, true, status, null);
+        }
+
+        public static Item failure(String requestType, UUID requestId, String error) {
+            return new Item(requestType, requestId, false, null, error);
+        }
+
+        public String getRequestType() {
+            return requestType;
+        }
+
+        public void setRequestType(String requestType) {
+            this.requestType = requestType;
+        }
+
+        public UUID getRequestId() {
+            return requestId;
+        }
+
+        public void setRequestId(UUID requestId) {
+            this.requestId = requestId;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+
+        public RequestStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(RequestStatus status) {
+            this.status = status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
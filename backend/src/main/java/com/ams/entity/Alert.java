@@ -9,12 +9,17 @@ import jakarta.validation.constraints.Size;
 
 import java.time.LocalDate;
 
+// Partitioned by month of alert_date (V8); the table key is (id, alert_date) but id alone is unique
 @Entity
-@Table(name = "alerts", indexes = {
+@Table(name = "alerts", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_alert_user_type_date", columnNames = {"user_id", "type", "alert_date"})
+}, indexes = {
     @Index(name = "idx_alert_user", columnList = "user_id"),
     @Index(name = "idx_alert_type", columnList = "type"),
     @Index(name = "idx_alert_date", columnList = "alert_date"),
-    @Index(name = "idx_alert_read", columnList = "is_read")
+    @Index(name = "idx_alert_read", columnList = "is_read"),
+    @Index(name = "idx_alert_created_at", columnList = "created_at, id"),
+    @Index(name = "idx_alert_user_created_at", columnList = "user_id, created_at, id")
 })
 public class Alert extends BaseEntity {
 
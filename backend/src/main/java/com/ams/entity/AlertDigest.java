@@ -0,0 +1,111 @@
+package com.ams.entity;
+
+import com.ams.entity.enums.AlertType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alerts of one type for one manager's team within one time window, collapsed into a single row.
+ * The affected employees are the digest's {@link AlertDigestItem}s.
+ */
+@Entity
+@Table(name = "alert_digests", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_alert_digest_manager_type_window", columnNames = {"manager_id", "type", "window_start"})
+}, indexes = {
+    @Index(name = "idx_alert_digest_manager_created_at", columnList = "manager_id, created_at, id")
+})
+public class AlertDigest extends BaseEntity {
+
+    @Column(name = "manager_id", nullable = false, length = 20)
+    private String managerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private AlertType type;
+
+    @Column(name = "window_start", nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(name = "window_end", nullable = false)
+    private LocalDateTime windowEnd;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount = 0;
+
+    @Column(name = "is_read", nullable = false)
+    private Boolean isRead = false;
+
+    // Default constructor
+    public AlertDigest() {
+    }
+
+    // Business methods
+    public void markAsRead() {
+        this.isRead = true;
+    }
+
+    public String getMessage() {
+        return String.format("%d名の%sアラートがあります", itemCount, type.getDisplayName());
+    }
+
+    // Getters and Setters
+    public String getManagerId() {
+        return managerId;
+    }
+
+    public void setManagerId(String managerId) {
+        this.managerId = managerId;
+    }
+
+    public AlertType getType() {
+        return type;
+    }
+
+    public void setType(AlertType type) {
+        this.type = type;
+    }
+
+    public LocalDateTime getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(LocalDateTime windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public LocalDateTime getWindowEnd() {
+        return windowEnd;
+    }
+
+    public void setWindowEnd(LocalDateTime windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public Boolean getIsRead() {
+        return isRead;
+    }
+
+    public void setIsRead(Boolean isRead) {
+        this.isRead = isRead;
+    }
+
+    @Override
+    public String toString() {
+        return "AlertDigest{" +
+                "id=" + getId() +
+                ", managerId='" + managerId + '\'' +
+                ", type=" + type +
+                ", windowStart=" + windowStart +
+                ", itemCount=" + itemCount +
+                '}';
+    }
+}
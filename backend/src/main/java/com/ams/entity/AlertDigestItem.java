@@ -0,0 +1,117 @@
+package com.ams.entity;
+
+import com.ams.entity.enums.AlertType;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One affected employee in an {@link AlertDigest}. The employee's id and name are copied in,
+ * so expanding a digest reads a single table.
+ */
+@Entity
+@Table(name = "alert_digest_items", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_alert_digest_item_manager_type_user_date",
+                      columnNames = {"manager_id", "type", "user_id", "alert_date"})
+}, indexes = {
+    @Index(name = "idx_alert_digest_item_digest_created_at", columnList = "digest_id, created_at, id")
+})
+public class AlertDigestItem extends BaseEntity {
+
+    @Column(name = "digest_id", nullable = false)
+    private UUID digestId;
+
+    // Copied from the digest, so an employee is listed once per manager, type and date across windows
+    @Column(name = "manager_id", nullable = false, length = 20)
+    private String managerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private AlertType type;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "employee_id", nullable = false, length = 20)
+    private String employeeId;
+
+    @Column(name = "employee_name", nullable = false, length = 100)
+    private String employeeName;
+
+    @Column(name = "alert_date", nullable = false)
+    private LocalDate alertDate;
+
+    // Short type-specific detail, e.g. the clock-in time of a late arrival
+    @Column(name = "detail", length = 100)
+    private String detail;
+
+    // Default constructor
+    public AlertDigestItem() {
+    }
+
+    // Getters and Setters
+    public UUID getDigestId() {
+        return digestId;
+    }
+
+    public void setDigestId(UUID digestId) {
+        this.digestId = digestId;
+    }
+
+    public String getManagerId() {
+        return managerId;
+    }
+
+    public void setManagerId(String managerId) {
+        this.managerId = managerId;
+    }
+
+    public AlertType getType() {
+        return type;
+    }
+
+    public void setType(AlertType type) {
+        this.type = type;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(String employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public void setEmployeeName(String employeeName) {
+        this.employeeName = employeeName;
+    }
+
+    public LocalDate getAlertDate() {
+        return alertDate;
+    }
+
+    public void setAlertDate(LocalDate alertDate) {
+        this.alertDate = alertDate;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+}
@@ -0,0 +1,114 @@
+package com.ams.entity;
+
+import com.ams.entity.enums.ApprovalAuditAction;
+import jakarta.persistence.*;
+
+import java.util.UUID;
+
+/**
+ * Record of an approval workflow step taken without a manager, such as an auto-approval or an SLA
+ * escalation, naming the rule that took it. The request is referenced by type and id only, so entries
+ * outlive the request.
+ */
+@Entity
+@Table(name = "approval_audit_logs", indexes = {
+    @Index(name = "idx_approval_audit_log_request", columnList = "request_id, action"),
+    @Index(name = "idx_approval_audit_log_created_at", columnList = "created_at, id")
+})
+public class ApprovalAuditLog extends BaseEntity {
+
+    // "leave" or "time_modification", as in the approval endpoints
+    @Column(name = "request_type", nullable = false, length = 30)
+    private String requestType;
+
+    @Column(name = "request_id", nullable = false)
+    private UUID requestId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action", nullable = false, length = 30)
+    private ApprovalAuditAction action;
+
+    @Column(name = "rule_name", length = 50)
+    private String ruleName;
+
+    @Column(name = "detail", length = 500)
+    private String detail;
+
+    // Default constructor
+    public ApprovalAuditLog() {
+    }
+
+    // Constructor with essential fields
+    public ApprovalAuditLog(String requestType, UUID requestId, UUID userId, ApprovalAuditAction action,
+                            String ruleName, String detail) {
+        this.requestType = requestType;
+        this.requestId = requestId;
+        this.userId = userId;
+        this.action = action;
+        this.ruleName = ruleName;
+        this.detail = detail;
+    }
+
+    // Getters and Setters
+    public String getRequestType() {
+        return requestType;
+    }
+
+    public void setRequestType(String requestType) {
+        this.requestType = requestType;
+    }
+
+    public UUID getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(UUID requestId) {
+        this.requestId = requestId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public ApprovalAuditAction getAction() {
+        return action;
+    }
+
+    public void setAction(ApprovalAuditAction action) {
+        this.action = action;
+    }
+
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    public void setRuleName(String ruleName) {
+        this.ruleName = ruleName;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    @Override
+    public String toString() {
+        return "ApprovalAuditLog{" +
+                "id=" + getId() +
+                ", requestType='" + requestType + '\'' +
+                ", requestId=" + requestId +
+                ", action=" + action +
+                ", ruleName='" + ruleName + '\'' +
+                '}';
+    }
+}
@@ -25,6 +25,12 @@ public abstract class BaseEntity {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Checked on every update, so of two transactions that read the same row only the first to commit wins;
+    // native updates of rows also written through JPA must bump it themselves
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Default constructor
     protected BaseEntity() {
     }
@@ -54,6 +60,14 @@ public abstract class BaseEntity {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -0,0 +1,75 @@
+package com.ams.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Tombstone written by a database trigger when a delta-exported row is deleted.
+ */
+@Entity
+@Immutable
+@Table(name = "deleted_records", indexes = {
+    @Index(name = "idx_deleted_record_table_deleted_at", columnList = "table_name, deleted_at, id")
+})
+public class DeletedRecord {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "table_name", nullable = false, length = 50)
+    private String tableName;
+
+    @Column(name = "record_id", nullable = false)
+    private UUID recordId;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "department_id")
+    private UUID departmentId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Default constructor
+    protected DeletedRecord() {
+    }
+
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public UUID getRecordId() {
+        return recordId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public UUID getDepartmentId() {
+        return departmentId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "DeletedRecord{" +
+                "tableName='" + tableName + '\'' +
+                ", recordId=" + recordId +
+                ", deletedAt=" + deletedAt +
+                '}';
+    }
+}
@@ -7,9 +7,14 @@ import jakarta.validation.constraints.Size;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Entity
-@Table(name = "departments")
+@Table(name = "departments", indexes = {
+    @Index(name = "idx_department_manager", columnList = "manager_id"),
+    @Index(name = "idx_department_parent", columnList = "parent_id"),
+    @Index(name = "idx_department_updated_at", columnList = "updated_at")
+})
 public class Department extends BaseEntity {
 
     @NotBlank(message = "部署名は必須です")
@@ -20,6 +25,10 @@ public class Department extends BaseEntity {
     @Column(name = "manager_id")
     private String managerId;
 
+    // Parent in the department hierarchy; requests escalate to the manager of the parent department
+    @Column(name = "parent_id")
+    private UUID parentId;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id", referencedColumnName = "employee_id", insertable = false, updatable = false)
     @JsonIgnore
@@ -55,6 +64,14 @@ public class Department extends BaseEntity {
         this.managerId = managerId;
     }
 
+    public UUID getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(UUID parentId) {
+        this.parentId = parentId;
+    }
+
     public User getManager() {
         return manager;
     }
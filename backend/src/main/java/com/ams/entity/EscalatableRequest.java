@@ -0,0 +1,28 @@
+package com.ams.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Escalation state shared by the request types a manager approves.
+ */
+public interface EscalatableRequest {
+
+    UUID getId();
+
+    User getUser();
+
+    boolean isPending();
+
+    LocalDateTime getEscalationDueAt();
+
+    void setEscalationDueAt(LocalDateTime escalationDueAt);
+
+    Integer getEscalationLevel();
+
+    void setEscalationLevel(Integer escalationLevel);
+
+    String getEscalatedTo();
+
+    void setEscalatedTo(String escalatedTo);
+}
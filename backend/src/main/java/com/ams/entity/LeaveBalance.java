@@ -0,0 +1,115 @@
+package com.ams.entity;
+
+import com.ams.entity.enums.LeaveType;
+import jakarta.persistence.*;
+
+import java.util.UUID;
+
+/**
+ * Leave ledger row for one user, year and balance-tracked leave type. Pending requests reserve their days
+ * when filed and move to used on approval, so the remaining days never need to be recounted from requests.
+ */
+@Entity
+@Table(name = "leave_balances", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_leave_balance_user_year_type", columnNames = {"user_id", "leave_year", "leave_type"})
+})
+public class LeaveBalance extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "leave_year", nullable = false)
+    private Integer leaveYear;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "leave_type", nullable = false, length = 20)
+    private LeaveType leaveType;
+
+    @Column(name = "granted_days", nullable = false)
+    private Integer grantedDays = 0;
+
+    @Column(name = "carried_over_days", nullable = false)
+    private Integer carriedOverDays = 0;
+
+    @Column(name = "used_days", nullable = false)
+    private Integer usedDays = 0;
+
+    @Column(name = "pending_days", nullable = false)
+    private Integer pendingDays = 0;
+
+    // Default constructor
+    public LeaveBalance() {
+    }
+
+    public int getRemainingDays() {
+        return grantedDays + carriedOverDays - usedDays - pendingDays;
+    }
+
+    // Getters and Setters
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public Integer getLeaveYear() {
+        return leaveYear;
+    }
+
+    public void setLeaveYear(Integer leaveYear) {
+        this.leaveYear = leaveYear;
+    }
+
+    public LeaveType getLeaveType() {
+        return leaveType;
+    }
+
+    public void setLeaveType(LeaveType leaveType) {
+        this.leaveType = leaveType;
+    }
+
+    public Integer getGrantedDays() {
+        return grantedDays;
+    }
+
+    public void setGrantedDays(Integer grantedDays) {
+        this.grantedDays = grantedDays;
+    }
+
+    public Integer getCarriedOverDays() {
+        return carriedOverDays;
+    }
+
+    public void setCarriedOverDays(Integer carriedOverDays) {
+        this.carriedOverDays = carriedOverDays;
+    }
+
+    public Integer getUsedDays() {
+        return usedDays;
+    }
+
+    public void setUsedDays(Integer usedDays) {
+        this.usedDays = usedDays;
+    }
+
+    public Integer getPendingDays() {
+        return pendingDays;
+    }
+
+    public void setPendingDays(Integer pendingDays) {
+        this.pendingDays = pendingDays;
+    }
+
+    @Override
+    public String toString() {
+        return "LeaveBalance{" +
+                "id=" + getId() +
+                ", userId=" + userId +
+                ", leaveYear=" + leaveYear +
+                ", leaveType=" + leaveType +
+                ", remainingDays=" + getRemainingDays() +
+                '}';
+    }
+}
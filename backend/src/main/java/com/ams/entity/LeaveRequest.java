@@ -16,9 +16,12 @@ import java.time.LocalDateTime;
     @Index(name = "idx_leave_request_user", columnList = "user_id"),
     @Index(name = "idx_leave_request_status", columnList = "status"),
     @Index(name = "idx_leave_request_dates", columnList = "start_date, end_date"),
-    @Index(name = "idx_leave_request_approved_by", columnList = "approved_by")
+    @Index(name = "idx_leave_request_approved_by", columnList = "approved_by"),
+    @Index(name = "idx_leave_request_updated_at", columnList = "updated_at, id"),
+    @Index(name = "idx_leave_request_status_created_at", columnList = "status, created_at, id"),
+    @Index(name = "idx_leave_request_user_status_created_at", columnList = "user_id, status, created_at, id")
 })
-public class LeaveRequest extends BaseEntity {
+public class LeaveRequest extends BaseEntity implements EscalatableRequest {
 
     @NotNull(message = "ユーザーは必須です")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -61,6 +64,18 @@ public class LeaveRequest extends BaseEntity {
     @Column(name = "rejection_reason", length = 500)
     private String rejectionReason;
 
+    // When the pending request escalates next, null once nobody is left above; the partial index
+    // on (escalation_due_at, id) over pending rows is created in V13 only
+    @Column(name = "escalation_due_at")
+    private LocalDateTime escalationDueAt;
+
+    @Column(name = "escalation_level", nullable = false)
+    private Integer escalationLevel = 0;
+
+    // Manager above the department manager who may also decide the request
+    @Column(name = "escalated_to", length = 20)
+    private String escalatedTo;
+
     // Default constructor
     public LeaveRequest() {
     }
@@ -186,6 +201,30 @@ public class LeaveRequest extends BaseEntity {
         this.rejectionReason = rejectionReason;
     }
 
+    public LocalDateTime getEscalationDueAt() {
+        return escalationDueAt;
+    }
+
+    public void setEscalationDueAt(LocalDateTime escalationDueAt) {
+        this.escalationDueAt = escalationDueAt;
+    }
+
+    public Integer getEscalationLevel() {
+        return escalationLevel;
+    }
+
+    public void setEscalationLevel(Integer escalationLevel) {
+        this.escalationLevel = escalationLevel;
+    }
+
+    public String getEscalatedTo() {
+        return escalatedTo;
+    }
+
+    public void setEscalatedTo(String escalatedTo) {
+        this.escalatedTo = escalatedTo;
+    }
+
     @Override
     public String toString() {
         return "LeaveRequest{" +
@@ -0,0 +1,88 @@
+package com.ams.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Running monthly totals for one user, updated by the attendance rule engine as time records complete.
+ */
+@Entity
+@Table(name = "monthly_work_summaries", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_monthly_work_summary_user_month", columnNames = {"user_id", "summary_month"})
+})
+public class MonthlyWorkSummary extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    // First day of the month
+    @Column(name = "summary_month", nullable = false)
+    private LocalDate summaryMonth;
+
+    @Column(name = "worked_minutes", nullable = false)
+    private Integer workedMinutes = 0;
+
+    @Column(name = "overtime_minutes", nullable = false)
+    private Integer overtimeMinutes = 0;
+
+    @Column(name = "days_worked", nullable = false)
+    private Integer daysWorked = 0;
+
+    // Default constructor
+    public MonthlyWorkSummary() {
+    }
+
+    // Getters and Setters
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getSummaryMonth() {
+        return summaryMonth;
+    }
+
+    public void setSummaryMonth(LocalDate summaryMonth) {
+        this.summaryMonth = summaryMonth;
+    }
+
+    public Integer getWorkedMinutes() {
+        return workedMinutes;
+    }
+
+    public void setWorkedMinutes(Integer workedMinutes) {
+        this.workedMinutes = workedMinutes;
+    }
+
+    public Integer getOvertimeMinutes() {
+        return overtimeMinutes;
+    }
+
+    public void setOvertimeMinutes(Integer overtimeMinutes) {
+        this.overtimeMinutes = overtimeMinutes;
+    }
+
+    public Integer getDaysWorked() {
+        return daysWorked;
+    }
+
+    public void setDaysWorked(Integer daysWorked) {
+        this.daysWorked = daysWorked;
+    }
+
+    @Override
+    public String toString() {
+        return "MonthlyWorkSummary{" +
+                "userId=" + userId +
+                ", summaryMonth=" + summaryMonth +
+                ", workedMinutes=" + workedMinutes +
+                ", overtimeMinutes=" + overtimeMinutes +
+                ", daysWorked=" + daysWorked +
+                '}';
+    }
+}
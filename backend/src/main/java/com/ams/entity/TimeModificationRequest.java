@@ -15,9 +15,13 @@ import java.time.LocalDateTime;
     @Index(name = "idx_time_mod_request_user", columnList = "user_id"),
     @Index(name = "idx_time_mod_request_status", columnList = "status"),
     @Index(name = "idx_time_mod_request_date", columnList = "request_date"),
-    @Index(name = "idx_time_mod_request_approved_by", columnList = "approved_by")
+    @Index(name = "idx_time_mod_request_approved_by", columnList = "approved_by"),
+    @Index(name = "idx_time_mod_request_updated_at", columnList = "updated_at, id"),
+    @Index(name = "idx_time_mod_request_user_created_at", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_time_mod_request_status_created_at", columnList = "status, created_at, id"),
+    @Index(name = "idx_time_mod_request_user_status_created_at", columnList = "user_id, status, created_at, id")
 })
-public class TimeModificationRequest extends BaseEntity {
+public class TimeModificationRequest extends BaseEntity implements EscalatableRequest {
 
     @NotNull(message = "ユーザーは必須です")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -63,6 +67,18 @@ public class TimeModificationRequest extends BaseEntity {
     @Column(name = "rejection_reason", length = 500)
     private String rejectionReason;
 
+    // When the pending request escalates next, null once nobody is left above; the partial index
+    // on (escalation_due_at, id) over pending rows is created in V13 only
+    @Column(name = "escalation_due_at")
+    private LocalDateTime escalationDueAt;
+
+    @Column(name = "escalation_level", nullable = false)
+    private Integer escalationLevel = 0;
+
+    // Manager above the department manager who may also decide the request
+    @Column(name = "escalated_to", length = 20)
+    private String escalatedTo;
+
     // Default constructor
     public TimeModificationRequest() {
     }
@@ -206,6 +222,30 @@ public class TimeModificationRequest extends BaseEntity {
         this.rejectionReason = rejectionReason;
     }
 
+    public LocalDateTime getEscalationDueAt() {
+        return escalationDueAt;
+    }
+
+    public void setEscalationDueAt(LocalDateTime escalationDueAt) {
+        this.escalationDueAt = escalationDueAt;
+    }
+
+    public Integer getEscalationLevel() {
+        return escalationLevel;
+    }
+
+    public void setEscalationLevel(Integer escalationLevel) {
+        this.escalationLevel = escalationLevel;
+    }
+
+    public String getEscalatedTo() {
+        return escalatedTo;
+    }
+
+    public void setEscalatedTo(String escalatedTo) {
+        this.escalatedTo = escalatedTo;
+    }
+
     @Override
     public String toString() {
         return "TimeModificationRequest{" +
@@ -22,8 +22,9 @@ import jakarta.validation.constraints.NotNull;
 @Entity
 @Table(name = "time_records", indexes = {
     @Index(name = "idx_time_record_user_date", columnList = "user_id, record_date", unique = true),
-    @Index(name = "idx_time_record_date", columnList = "record_date"),
-    @Index(name = "idx_time_record_status", columnList = "status")
+    @Index(name = "idx_time_record_date_updated_at", columnList = "record_date, updated_at"),
+    @Index(name = "idx_time_record_status", columnList = "status"),
+    @Index(name = "idx_time_record_updated_at", columnList = "updated_at, id")
 })
 public class TimeRecord extends BaseEntity {
 
@@ -18,7 +18,9 @@ import java.util.List;
 @Table(name = "users", indexes = {
     @Index(name = "idx_user_employee_id", columnList = "employee_id", unique = true),
     @Index(name = "idx_user_email", columnList = "email"),
-    @Index(name = "idx_user_department", columnList = "department_id")
+    @Index(name = "idx_user_department", columnList = "department_id"),
+    @Index(name = "idx_user_created_at", columnList = "created_at, id"),
+    @Index(name = "idx_user_updated_at", columnList = "updated_at")
 })
 public class User extends BaseEntity implements UserDetails {
 
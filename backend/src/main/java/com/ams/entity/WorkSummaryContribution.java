@@ -0,0 +1,75 @@
+package com.ams.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What one completed time record last added to its monthly summary, so a re-evaluation applies only the difference.
+ */
+@Entity
+@Table(name = "work_summary_contributions")
+public class WorkSummaryContribution {
+
+    @Id
+    @Column(name = "time_record_id", updatable = false, nullable = false)
+    private UUID timeRecordId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "summary_month", nullable = false)
+    private LocalDate summaryMonth;
+
+    @Column(name = "worked_minutes", nullable = false)
+    private Integer workedMinutes;
+
+    @Column(name = "overtime_minutes", nullable = false)
+    private Integer overtimeMinutes;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Default constructor
+    protected WorkSummaryContribution() {
+    }
+
+    public WorkSummaryContribution(UUID timeRecordId) {
+        this.timeRecordId = timeRecordId;
+    }
+
+    public void update(UUID userId, LocalDate summaryMonth, int workedMinutes, int overtimeMinutes) {
+        this.userId = userId;
+        this.summaryMonth = summaryMonth;
+        this.workedMinutes = workedMinutes;
+        this.overtimeMinutes = overtimeMinutes;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public UUID getTimeRecordId() {
+        return timeRecordId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public LocalDate getSummaryMonth() {
+        return summaryMonth;
+    }
+
+    public Integer getWorkedMinutes() {
+        return workedMinutes;
+    }
+
+    public Integer getOvertimeMinutes() {
+        return overtimeMinutes;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
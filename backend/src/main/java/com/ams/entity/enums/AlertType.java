@@ -5,7 +5,9 @@ public enum AlertType {
     ABSENT("欠勤"),
     MISSING_CLOCK_OUT("退勤打刻忘れ"),
     OVERTIME("残業"),
-    LONG_BREAK("長時間休憩");
+    LONG_BREAK("長時間休憩"),
+    MONTHLY_OVERTIME("月間残業"),
+    CONTINUOUS_WORK("連続勤務");
 
     private final String displayName;
 
@@ -0,0 +1,17 @@
+package com.ams.entity.enums;
+
+public enum ApprovalAuditAction {
+    AUTO_APPROVED("自動承認"),
+    AUTO_APPROVAL_MATCHED("自動承認対象（ドライラン）"),
+    ESCALATED("エスカレーション");
+
+    private final String displayName;
+
+    ApprovalAuditAction(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ams.entity.enums;
+
+public enum OutboxEventType {
+    LATE_CLOCK_IN("遅刻打刻"),
+    PUNCH_RECORDED("打刻記録"),
+    LEAVE_REQUEST_DECIDED("休暇申請処理"),
+    TIME_MODIFICATION_DECIDED("打刻修正申請処理"),
+    REQUEST_ESCALATED("申請エスカレーション");
+
+    private final String displayName;
+
+    OutboxEventType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ams.entity.enums;
+
+public enum OutboxStatus {
+    PENDING("未処理"),
+    PROCESSED("処理済み"),
+    FAILED("失敗");
+
+    private final String displayName;
+
+    OutboxStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -112,6 +112,15 @@ public class GlobalExceptionHandler {
     }
 
     // Database exceptions
+    // A concurrent update won the version check; the client should reload and try again
+    @ExceptionHandler(org.springframework.dao.OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponses<Object>> handleOptimisticLockingFailureException(
+            org.springframework.dao.OptimisticLockingFailureException ex, WebRequest request) {
+        logger.warn("Optimistic lock conflict: {} - URI: {}", ex.getMessage(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponses.error("他のユーザーによって更新されました。最新の内容を確認してから再度お試しください"));
+    }
+
     @ExceptionHandler(org.springframework.dao.DataIntegrityViolationException.class)
     public ResponseEntity<ApiResponses<Object>> handleDataIntegrityViolationException(
             org.springframework.dao.DataIntegrityViolationException ex, WebRequest request) {
@@ -0,0 +1,43 @@
+package com.ams.repository;
+
+import com.ams.entity.AlertDigestItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AlertDigestItemRepository extends JpaRepository<AlertDigestItem, UUID> {
+
+    // Returns 0 when the employee is already listed for that date in any of the manager's digests of the type
+    @Modifying
+    @Query(value = "INSERT INTO alert_digest_items (id, digest_id, manager_id, type, user_id, employee_id, employee_name, " +
+                   "alert_date, detail, created_at, updated_at) " +
+                   "VALUES (uuid_generate_v4(), :digestId, :managerId, :type, :userId, :employeeId, :employeeName, " +
+                   "CAST(:alertDate AS date), :detail, now(), now()) " +
+                   "ON CONFLICT (manager_id, type, user_id, alert_date) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("digestId") UUID digestId,
+                       @Param("managerId") String managerId,
+                       @Param("type") String type,
+                       @Param("userId") UUID userId,
+                       @Param("employeeId") String employeeId,
+                       @Param("employeeName") String employeeName,
+                       @Param("alertDate") LocalDate alertDate,
+                       @Param("detail") String detail);
+
+    @Query("SELECT i FROM AlertDigestItem i WHERE i.digestId = :digestId " +
+           "AND (i.createdAt < :cursorTime OR (i.createdAt = :cursorTime AND i.id < :cursorId)) " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    List<AlertDigestItem> findPageByDigestId(@Param("digestId") UUID digestId,
+                                             @Param("cursorTime") LocalDateTime cursorTime,
+                                             @Param("cursorId") UUID cursorId,
+                                             Pageable pageable);
+}
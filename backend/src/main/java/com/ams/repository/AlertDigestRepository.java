@@ -0,0 +1,50 @@
+package com.ams.repository;
+
+import com.ams.entity.AlertDigest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AlertDigestRepository extends JpaRepository<AlertDigest, UUID> {
+
+    // Returns the id of the manager's digest for the window, creating it if needed. The no-op update only
+    // makes RETURNING report an existing row; read state is left to incrementItemCount.
+    @Query(value = "INSERT INTO alert_digests (id, manager_id, type, window_start, window_end, item_count, is_read, " +
+                   "created_at, updated_at) " +
+                   "VALUES (uuid_generate_v4(), :managerId, :type, CAST(:windowStart AS timestamp), " +
+                   "CAST(:windowEnd AS timestamp), 0, FALSE, now(), now()) " +
+                   "ON CONFLICT (manager_id, type, window_start) DO UPDATE SET window_end = EXCLUDED.window_end " +
+                   "RETURNING id",
+           nativeQuery = true)
+    UUID upsertDigest(@Param("managerId") String managerId,
+                      @Param("type") String type,
+                      @Param("windowStart") LocalDateTime windowStart,
+                      @Param("windowEnd") LocalDateTime windowEnd);
+
+    // A digest that receives a new item becomes unread again
+    @Modifying
+    @Query("UPDATE AlertDigest d SET d.itemCount = d.itemCount + 1, d.isRead = false, d.version = d.version + 1 " +
+           "WHERE d.id = :digestId")
+    int incrementItemCount(@Param("digestId") UUID digestId);
+
+    // Digests whose only candidate item was already listed elsewhere stay empty and are not shown
+    @Query("SELECT d FROM AlertDigest d WHERE d.managerId = :managerId AND d.itemCount > 0 " +
+           "AND (d.createdAt < :cursorTime OR (d.createdAt = :cursorTime AND d.id < :cursorId)) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<AlertDigest> findPageByManagerId(@Param("managerId") String managerId,
+                                          @Param("cursorTime") LocalDateTime cursorTime,
+                                          @Param("cursorId") UUID cursorId,
+                                          Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM AlertDigest d WHERE d.windowStart < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
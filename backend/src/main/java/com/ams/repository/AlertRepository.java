@@ -2,6 +2,7 @@ package com.ams.repository;
 
 import com.ams.entity.Alert;
 import com.ams.entity.enums.AlertType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -39,21 +41,87 @@ public interface AlertRepository extends JpaRepository<Alert, UUID> {
     @Query("SELECT COUNT(a) FROM Alert a WHERE a.user.id = :userId AND a.isRead = false")
     long countUnreadAlertsByUserId(@Param("userId") UUID userId);
 
+    // Grouped counts used to reconcile the cached unread counters: rows of (userId, count) and (managerId, count)
+    @Query("SELECT a.user.id, COUNT(a) FROM Alert a WHERE a.isRead = false GROUP BY a.user.id")
+    List<Object[]> countUnreadAlertsGroupedByUser();
+
+    @Query("SELECT d.managerId, COUNT(a) FROM Alert a JOIN a.user u JOIN u.department d " +
+           "WHERE a.isRead = false AND d.managerId IS NOT NULL GROUP BY d.managerId")
+    List<Object[]> countUnreadAlertsGroupedByManager();
+
+    // Owners of the unread alerts among the given ids, as (userId, managerId) rows
+    @Query("SELECT DISTINCT u.id, d.managerId FROM Alert a JOIN a.user u LEFT JOIN u.department d " +
+           "WHERE a.id IN :alertIds AND a.isRead = false")
+    List<Object[]> findUnreadOwnersByIds(@Param("alertIds") List<UUID> alertIds);
+
     @Modifying
-    @Query("UPDATE Alert a SET a.isRead = true WHERE a.id IN :alertIds")
-    void markAlertsAsRead(@Param("alertIds") List<UUID> alertIds);
+    @Query("UPDATE Alert a SET a.isRead = true WHERE a.id IN :alertIds AND a.isRead = false")
+    int markAlertsAsRead(@Param("alertIds") List<UUID> alertIds);
 
     @Modifying
-    @Query("UPDATE Alert a SET a.isRead = true WHERE a.user.id = :userId")
-    void markAllAlertsAsReadByUserId(@Param("userId") UUID userId);
+    @Query("UPDATE Alert a SET a.isRead = true WHERE a.user.id = :userId AND a.isRead = false")
+    int markAllAlertsAsReadByUserId(@Param("userId") UUID userId);
 
     @Modifying
-    @Query("UPDATE Alert a SET a.isRead = true WHERE a.user.department.managerId = :managerId")
-    void markAllAlertsAsReadByManagerId(@Param("managerId") String managerId);
+    @Query("UPDATE Alert a SET a.isRead = true WHERE a.user.department.managerId = :managerId AND a.isRead = false")
+    int markAllAlertsAsReadByManagerId(@Param("managerId") String managerId);
 
     boolean existsByUserIdAndTypeAndAlertDate(UUID userId, AlertType type, LocalDate alertDate);
 
+    // alerts is range-partitioned by month of alert_date (V8); filters on alertDate prune partitions.
+    // Both functions are idempotent, serialized by an advisory lock (V18) and return what they changed.
+    @Query(value = "SELECT create_alert_partition(CAST(:month AS date))", nativeQuery = true)
+    boolean createMonthlyPartition(@Param("month") LocalDate month);
+
+    @Query(value = "SELECT drop_alert_partitions_before(CAST(:cutoff AS date))", nativeQuery = true)
+    int dropPartitionsBefore(@Param("cutoff") LocalDate cutoff);
+
+    // Keyset pages ordered by (created_at, id) descending; fetch limit + 1 rows to detect a next page
+    @Query("SELECT a FROM Alert a WHERE a.user.department.managerId = :managerId " +
+           "AND (a.createdAt < :cursorTime OR (a.createdAt = :cursorTime AND a.id < :cursorId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Alert> findPageByManagerId(@Param("managerId") String managerId,
+                                    @Param("cursorTime") LocalDateTime cursorTime,
+                                    @Param("cursorId") UUID cursorId,
+                                    Pageable pageable);
+
+    @Query("SELECT a FROM Alert a WHERE a.user.department.managerId = :managerId AND a.isRead = false " +
+           "AND (a.createdAt < :cursorTime OR (a.createdAt = :cursorTime AND a.id < :cursorId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Alert> findUnreadPageByManagerId(@Param("managerId") String managerId,
+                                          @Param("cursorTime") LocalDateTime cursorTime,
+                                          @Param("cursorId") UUID cursorId,
+                                          Pageable pageable);
+
+    // All alert creation goes through ON CONFLICT on uk_alert_user_type_date, so duplicates are skipped
+    // in the same round-trip instead of a separate existence check; the return value is the number inserted
+    @Modifying
+    @Query(value = "INSERT INTO alerts (id, type, user_id, alert_date, message, is_read, created_at, updated_at) " +
+                   "VALUES (uuid_generate_v4(), :type, :userId, CAST(:alertDate AS date), :message, FALSE, now(), now()) " +
+                   "ON CONFLICT (user_id, type, alert_date) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId,
+                       @Param("type") String type,
+                       @Param("alertDate") LocalDate alertDate,
+                       @Param("message") String message);
+
+    @Modifying
+    @Query(value = "INSERT INTO alerts (id, type, user_id, alert_date, message, is_read, created_at, updated_at) " +
+                   "SELECT uuid_generate_v4(), 'ABSENT', u.id, tr.record_date, " +
+                   "u.name || 'さんが' || :dateLabel || 'に欠勤しています。', FALSE, now(), now() " +
+                   "FROM time_records tr JOIN users u ON u.id = tr.user_id " +
+                   "WHERE tr.record_date = CAST(:date AS date) AND tr.status = 'ABSENT' AND tr.clock_in IS NULL " +
+                   "ON CONFLICT (user_id, type, alert_date) DO NOTHING",
+           nativeQuery = true)
+    int insertAbsentAlerts(@Param("date") LocalDate date, @Param("dateLabel") String dateLabel);
+
     @Modifying
-    @Query("DELETE FROM Alert a WHERE a.createdAt < :cutoffDate")
-    void deleteOldAlerts(@Param("cutoffDate") java.time.LocalDateTime cutoffDate);
+    @Query(value = "INSERT INTO alerts (id, type, user_id, alert_date, message, is_read, created_at, updated_at) " +
+                   "SELECT uuid_generate_v4(), 'MISSING_CLOCK_OUT', u.id, tr.record_date, " +
+                   "u.name || 'さんが' || :dateLabel || 'の退勤打刻を忘れています。', FALSE, now(), now() " +
+                   "FROM time_records tr JOIN users u ON u.id = tr.user_id " +
+                   "WHERE tr.record_date = CAST(:date AS date) AND tr.clock_in IS NOT NULL AND tr.clock_out IS NULL " +
+                   "ON CONFLICT (user_id, type, alert_date) DO NOTHING",
+           nativeQuery = true)
+    int insertMissingClockOutAlerts(@Param("date") LocalDate date, @Param("dateLabel") String dateLabel);
 }
\ No newline at end of file
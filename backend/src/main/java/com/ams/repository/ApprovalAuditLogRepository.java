@@ -0,0 +1,23 @@
+package com.ams.repository;
+
+import com.ams.entity.ApprovalAuditLog;
+import com.ams.entity.enums.ApprovalAuditAction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ApprovalAuditLogRepository extends JpaRepository<ApprovalAuditLog, UUID> {
+
+    List<ApprovalAuditLog> findByRequestIdOrderByCreatedAtAsc(UUID requestId);
+
+    // Which of the given requests already have an entry for the action
+    @Query("SELECT a.requestId FROM ApprovalAuditLog a WHERE a.action = :action AND a.requestId IN :requestIds")
+    List<UUID> findRequestIdsWithAction(@Param("action") ApprovalAuditAction action,
+                                        @Param("requestIds") Collection<UUID> requestIds);
+}
@@ -0,0 +1,97 @@
+package com.ams.repository;
+
+import com.ams.dto.request.ApprovalInboxItem;
+import com.ams.entity.LeaveRequest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pending leave and time modification requests of a manager's departments, and those escalated to the
+ * manager from other departments, as one list.
+ */
+@Repository
+public interface ApprovalInboxRepository extends org.springframework.data.repository.Repository<LeaveRequest, UUID> {
+
+    // Select lists shared by the team branch and the escalated branch of each request type
+    String LEAVE_COLUMNS =
+            "SELECT 'leave' AS \"requestType\", lr.id AS \"id\", lr.created_at AS \"createdAt\", " +
+            "       u.id AS \"userId\", u.employee_id AS \"employeeId\", u.name AS \"employeeName\", " +
+            "       d.name AS \"departmentName\", lr.reason AS \"reason\", " +
+            "       lr.type AS \"leaveType\", lr.start_date AS \"startDate\", lr.end_date AS \"endDate\", " +
+            "       CAST(NULL AS date) AS \"requestDate\", " +
+            "       CAST(NULL AS timestamp) AS \"originalClockIn\", CAST(NULL AS timestamp) AS \"originalClockOut\", " +
+            "       CAST(NULL AS timestamp) AS \"requestedClockIn\", CAST(NULL AS timestamp) AS \"requestedClockOut\" ";
+
+    String LEAVE_PAGE =
+            "  AND lr.status = 'PENDING' AND :includeLeave = TRUE " +
+            "  AND (CAST(:employeeId AS varchar) IS NULL OR u.employee_id = CAST(:employeeId AS varchar)) " +
+            "  AND (lr.created_at < CAST(:cursorTime AS timestamp) " +
+            "       OR (lr.created_at = CAST(:cursorTime AS timestamp) AND lr.id < :cursorId)) " +
+            "ORDER BY lr.created_at DESC, lr.id DESC " +
+            "LIMIT :limit";
+
+    String TIME_MODIFICATION_COLUMNS =
+            "SELECT 'time_modification', tmr.id, tmr.created_at, " +
+            "       u.id, u.employee_id, u.name, " +
+            "       d.name, tmr.reason, " +
+            "       NULL, NULL, NULL, " +
+            "       tmr.request_date, " +
+            "       tmr.original_clock_in, tmr.original_clock_out, " +
+            "       tmr.requested_clock_in, tmr.requested_clock_out ";
+
+    String TIME_MODIFICATION_PAGE =
+            "  AND tmr.status = 'PENDING' AND :includeTimeModification = TRUE " +
+            "  AND (CAST(:employeeId AS varchar) IS NULL OR u.employee_id = CAST(:employeeId AS varchar)) " +
+            "  AND (tmr.created_at < CAST(:cursorTime AS timestamp) " +
+            "       OR (tmr.created_at = CAST(:cursorTime AS timestamp) AND tmr.id < :cursorId)) " +
+            "ORDER BY tmr.created_at DESC, tmr.id DESC " +
+            "LIMIT :limit";
+
+    // Keyset page ordered by (created_at, id) descending; fetch limit + 1 rows to detect a next page.
+    // Each branch is ordered and limited on its own so it reads only the head of its index before the
+    // branches are merged: the team branches walk (user_id, status, created_at, id) per team member, the
+    // escalated branches walk the partial (escalated_to, created_at, id) index of requests escalated to
+    // the manager from departments they do not manage. A null employeeId matches every requester.
+    @Query(value = "SELECT * FROM (" +
+                   "  (" + LEAVE_COLUMNS +
+                   "   FROM departments d " +
+                   "   JOIN users u ON u.department_id = d.id " +
+                   "   JOIN leave_requests lr ON lr.user_id = u.id " +
+                   "   WHERE d.manager_id = :managerId " + LEAVE_PAGE + ") " +
+                   "  UNION ALL " +
+                   "  (" + LEAVE_COLUMNS +
+                   "   FROM leave_requests lr " +
+                   "   JOIN users u ON u.id = lr.user_id " +
+                   "   LEFT JOIN departments d ON d.id = u.department_id " +
+                   "   WHERE lr.escalated_to = :managerId AND d.manager_id IS DISTINCT FROM :managerId " +
+                   LEAVE_PAGE + ") " +
+                   "  UNION ALL " +
+                   "  (" + TIME_MODIFICATION_COLUMNS +
+                   "   FROM departments d " +
+                   "   JOIN users u ON u.department_id = d.id " +
+                   "   JOIN time_modification_requests tmr ON tmr.user_id = u.id " +
+                   "   WHERE d.manager_id = :managerId " + TIME_MODIFICATION_PAGE + ") " +
+                   "  UNION ALL " +
+                   "  (" + TIME_MODIFICATION_COLUMNS +
+                   "   FROM time_modification_requests tmr " +
+                   "   JOIN users u ON u.id = tmr.user_id " +
+                   "   LEFT JOIN departments d ON d.id = u.department_id " +
+                   "   WHERE tmr.escalated_to = :managerId AND d.manager_id IS DISTINCT FROM :managerId " +
+                   TIME_MODIFICATION_PAGE + ")" +
+                   ") inbox " +
+                   "ORDER BY \"createdAt\" DESC, \"id\" DESC " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<ApprovalInboxItem> findPendingPageByManagerId(@Param("managerId") String managerId,
+                                                       @Param("includeLeave") boolean includeLeave,
+                                                       @Param("includeTimeModification") boolean includeTimeModification,
+                                                       @Param("employeeId") String employeeId,
+                                                       @Param("cursorTime") LocalDateTime cursorTime,
+                                                       @Param("cursorId") UUID cursorId,
+                                                       @Param("limit") int limit);
+}
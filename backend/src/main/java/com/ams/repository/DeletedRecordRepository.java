@@ -0,0 +1,47 @@
+package com.ams.repository;
+
+import com.ams.entity.DeletedRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DeletedRecordRepository extends JpaRepository<DeletedRecord, UUID> {
+
+    @Query("SELECT dr FROM DeletedRecord dr WHERE dr.tableName = :tableName " +
+           "AND dr.departmentId IN (SELECT d.id FROM Department d WHERE d.managerId = :managerId) " +
+           "AND (dr.deletedAt > :afterTime OR (dr.deletedAt = :afterTime AND dr.id > :afterId)) " +
+           "AND dr.deletedAt <= :upTo " +
+           "ORDER BY dr.deletedAt ASC, dr.id ASC")
+    List<DeletedRecord> findDeltaForManager(@Param("tableName") String tableName,
+                                            @Param("managerId") String managerId,
+                                            @Param("afterTime") LocalDateTime afterTime,
+                                            @Param("afterId") UUID afterId,
+                                            @Param("upTo") LocalDateTime upTo,
+                                            Pageable pageable);
+
+    @Query("SELECT MAX(dr.deletedAt) FROM DeletedRecord dr WHERE dr.tableName = :tableName " +
+           "AND dr.departmentId IN (SELECT d.id FROM Department d WHERE d.managerId = :managerId)")
+    LocalDateTime findLatestDeletionForManager(@Param("tableName") String tableName,
+                                               @Param("managerId") String managerId);
+
+    @Query("SELECT MAX(dr.deletedAt) FROM DeletedRecord dr WHERE dr.tableName = :tableName")
+    LocalDateTime findLatestDeletion(@Param("tableName") String tableName);
+
+    // Database clock, which sets updated_at and deleted_at; delta bounds must not depend on the JVM clock
+    @Query(value = "SELECT LOCALTIMESTAMP", nativeQuery = true)
+    LocalDateTime findDatabaseTime();
+
+    // Per table so the delete uses idx_deleted_record_table_deleted_at
+    @Modifying
+    @Query(value = "DELETE FROM deleted_records WHERE table_name = :tableName AND deleted_at < :cutoff",
+           nativeQuery = true)
+    int deleteDeletedBefore(@Param("tableName") String tableName, @Param("cutoff") LocalDateTime cutoff);
+}
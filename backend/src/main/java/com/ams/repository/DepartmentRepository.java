@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,4 +28,8 @@ public interface DepartmentRepository extends JpaRepository<Department, UUID> {
 
     @Query("SELECT COUNT(d) FROM Department d")
     long countDepartments();
-}
\ No newline at end of file
+
+    // Read from the end of idx_department_updated_at; renames show up in the export cache version
+    @Query("SELECT MAX(d.updatedAt) FROM Department d")
+    LocalDateTime findLastUpdatedAt();
+}
@@ -0,0 +1,103 @@
+package com.ams.repository;
+
+import com.ams.entity.LeaveBalance;
+import com.ams.entity.enums.LeaveType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, UUID> {
+
+    // Opening row of a year: the yearly grant plus what was left of the previous year, capped. Rows that
+    // already exist are kept, so opening is idempotent and the carry-over is fixed when the row is created.
+    String OPEN_YEAR =
+            "INSERT INTO leave_balances (id, user_id, leave_year, leave_type, granted_days, carried_over_days, " +
+            "                            used_days, pending_days, created_at, updated_at) " +
+            "SELECT uuid_generate_v4(), u.id, :year, :leaveType, :grantDays, " +
+            "       LEAST(:maxCarryOverDays, GREATEST(0, COALESCE(" +
+            "           p.granted_days + p.carried_over_days - p.used_days - p.pending_days, 0))), " +
+            "       0, 0, now(), now() " +
+            "FROM users u " +
+            "LEFT JOIN leave_balances p ON p.user_id = u.id AND p.leave_year = :year - 1 AND p.leave_type = :leaveType ";
+
+    String OPEN_YEAR_ON_CONFLICT = "ON CONFLICT (user_id, leave_year, leave_type) DO NOTHING";
+
+    // Read by the unique key (user_id, leave_year, leave_type)
+    Optional<LeaveBalance> findByUserIdAndLeaveYearAndLeaveType(UUID userId, Integer leaveYear, LeaveType leaveType);
+
+    List<LeaveBalance> findByUserIdAndLeaveYearOrderByLeaveTypeAsc(UUID userId, Integer leaveYear);
+
+    @Modifying
+    @Query(value = OPEN_YEAR + "WHERE u.is_active = TRUE " + OPEN_YEAR_ON_CONFLICT, nativeQuery = true)
+    int openYearForActiveUsers(@Param("year") int year,
+                               @Param("leaveType") String leaveType,
+                               @Param("grantDays") int grantDays,
+                               @Param("maxCarryOverDays") int maxCarryOverDays);
+
+    @Modifying
+    @Query(value = OPEN_YEAR + "WHERE u.id = :userId " + OPEN_YEAR_ON_CONFLICT, nativeQuery = true)
+    int openYearForUser(@Param("userId") UUID userId,
+                        @Param("year") int year,
+                        @Param("leaveType") String leaveType,
+                        @Param("grantDays") int grantDays,
+                        @Param("maxCarryOverDays") int maxCarryOverDays);
+
+    // Opens the rows of a type that has requests but no ledger yet, i.e. one that was just added to the tracked
+    // types, counting its approved and pending requests as used and reserved days. Existing rows are kept.
+    @Modifying
+    @Query(value = "INSERT INTO leave_balances (id, user_id, leave_year, leave_type, granted_days, carried_over_days, " +
+                   "                            used_days, pending_days, created_at, updated_at) " +
+                   "SELECT uuid_generate_v4(), r.user_id, r.leave_year, :leaveType, :grantDays, " +
+                   "       LEAST(:maxCarryOverDays, GREATEST(0, COALESCE(" +
+                   "           p.granted_days + p.carried_over_days - p.used_days - p.pending_days, 0))), " +
+                   "       r.used_days, r.pending_days, now(), now() " +
+                   "FROM (SELECT lr.user_id, CAST(EXTRACT(YEAR FROM lr.start_date) AS integer) AS leave_year, " +
+                   "             COALESCE(SUM(lr.end_date - lr.start_date + 1) FILTER (WHERE lr.status = 'APPROVED'), 0) AS used_days, " +
+                   "             COALESCE(SUM(lr.end_date - lr.start_date + 1) FILTER (WHERE lr.status = 'PENDING'), 0) AS pending_days " +
+                   "      FROM leave_requests lr " +
+                   "      WHERE lr.type = :leaveType AND lr.status IN ('APPROVED', 'PENDING') " +
+                   "      GROUP BY lr.user_id, CAST(EXTRACT(YEAR FROM lr.start_date) AS integer)) r " +
+                   "LEFT JOIN leave_balances p ON p.user_id = r.user_id AND p.leave_year = r.leave_year - 1 " +
+                   "                          AND p.leave_type = :leaveType " +
+                   OPEN_YEAR_ON_CONFLICT,
+           nativeQuery = true)
+    int openYearsForExistingRequests(@Param("leaveType") String leaveType,
+                                     @Param("grantDays") int grantDays,
+                                     @Param("maxCarryOverDays") int maxCarryOverDays);
+
+    // Reserves days for a pending request only if the balance still covers them, checked and applied in one
+    // statement so concurrent submissions cannot overdraw; returns the remaining days, or nothing when short
+    @Query(value = "UPDATE leave_balances SET pending_days = pending_days + :days, version = version + 1 " +
+                   "WHERE user_id = :userId AND leave_year = :year AND leave_type = :leaveType " +
+                   "  AND granted_days + carried_over_days - used_days - pending_days >= :days " +
+                   "RETURNING granted_days + carried_over_days - used_days - pending_days",
+           nativeQuery = true)
+    List<Integer> reserve(@Param("userId") UUID userId,
+                          @Param("year") int year,
+                          @Param("leaveType") String leaveType,
+                          @Param("days") int days);
+
+    // Applies deltas atomically, so decisions on different requests of the same user never lose an update.
+    // Returns 0 when the row is missing or the delta would take reserved or used days below zero, i.e. the
+    // ledger no longer matches the requests; the caller fails rather than absorbing the difference.
+    @Modifying
+    @Query(value = "UPDATE leave_balances SET granted_days = granted_days + :grantedDelta, " +
+                   "pending_days = pending_days + :pendingDelta, used_days = used_days + :usedDelta, " +
+                   "version = version + 1 " +
+                   "WHERE user_id = :userId AND leave_year = :year AND leave_type = :leaveType " +
+                   "  AND pending_days + :pendingDelta >= 0 AND used_days + :usedDelta >= 0",
+           nativeQuery = true)
+    int adjust(@Param("userId") UUID userId,
+               @Param("year") int year,
+               @Param("leaveType") String leaveType,
+               @Param("grantedDelta") int grantedDelta,
+               @Param("pendingDelta") int pendingDelta,
+               @Param("usedDelta") int usedDelta);
+}
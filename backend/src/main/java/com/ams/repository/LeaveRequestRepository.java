@@ -1,10 +1,17 @@
 package com.ams.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -42,9 +49,6 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, UUID
     @Query("SELECT COUNT(lr) FROM LeaveRequest lr WHERE lr.user.department.managerId = :managerId AND lr.status = :status")
     long countByManagerIdAndStatus(@Param("managerId") String managerId, @Param("status") RequestStatus status);
 
-    @Query("SELECT COUNT(lr) FROM LeaveRequest lr WHERE lr.user.id = :userId AND lr.type = :type AND lr.status = 'APPROVED' AND YEAR(lr.startDate) = :year")
-    long countApprovedLeavesByUserAndTypeAndYear(@Param("userId") UUID userId, @Param("type") LeaveType type, @Param("year") int year);
-
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate BETWEEN :startDate AND :endDate ORDER BY lr.startDate ASC")
     List<LeaveRequest> findByDateRangeOrderByStartDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
@@ -56,9 +60,62 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, UUID
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user.id = :userId AND lr.startDate <= :endDate AND lr.endDate >= :startDate AND lr.status IN (:statuses)")
     List<LeaveRequest> findOverlappingRequests(@Param("userId") UUID userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("statuses") List<RequestStatus> statuses);
 
-    @Query("SELECT COUNT(lr) FROM LeaveRequest lr WHERE lr.user.id = :userId AND lr.type = :leaveType AND lr.status = 'APPROVED' AND lr.startDate BETWEEN :startDate AND :endDate")
-    long countApprovedLeaveDays(@Param("userId") UUID userId, @Param("leaveType") LeaveType leaveType, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user.id = :userId AND lr.status = 'APPROVED' AND :date BETWEEN lr.startDate AND lr.endDate")
     List<LeaveRequest> findApprovedLeaveForDate(@Param("userId") UUID userId, @Param("date") LocalDate date);
-}
\ No newline at end of file
+
+    // Keyset page of rows changed after the (updatedAt, id) watermark, see idx on (updated_at, id)
+    @Query("SELECT lr FROM LeaveRequest lr JOIN FETCH lr.user u JOIN u.department d " +
+           "WHERE d.managerId = :managerId " +
+           "AND (lr.updatedAt > :afterTime OR (lr.updatedAt = :afterTime AND lr.id > :afterId)) " +
+           "AND lr.updatedAt <= :upTo " +
+           "ORDER BY lr.updatedAt ASC, lr.id ASC")
+    List<LeaveRequest> findDeltaForManager(@Param("managerId") String managerId,
+                                  @Param("afterTime") LocalDateTime afterTime,
+                                  @Param("afterId") UUID afterId,
+                                  @Param("upTo") LocalDateTime upTo,
+                                  Pageable pageable);
+
+    // Batch jobs walk a status in (created_at, id) ascending order from the last row of the previous batch
+    @Query("SELECT lr FROM LeaveRequest lr JOIN FETCH lr.user u WHERE lr.status = :status " +
+           "AND (lr.createdAt > :afterTime OR (lr.createdAt = :afterTime AND lr.id > :afterId)) " +
+           "ORDER BY lr.createdAt ASC, lr.id ASC")
+    List<LeaveRequest> findBatchByStatusAfter(@Param("status") RequestStatus status,
+                                              @Param("afterTime") LocalDateTime afterTime,
+                                              @Param("afterId") UUID afterId,
+                                              Pageable pageable);
+
+    // Locked so a manual escalation cannot race the scheduled run or a decision on the same request
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.id = :id")
+    Optional<LeaveRequest> findByIdForUpdate(@Param("id") UUID id);
+
+    // Pending requests past their escalation deadline, read through the partial index on due pending rows;
+    // rows locked by a concurrent run are skipped
+    @Query(value = "SELECT * FROM leave_requests " +
+                   "WHERE status = 'PENDING' AND escalation_due_at <= CAST(:now AS timestamp) " +
+                   "ORDER BY escalation_due_at, id " +
+                   "LIMIT :batchSize " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<LeaveRequest> lockDueForEscalation(@Param("now") LocalDateTime now,
+                                            @Param("batchSize") int batchSize);
+
+    // Bulk approval loads every target with its requester and department in one query
+    @Query("SELECT lr FROM LeaveRequest lr JOIN FETCH lr.user u LEFT JOIN FETCH u.department WHERE lr.id IN :ids")
+    List<LeaveRequest> findAllWithUserByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Decides every listed request still pending in one statement and returns the ids it changed;
+    // requests decided concurrently since they were loaded are left alone. The version is bumped so a
+    // concurrent single approval holding the old version fails instead of overwriting the decision.
+    @Query(value = "UPDATE leave_requests SET status = :status, approved_by = CAST(:approverId AS varchar), " +
+                   "approved_at = CAST(:decidedAt AS timestamp), rejection_reason = CAST(:rejectionReason AS varchar), " +
+                   "version = version + 1 " +
+                   "WHERE id IN (:ids) AND status = 'PENDING' " +
+                   "RETURNING id",
+           nativeQuery = true)
+    List<UUID> decidePending(@Param("ids") Collection<UUID> ids,
+                             @Param("status") String status,
+                             @Param("approverId") String approverId,
+                             @Param("decidedAt") LocalDateTime decidedAt,
+                             @Param("rejectionReason") String rejectionReason);
+}
@@ -0,0 +1,33 @@
+package com.ams.repository;
+
+import com.ams.entity.MonthlyWorkSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MonthlyWorkSummaryRepository extends JpaRepository<MonthlyWorkSummary, UUID> {
+
+    Optional<MonthlyWorkSummary> findByUserIdAndSummaryMonth(UUID userId, LocalDate summaryMonth);
+
+    // Adds deltas to the month's totals in one atomic statement and returns the new overtime total in minutes
+    @Query(value = "INSERT INTO monthly_work_summaries (id, user_id, summary_month, worked_minutes, overtime_minutes, " +
+                   "days_worked, created_at, updated_at) " +
+                   "VALUES (uuid_generate_v4(), :userId, CAST(:month AS date), :workedDelta, :overtimeDelta, :daysDelta, now(), now()) " +
+                   "ON CONFLICT (user_id, summary_month) DO UPDATE SET " +
+                   "worked_minutes = monthly_work_summaries.worked_minutes + EXCLUDED.worked_minutes, " +
+                   "overtime_minutes = monthly_work_summaries.overtime_minutes + EXCLUDED.overtime_minutes, " +
+                   "days_worked = monthly_work_summaries.days_worked + EXCLUDED.days_worked " +
+                   "RETURNING overtime_minutes",
+           nativeQuery = true)
+    int addToMonth(@Param("userId") UUID userId,
+                   @Param("month") LocalDate month,
+                   @Param("workedDelta") int workedDelta,
+                   @Param("overtimeDelta") int overtimeDelta,
+                   @Param("daysDelta") int daysDelta);
+}
@@ -0,0 +1,55 @@
+package com.ams.repository;
+
+import com.ams.entity.OutboxEvent;
+import com.ams.entity.enums.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    // Leases a batch of due events: rows locked by another relay are skipped, and the claimed rows
+    // become due again only after the lease, so an event whose worker died is retried
+    @Query(value = "WITH due AS (" +
+                   "  SELECT id FROM outbox_events " +
+                   "  WHERE status = 'PENDING' AND available_at <= CAST(:now AS timestamp) " +
+                   "  ORDER BY available_at, id " +
+                   "  LIMIT :batchSize " +
+                   "  FOR UPDATE SKIP LOCKED" +
+                   ") " +
+                   "UPDATE outbox_events o SET attempts = o.attempts + 1, available_at = CAST(:leaseUntil AS timestamp) " +
+                   "FROM due WHERE o.id = due.id " +
+                   "RETURNING o.*",
+           nativeQuery = true)
+    List<OutboxEvent> claimDueEvents(@Param("now") LocalDateTime now,
+                                     @Param("leaseUntil") LocalDateTime leaseUntil,
+                                     @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.status = :status, o.processedAt = :processedAt, o.lastError = null " +
+           "WHERE o.id = :id")
+    int markProcessed(@Param("id") UUID id,
+                      @Param("status") OutboxStatus status,
+                      @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.status = :status, o.availableAt = :availableAt, o.lastError = :lastError " +
+           "WHERE o.id = :id")
+    int markAttemptFailed(@Param("id") UUID id,
+                          @Param("status") OutboxStatus status,
+                          @Param("availableAt") LocalDateTime availableAt,
+                          @Param("lastError") String lastError);
+
+    long countByStatus(OutboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.status = :status AND o.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("status") OutboxStatus status, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,14 +2,24 @@ package com.ams.repository;
 
 import com.ams.entity.TimeModificationRequest;
 import com.ams.entity.enums.RequestStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TimeModificationRequestRepository extends JpaRepository<TimeModificationRequest, UUID> {
@@ -41,4 +51,89 @@ public interface TimeModificationRequestRepository extends JpaRepository<TimeMod
 
     @Query("SELECT tmr FROM TimeModificationRequest tmr WHERE tmr.user.id = :userId AND tmr.requestDate = :requestDate AND tmr.status IN ('PENDING', 'APPROVED')")
     List<TimeModificationRequest> findActiveRequestsByUserAndDate(@Param("userId") UUID userId, @Param("requestDate") LocalDate requestDate);
-}
\ No newline at end of file
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT tmr FROM TimeModificationRequest tmr JOIN FETCH tmr.user u JOIN u.department d " +
+           "WHERE d.managerId = :managerId AND tmr.requestDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY tmr.requestDate ASC, tmr.createdAt ASC")
+    Stream<TimeModificationRequest> streamByManagerIdAndRequestDateRange(@Param("managerId") String managerId,
+                                                                         @Param("startDate") LocalDate startDate,
+                                                                         @Param("endDate") LocalDate endDate);
+
+    // Keyset page of rows changed after the (updatedAt, id) watermark, see idx on (updated_at, id)
+    @Query("SELECT tmr FROM TimeModificationRequest tmr JOIN FETCH tmr.user u JOIN u.department d " +
+           "WHERE d.managerId = :managerId " +
+           "AND (tmr.updatedAt > :afterTime OR (tmr.updatedAt = :afterTime AND tmr.id > :afterId)) " +
+           "AND tmr.updatedAt <= :upTo " +
+           "ORDER BY tmr.updatedAt ASC, tmr.id ASC")
+    List<TimeModificationRequest> findDeltaForManager(@Param("managerId") String managerId,
+                                  @Param("afterTime") LocalDateTime afterTime,
+                                  @Param("afterId") UUID afterId,
+                                  @Param("upTo") LocalDateTime upTo,
+                                  Pageable pageable);
+
+    // Keyset pages ordered by (created_at, id) descending; fetch limit + 1 rows to detect a next page
+    @Query("SELECT tmr FROM TimeModificationRequest tmr WHERE tmr.user.id = :userId " +
+           "AND (tmr.createdAt < :cursorTime OR (tmr.createdAt = :cursorTime AND tmr.id < :cursorId)) " +
+           "ORDER BY tmr.createdAt DESC, tmr.id DESC")
+    List<TimeModificationRequest> findPageByUserId(@Param("userId") UUID userId,
+                                                   @Param("cursorTime") LocalDateTime cursorTime,
+                                                   @Param("cursorId") UUID cursorId,
+                                                   Pageable pageable);
+
+    @Query("SELECT tmr FROM TimeModificationRequest tmr WHERE tmr.user.id = :userId AND tmr.status = :status " +
+           "AND (tmr.createdAt < :cursorTime OR (tmr.createdAt = :cursorTime AND tmr.id < :cursorId)) " +
+           "ORDER BY tmr.createdAt DESC, tmr.id DESC")
+    List<TimeModificationRequest> findPageByUserIdAndStatus(@Param("userId") UUID userId,
+                                                            @Param("status") RequestStatus status,
+                                                            @Param("cursorTime") LocalDateTime cursorTime,
+                                                            @Param("cursorId") UUID cursorId,
+                                                            Pageable pageable);
+
+    // Batch jobs walk a status in (created_at, id) ascending order from the last row of the previous batch
+    @Query("SELECT tmr FROM TimeModificationRequest tmr JOIN FETCH tmr.user u WHERE tmr.status = :status " +
+           "AND (tmr.createdAt > :afterTime OR (tmr.createdAt = :afterTime AND tmr.id > :afterId)) " +
+           "ORDER BY tmr.createdAt ASC, tmr.id ASC")
+    List<TimeModificationRequest> findBatchByStatusAfter(@Param("status") RequestStatus status,
+                                                         @Param("afterTime") LocalDateTime afterTime,
+                                                         @Param("afterId") UUID afterId,
+                                                         Pageable pageable);
+
+    // Locked so a manual escalation cannot race the scheduled run or a decision on the same request
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT tmr FROM TimeModificationRequest tmr WHERE tmr.id = :id")
+    Optional<TimeModificationRequest> findByIdForUpdate(@Param("id") UUID id);
+
+    // Pending requests past their escalation deadline, read through the partial index on due pending rows;
+    // rows locked by a concurrent run are skipped
+    @Query(value = "SELECT * FROM time_modification_requests " +
+                   "WHERE status = 'PENDING' AND escalation_due_at <= CAST(:now AS timestamp) " +
+                   "ORDER BY escalation_due_at, id " +
+                   "LIMIT :batchSize " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<TimeModificationRequest> lockDueForEscalation(@Param("now") LocalDateTime now,
+                                                       @Param("batchSize") int batchSize);
+
+    // Bulk approval loads every target with its requester and department in one query
+    @Query("SELECT tmr FROM TimeModificationRequest tmr JOIN FETCH tmr.user u LEFT JOIN FETCH u.department WHERE tmr.id IN :ids")
+    List<TimeModificationRequest> findAllWithUserByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Decides every listed request still pending in one statement and returns the ids it changed;
+    // requests decided concurrently since they were loaded are left alone. The version is bumped so a
+    // concurrent single approval holding the old version fails instead of overwriting the decision.
+    @Query(value = "UPDATE time_modification_requests SET status = :status, approved_by = CAST(:approverId AS varchar), " +
+                   "approved_at = CAST(:decidedAt AS timestamp), rejection_reason = CAST(:rejectionReason AS varchar), " +
+                   "version = version + 1 " +
+                   "WHERE id IN (:ids) AND status = 'PENDING' " +
+                   "RETURNING id",
+           nativeQuery = true)
+    List<UUID> decidePending(@Param("ids") Collection<UUID> ids,
+                             @Param("status") String status,
+                             @Param("approverId") String approverId,
+                             @Param("decidedAt") LocalDateTime decidedAt,
+                             @Param("rejectionReason") String rejectionReason);
+}
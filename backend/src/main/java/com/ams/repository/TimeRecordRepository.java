@@ -1,24 +1,37 @@
 package com.ams.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.ams.dto.export.DataVersion;
+import com.ams.dto.export.TeamSummaryRow;
 import com.ams.entity.TimeRecord;
 import com.ams.entity.enums.AttendanceStatus;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
 @Repository
 public interface TimeRecordRepository extends JpaRepository<TimeRecord, UUID> {
 
     Optional<TimeRecord> findByUserIdAndRecordDate(UUID userId, LocalDate recordDate);
 
+    // Superset of the (user, date) pairs asked for; callers match the pairs in memory
+    List<TimeRecord> findByUserIdInAndRecordDateIn(Collection<UUID> userIds, Collection<LocalDate> recordDates);
+
     List<TimeRecord> findByUserIdAndRecordDateBetweenOrderByRecordDateDesc(
             UUID userId, LocalDate startDate, LocalDate endDate);
 
@@ -38,6 +51,17 @@ public interface TimeRecordRepository extends JpaRepository<TimeRecord, UUID> {
     @Query("SELECT tr FROM TimeRecord tr WHERE tr.recordDate = :recordDate AND tr.clockIn IS NOT NULL AND tr.clockOut IS NULL")
     List<TimeRecord> findIncompleteRecordsForDate(@Param("recordDate") LocalDate recordDate);
 
+    // Company-wide variant used per date partition; the ordering keeps merged partitions deterministic
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT tr FROM TimeRecord tr JOIN FETCH tr.user u LEFT JOIN FETCH u.department d " +
+           "WHERE tr.recordDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY tr.recordDate ASC, u.employeeId ASC")
+    Stream<TimeRecord> streamAllWithUserByDateRange(@Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
+
     @Query("SELECT COUNT(tr) FROM TimeRecord tr WHERE tr.user.id = :userId AND tr.recordDate BETWEEN :startDate AND :endDate AND tr.status = :status")
     long countByUserAndDateRangeAndStatus(@Param("userId") UUID userId, 
                                          @Param("startDate") LocalDate startDate, 
@@ -76,6 +100,72 @@ public interface TimeRecordRepository extends JpaRepository<TimeRecord, UUID> {
     @Query("SELECT tr FROM TimeRecord tr WHERE tr.recordDate BETWEEN :startDate AND :endDate")
     Stream<TimeRecord> findByDateRangeStream(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
+    // Fetch size makes the PostgreSQL driver use a server-side cursor instead of buffering the whole result
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT tr FROM TimeRecord tr JOIN FETCH tr.user u JOIN FETCH u.department d " +
+           "WHERE d.managerId = :managerId AND u.isActive = true AND tr.recordDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY u.employeeId ASC, tr.recordDate ASC")
+    Stream<TimeRecord> streamTeamRecordsByManagerIdAndDateRange(@Param("managerId") String managerId,
+                                                                @Param("startDate") LocalDate startDate,
+                                                                @Param("endDate") LocalDate endDate);
+
     @Query("SELECT COUNT(tr) FROM TimeRecord tr WHERE tr.user.id = :userId AND tr.recordDate BETWEEN :startDate AND :endDate AND tr.status = :status")
     long countByUserIdAndDateRangeAndStatus(@Param("userId") UUID userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("status") AttendanceStatus status);
+
+    // One row per active team member; members without records in the range still appear with zeroes
+    @Query("SELECT new com.ams.dto.export.TeamSummaryRow(u.employeeId, u.name, d.name, " +
+           "SUM(tr.totalHours), AVG(tr.totalHours), " +
+           "SUM(CASE WHEN tr.status = 'PRESENT' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN tr.status = 'LATE' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN tr.status = 'ABSENT' THEN 1 ELSE 0 END)) " +
+           "FROM User u JOIN u.department d " +
+           "LEFT JOIN u.timeRecords tr ON tr.recordDate BETWEEN :startDate AND :endDate " +
+           "WHERE d.managerId = :managerId AND u.isActive = true " +
+           "GROUP BY u.id, u.employeeId, u.name, d.name " +
+           "ORDER BY u.employeeId ASC")
+    Stream<TeamSummaryRow> streamTeamSummaryByManagerId(@Param("managerId") String managerId,
+                                                        @Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate);
+
+    // Keyset page of rows changed after the (updatedAt, id) watermark, see idx on (updated_at, id)
+    @Query("SELECT tr FROM TimeRecord tr JOIN FETCH tr.user u JOIN u.department d " +
+           "WHERE d.managerId = :managerId " +
+           "AND (tr.updatedAt > :afterTime OR (tr.updatedAt = :afterTime AND tr.id > :afterId)) " +
+           "AND tr.updatedAt <= :upTo " +
+           "ORDER BY tr.updatedAt ASC, tr.id ASC")
+    List<TimeRecord> findDeltaForManager(@Param("managerId") String managerId,
+                                  @Param("afterTime") LocalDateTime afterTime,
+                                  @Param("afterId") UUID afterId,
+                                  @Param("upTo") LocalDateTime upTo,
+                                  Pageable pageable);
+
+    // Fingerprints used as export cache versions; the company-wide one is an index-only scan of
+    // idx_time_record_date_updated_at over the requested range
+    @Query("SELECT new com.ams.dto.export.DataVersion(COUNT(tr), MAX(tr.updatedAt)) " +
+           "FROM TimeRecord tr JOIN tr.user u JOIN u.department d " +
+           "WHERE d.managerId = :managerId AND tr.recordDate BETWEEN :startDate AND :endDate")
+    DataVersion findTeamDataVersion(@Param("managerId") String managerId,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.ams.dto.export.DataVersion(COUNT(tr), MAX(tr.updatedAt)) " +
+           "FROM TimeRecord tr WHERE tr.recordDate BETWEEN :startDate AND :endDate")
+    DataVersion findDataVersion(@Param("startDate") LocalDate startDate,
+                                @Param("endDate") LocalDate endDate);
+
+    // Anti-join: active users with no record and no approved leave covering the date get an ABSENT record
+    @Modifying
+    @Query(value = "INSERT INTO time_records (id, user_id, record_date, status, created_at, updated_at) " +
+                   "SELECT uuid_generate_v4(), u.id, CAST(:date AS date), 'ABSENT', now(), now() " +
+                   "FROM users u " +
+                   "WHERE u.is_active = TRUE AND u.created_at < CAST(:date AS date) + 1 " +
+                   "AND NOT EXISTS (SELECT 1 FROM time_records tr WHERE tr.user_id = u.id AND tr.record_date = CAST(:date AS date)) " +
+                   "AND NOT EXISTS (SELECT 1 FROM leave_requests lr WHERE lr.user_id = u.id AND lr.status = 'APPROVED' " +
+                   "AND CAST(:date AS date) BETWEEN lr.start_date AND lr.end_date) " +
+                   "ON CONFLICT (user_id, record_date) DO NOTHING",
+           nativeQuery = true)
+    int insertAbsentRecords(@Param("date") LocalDate date);
 }
\ No newline at end of file
@@ -1,12 +1,16 @@
 package com.ams.repository;
 
+import com.ams.dto.export.DataVersion;
 import com.ams.entity.User;
 import com.ams.entity.enums.UserRole;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,6 +34,12 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("SELECT u FROM User u WHERE u.department.managerId = :managerId AND u.isActive = true")
     List<User> findTeamMembersByManagerId(@Param("managerId") String managerId);
 
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.department d WHERE d.managerId = :managerId AND u.isActive = true")
+    List<User> findTeamMembersWithDepartmentByManagerId(@Param("managerId") String managerId);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.department WHERE u.id IN :ids")
+    List<User> findAllWithDepartmentByIdIn(@Param("ids") Collection<UUID> ids);
+
     boolean existsByEmployeeId(String employeeId);
 
     boolean existsByEmail(String email);
@@ -39,4 +49,22 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.department.id = :departmentId AND u.isActive = true")
     long countActiveUsersByDepartment(@Param("departmentId") UUID departmentId);
-}
\ No newline at end of file
+
+    // Fingerprints used as export cache versions; department renames show up through d.updatedAt
+    @Query("SELECT new com.ams.dto.export.DataVersion(COUNT(u), greatest(MAX(u.updatedAt), MAX(d.updatedAt))) " +
+           "FROM User u JOIN u.department d WHERE d.managerId = :managerId")
+    DataVersion findTeamDataVersion(@Param("managerId") String managerId);
+
+    // Company-wide version of the user columns in exports, read from the end of idx_user_updated_at. No count
+    // is needed: a user only appears in an export through time records, whose own version covers them.
+    @Query("SELECT MAX(u.updatedAt) FROM User u")
+    LocalDateTime findLastUpdatedAt();
+
+    // Keyset page ordered by (created_at, id) descending; fetch limit + 1 rows to detect a next page
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.department WHERE u.isActive = true " +
+           "AND (u.createdAt < :cursorTime OR (u.createdAt = :cursorTime AND u.id < :cursorId)) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findActivePage(@Param("cursorTime") LocalDateTime cursorTime,
+                              @Param("cursorId") UUID cursorId,
+                              Pageable pageable);
+}
@@ -0,0 +1,21 @@
+package com.ams.repository;
+
+import com.ams.entity.WorkSummaryContribution;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface WorkSummaryContributionRepository extends JpaRepository<WorkSummaryContribution, UUID> {
+
+    // Locked so two evaluations of the same record cannot both apply a delta against the same previous value
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM WorkSummaryContribution c WHERE c.timeRecordId = :timeRecordId")
+    Optional<WorkSummaryContribution> findForUpdate(@Param("timeRecordId") UUID timeRecordId);
+}
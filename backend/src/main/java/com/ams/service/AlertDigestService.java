@@ -0,0 +1,110 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import com.ams.dto.CursorPage;
+import com.ams.entity.AlertDigest;
+import com.ams.entity.AlertDigestItem;
+import com.ams.entity.User;
+import com.ams.entity.enums.AlertType;
+import com.ams.exception.ResourceNotFoundException;
+import com.ams.repository.AlertDigestItemRepository;
+import com.ams.repository.AlertDigestRepository;
+import com.ams.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Digest mode for alerts. Alerts of the configured types are added as items to one digest per manager, type
+ * and time window instead of becoming separate alert rows, so an incident affecting many employees at once
+ * produces one row for the manager to read and expand.
+ */
+@Service
+@Transactional
+public class AlertDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertDigestService.class);
+
+    @Autowired
+    private AlertDigestRepository alertDigestRepository;
+
+    @Autowired
+    private AlertDigestItemRepository alertDigestItemRepository;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    public boolean isDigested(AlertType type) {
+        return appProperties.getAlerts().getDigestTypes().contains(type);
+    }
+
+    // Returns true when the employee was added, false when already listed for the date. The window comes from
+    // when the event happened, not when it was delivered, so a retried or late event lands where it belongs.
+    public boolean addToDigest(String managerId, User user, LocalDate alertDate, AlertType type, String detail,
+                               LocalDateTime occurredAt) {
+        long windowMinutes = Math.max(1, appProperties.getAlerts().getDigestWindowMinutes());
+        LocalDateTime windowStart = windowStart(occurredAt, windowMinutes);
+
+        UUID digestId = alertDigestRepository.upsertDigest(managerId, type.name(), windowStart,
+                windowStart.plusMinutes(windowMinutes));
+        boolean added = alertDigestItemRepository.insertIfAbsent(digestId, managerId, type.name(), user.getId(),
+                user.getEmployeeId(), user.getName(), alertDate, detail) > 0;
+        if (added) {
+            alertDigestRepository.incrementItemCount(digestId);
+            logger.debug("Added {} to {} digest {} for manager {}", user.getEmployeeId(), type, digestId, managerId);
+        }
+        return added;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<AlertDigest> getDigestsPageForManager(String managerId, String cursor, Integer limit) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.resolveLimit(limit);
+        return CursorPage.of(alertDigestRepository.findPageByManagerId(managerId, position.getCreatedAt(),
+                position.getId(), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<AlertDigestItem> getDigestItemsPage(UUID digestId, String managerId, String cursor, Integer limit) {
+        getDigestForManager(digestId, managerId);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.resolveLimit(limit);
+        return CursorPage.of(alertDigestItemRepository.findPageByDigestId(digestId, position.getCreatedAt(),
+                position.getId(), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    public AlertDigest markDigestAsRead(UUID digestId, String managerId) {
+        AlertDigest digest = getDigestForManager(digestId, managerId);
+        if (!digest.getIsRead()) {
+            digest.markAsRead();
+            digest = alertDigestRepository.save(digest);
+        }
+        return digest;
+    }
+
+    public int deleteDigestsOlderThan(LocalDateTime cutoff) {
+        return alertDigestRepository.deleteOlderThan(cutoff);
+    }
+
+    // Another manager's digest is reported as missing rather than forbidden
+    private AlertDigest getDigestForManager(UUID digestId, String managerId) {
+        return alertDigestRepository.findById(digestId)
+                .filter(digest -> digest.getManagerId().equals(managerId))
+                .orElseThrow(() -> new ResourceNotFoundException("アラートダイジェストが見つかりません"));
+    }
+
+    // Windows are aligned to the start of the day, so every instance assigns the same window to the same moment
+    static LocalDateTime windowStart(LocalDateTime time, long windowMinutes) {
+        LocalDateTime dayStart = time.truncatedTo(ChronoUnit.DAYS);
+        long minutesIntoDay = ChronoUnit.MINUTES.between(dayStart, time);
+        return dayStart.plusMinutes(minutesIntoDay - minutesIntoDay % windowMinutes);
+    }
+}
@@ -1,13 +1,20 @@
 package com.ams.service;
 
+import com.ams.config.AppProperties;
+import com.ams.dto.CursorPage;
 import com.ams.entity.Alert;
 import com.ams.entity.User;
 import com.ams.entity.enums.AlertType;
 import com.ams.exception.ResourceNotFoundException;
 import com.ams.repository.AlertRepository;
+import com.ams.repository.TimeRecordRepository;
+import com.ams.util.KeysetCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,7 +22,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -28,72 +37,134 @@ public class AlertService {
     @Autowired
     private AlertRepository alertRepository;
 
-    public Alert createLateAlert(User user, LocalDate date, LocalDateTime clockInTime) {
-        // Check if alert already exists to avoid duplicates
-        if (alertRepository.existsByUserIdAndTypeAndAlertDate(user.getId(), AlertType.LATE, date)) {
-            return null;
-        }
+    @Autowired
+    private TimeRecordRepository timeRecordRepository;
 
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private UnreadAlertCounter unreadAlertCounter;
+
+    @Autowired
+    private AlertDigestService alertDigestService;
+
+    // Alert creators return true when an alert was inserted (or added to a digest) and false when one already existed
+    // for that user, type and day
+    public boolean createLateAlert(User user, LocalDate date, LocalDateTime clockInTime) {
         String timeStr = clockInTime.format(DateTimeFormatter.ofPattern("HH:mm"));
         String message = String.format("%sさんが%sに遅刻しました。出勤時刻: %s", 
                 user.getName(), date.format(DATE_FORMATTER), timeStr);
         
-        Alert alert = new Alert(AlertType.LATE, user, date, message);
-        Alert savedAlert = alertRepository.save(alert);
-        
-        logger.info("Created late alert for user: {} on {}", user.getEmployeeId(), date);
-        return savedAlert;
-    }
-
-    public Alert createAbsentAlert(User user, LocalDate date) {
-        // Check if alert already exists
-        if (alertRepository.existsByUserIdAndTypeAndAlertDate(user.getId(), AlertType.ABSENT, date)) {
-            return null;
+        boolean created = insertAlert(user, date, AlertType.LATE, message, timeStr, clockInTime);
+        if (created) {
+            logger.info("Created late alert for user: {} on {}", user.getEmployeeId(), date);
         }
+        return created;
+    }
 
+    public boolean createAbsentAlert(User user, LocalDate date) {
         String message = String.format("%sさんが%sに欠勤しています。", 
                 user.getName(), date.format(DATE_FORMATTER));
         
-        Alert alert = new Alert(AlertType.ABSENT, user, date, message);
-        Alert savedAlert = alertRepository.save(alert);
-        
-        logger.info("Created absent alert for user: {} on {}", user.getEmployeeId(), date);
-        return savedAlert;
-    }
-
-    public Alert createMissingClockOutAlert(User user, LocalDate date) {
-        // Check if alert already exists
-        if (alertRepository.existsByUserIdAndTypeAndAlertDate(user.getId(), AlertType.MISSING_CLOCK_OUT, date)) {
-            return null;
+        boolean created = insertAlert(user, date, AlertType.ABSENT, message, null);
+        if (created) {
+            logger.info("Created absent alert for user: {} on {}", user.getEmployeeId(), date);
         }
+        return created;
+    }
 
+    public boolean createMissingClockOutAlert(User user, LocalDate date) {
         String message = String.format("%sさんが%sの退勤打刻を忘れています。", 
                 user.getName(), date.format(DATE_FORMATTER));
         
-        Alert alert = new Alert(AlertType.MISSING_CLOCK_OUT, user, date, message);
-        Alert savedAlert = alertRepository.save(alert);
-        
-        logger.info("Created missing clock-out alert for user: {} on {}", user.getEmployeeId(), date);
-        return savedAlert;
+        boolean created = insertAlert(user, date, AlertType.MISSING_CLOCK_OUT, message, null);
+        if (created) {
+            logger.info("Created missing clock-out alert for user: {} on {}", user.getEmployeeId(), date);
+        }
+        return created;
     }
 
-    public Alert createOvertimeAlert(User user, LocalDate date, double overtimeHours) {
+    // Set-based variant for the nightly job: one statement for every incomplete record of the date
+    public int createMissingClockOutAlerts(LocalDate date) {
+        int created = alertRepository.insertMissingClockOutAlerts(date, date.format(DATE_FORMATTER));
+        if (created > 0) {
+            unreadAlertCounter.evictAll();
+            logger.info("Created {} missing clock-out alerts for {}", created, date);
+        }
+        return created;
+    }
+
+    public boolean createOvertimeAlert(User user, LocalDate date, double overtimeHours) {
         String message = String.format("%sさんが%sに%.1f時間の残業をしています。", 
                 user.getName(), date.format(DATE_FORMATTER), overtimeHours);
         
-        Alert alert = new Alert(AlertType.OVERTIME, user, date, message);
-        Alert savedAlert = alertRepository.save(alert);
-        
-        logger.info("Created overtime alert for user: {} on {} ({}h)", user.getEmployeeId(), date, overtimeHours);
-        return savedAlert;
+        boolean created = insertAlert(user, date, AlertType.OVERTIME, message,
+                String.format("%.1f時間", overtimeHours));
+        if (created) {
+            logger.info("Created overtime alert for user: {} on {} ({}h)", user.getEmployeeId(), date, overtimeHours);
+        }
+        return created;
     }
 
-    public Alert createCustomAlert(User user, LocalDate date, AlertType type, String message) {
-        Alert alert = new Alert(type, user, date, message);
-        Alert savedAlert = alertRepository.save(alert);
-        
-        logger.info("Created custom alert for user: {} on {} type: {}", user.getEmployeeId(), date, type);
-        return savedAlert;
+    public boolean createMonthlyOvertimeAlert(User user, LocalDate date, double monthlyOvertimeHours,
+                                              int limitHours, boolean limitReached) {
+        String message = limitReached
+                ? String.format("%sさんの%d月の残業時間が%.1f時間となり、月間上限%d時間に達しました。",
+                        user.getName(), date.getMonthValue(), monthlyOvertimeHours, limitHours)
+                : String.format("%sさんの%d月の残業時間が%.1f時間となり、月間上限%d時間に近づいています。",
+                        user.getName(), date.getMonthValue(), monthlyOvertimeHours, limitHours);
+
+        boolean created = insertAlert(user, date, AlertType.MONTHLY_OVERTIME, message,
+                String.format("%.1f時間", monthlyOvertimeHours));
+        if (created) {
+            logger.info("Created monthly overtime alert for user: {} on {} ({}h)", user.getEmployeeId(), date, monthlyOvertimeHours);
+        }
+        return created;
+    }
+
+    public boolean createContinuousWorkAlert(User user, LocalDate date, long continuousMinutes) {
+        String message = String.format("%sさんが%sに休憩なしで%d時間%02d分連続して勤務しました。",
+                user.getName(), date.format(DATE_FORMATTER), continuousMinutes / 60, continuousMinutes % 60);
+
+        boolean created = insertAlert(user, date, AlertType.CONTINUOUS_WORK, message,
+                String.format("%d時間%02d分", continuousMinutes / 60, continuousMinutes % 60));
+        if (created) {
+            logger.info("Created continuous work alert for user: {} on {} ({} min)", user.getEmployeeId(), date, continuousMinutes);
+        }
+        return created;
+    }
+
+    public boolean createCustomAlert(User user, LocalDate date, AlertType type, String message) {
+        boolean created = insertAlert(user, date, type, message, null);
+        if (created) {
+            logger.info("Created custom alert for user: {} on {} type: {}", user.getEmployeeId(), date, type);
+        }
+        return created;
+    }
+
+    private boolean insertAlert(User user, LocalDate date, AlertType type, String message, String detail) {
+        return insertAlert(user, date, type, message, detail, LocalDateTime.now());
+    }
+
+    // Digested types go to the manager's digest for the window containing occurredAt; the detail is the digest
+    // item's summary
+    private boolean insertAlert(User user, LocalDate date, AlertType type, String message, String detail,
+                                LocalDateTime occurredAt) {
+        String managerId = getManagerId(user);
+        if (managerId != null && alertDigestService.isDigested(type)) {
+            return alertDigestService.addToDigest(managerId, user, date, type, detail, occurredAt);
+        }
+
+        boolean created = alertRepository.insertIfAbsent(user.getId(), type.name(), date, message) > 0;
+        if (created) {
+            unreadAlertCounter.recordCreated(user.getId(), getManagerId(user));
+        }
+        return created;
+    }
+
+    private String getManagerId(User user) {
+        return user.getDepartment() != null ? user.getDepartment().getManagerId() : null;
     }
 
     @Transactional(readOnly = true)
@@ -106,6 +177,22 @@ public class AlertService {
         return alertRepository.findByManagerIdOrderByCreatedAtDesc(managerId);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<Alert> getAlertsPageForManager(String managerId, String cursor, Integer limit) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.resolveLimit(limit);
+        return CursorPage.of(alertRepository.findPageByManagerId(managerId, position.getCreatedAt(), position.getId(),
+                PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Alert> getUnreadAlertsPageForManager(String managerId, String cursor, Integer limit) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.resolveLimit(limit);
+        return CursorPage.of(alertRepository.findUnreadPageByManagerId(managerId, position.getCreatedAt(), position.getId(),
+                PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
     @Transactional(readOnly = true)
     public List<Alert> getUnreadAlertsForManager(String managerId) {
         return alertRepository.findUnreadByManagerIdOrderByCreatedAtDesc(managerId);
@@ -133,6 +220,7 @@ public class AlertService {
         if (!alert.getIsRead()) {
             alert.markAsRead();
             Alert savedAlert = alertRepository.save(alert);
+            unreadAlertCounter.recordRead(alert.getUser().getId(), getManagerId(alert.getUser()));
             logger.debug("Marked alert as read: {}", alertId);
             return savedAlert;
         }
@@ -141,17 +229,36 @@ public class AlertService {
     }
 
     public void markAlertsAsRead(List<UUID> alertIds) {
+        if (alertIds.isEmpty()) {
+            return;
+        }
+
+        // Drop the cached counts of everyone owning one of the alerts; they reload on the next read
+        Set<UUID> userIds = new HashSet<>();
+        Set<String> managerIds = new HashSet<>();
+        for (Object[] owner : alertRepository.findUnreadOwnersByIds(alertIds)) {
+            userIds.add((UUID) owner[0]);
+            if (owner[1] != null) {
+                managerIds.add((String) owner[1]);
+            }
+        }
+
         alertRepository.markAlertsAsRead(alertIds);
+        unreadAlertCounter.evict(userIds, managerIds);
         logger.info("Marked {} alerts as read", alertIds.size());
     }
 
     public void markAllAlertsAsReadForUser(UUID userId) {
-        alertRepository.markAllAlertsAsReadByUserId(userId);
+        if (alertRepository.markAllAlertsAsReadByUserId(userId) > 0) {
+            unreadAlertCounter.evictUser(userId);
+        }
         logger.info("Marked all alerts as read for user: {}", userId);
     }
 
     public void markAllAlertsAsReadForManager(String managerId) {
-        alertRepository.markAllAlertsAsReadByManagerId(managerId);
+        if (alertRepository.markAllAlertsAsReadByManagerId(managerId) > 0) {
+            unreadAlertCounter.evictManager(managerId);
+        }
         logger.info("Marked all alerts as read for manager: {}", managerId);
     }
 
@@ -160,6 +267,9 @@ public class AlertService {
                 .orElseThrow(() -> new ResourceNotFoundException("Alert not found with id: " + alertId));
         
         alertRepository.delete(alert);
+        if (!alert.getIsRead()) {
+            unreadAlertCounter.recordRead(alert.getUser().getId(), getManagerId(alert.getUser()));
+        }
         logger.info("Deleted alert: {}", alertId);
     }
 
@@ -170,35 +280,68 @@ public class AlertService {
 
     @Transactional(readOnly = true)
     public long countUnreadAlertsForManager(String managerId) {
-        return alertRepository.countUnreadAlertsByManagerId(managerId);
+        return unreadAlertCounter.getForManager(managerId);
     }
 
     @Transactional(readOnly = true)
     public long countUnreadAlertsForUser(UUID userId) {
-        return alertRepository.countUnreadAlertsByUserId(userId);
+        return unreadAlertCounter.getForUser(userId);
     }
 
-    // Scheduled task to clean up old alerts (runs daily at 3 AM)
+    // Scheduled task to clean up old alerts (runs daily at 3 AM). Whole monthly partitions are dropped once
+    // every alert date in them is past the retention period, so no rows are deleted and nothing is left to vacuum.
     @Scheduled(cron = "0 0 3 * * ?")
     public void cleanupOldAlerts() {
-        // Delete alerts older than 90 days
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(90);
-        alertRepository.deleteOldAlerts(cutoffDate);
-        logger.info("Cleaned up alerts older than {}", cutoffDate.toLocalDate());
+        LocalDate cutoff = LocalDate.now().minusDays(appProperties.getAlerts().getRetentionDays());
+        int dropped = alertRepository.dropPartitionsBefore(cutoff);
+        unreadAlertCounter.evictAll();
+        alertDigestService.deleteDigestsOlderThan(cutoff.atStartOfDay());
+        logger.info("Cleaned up alerts dated before {} ({} partitions dropped)", cutoff, dropped);
     }
 
-    // Method to check for absent employees and create alerts
-    public void checkAbsentEmployees(LocalDate date, List<User> allActiveUsers) {
-        logger.info("Checking for absent employees on {}", date);
-        
-        // This would typically be called by a scheduled job
-        // Implementation would check which users have no attendance record for the date
-        // and create absent alerts for them
-        
-        for (User user : allActiveUsers) {
-            // Logic to check if user has attendance record for the date
-            // If not, create absent alert
-            // This would be implemented based on your business rules
+    // Keeps monthly partitions ready ahead of time, so new alerts never land in the default partition
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void ensureAlertPartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= appProperties.getAlerts().getPartitionMonthsAhead(); i++) {
+            if (alertRepository.createMonthlyPartition(month.plusMonths(i))) {
+                logger.info("Created alert partition for {}", month.plusMonths(i));
+            }
+        }
+    }
+
+    // Nightly absence detection; the lookback window catches up days missed while the job was not running
+    @Scheduled(cron = "${app.attendance.absence-check-cron:0 30 0 * * *}")
+    public void detectAbsences() {
+        AppProperties.Attendance attendance = appProperties.getAttendance();
+        if (!attendance.isAbsenceCheckEnabled()) {
+            return;
         }
+
+        LocalDate today = LocalDate.now();
+        for (int daysAgo = Math.max(1, attendance.getCheckLookbackDays()); daysAgo >= 1; daysAgo--) {
+            checkAbsentEmployees(today.minusDays(daysAgo));
+        }
+    }
+
+    // Marks active users with no punch and no approved leave on a working day as absent and alerts on them.
+    // Both steps are single set-based inserts that skip existing rows, so re-running a date is harmless.
+    public int checkAbsentEmployees(LocalDate date) {
+        if (!appProperties.getAttendance().getWorkingDays().contains(date.getDayOfWeek())) {
+            logger.debug("Skipping absence check for non-working day {}", date);
+            return 0;
+        }
+
+        long started = System.currentTimeMillis();
+        int absentRecords = timeRecordRepository.insertAbsentRecords(date);
+        int absentAlerts = alertRepository.insertAbsentAlerts(date, date.format(DATE_FORMATTER));
+        if (absentAlerts > 0) {
+            unreadAlertCounter.evictAll();
+        }
+
+        logger.info("Absence check for {}: {} absent records and {} alerts created in {} ms",
+                date, absentRecords, absentAlerts, System.currentTimeMillis() - started);
+        return absentRecords;
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,26 @@
 package com.ams.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.ams.entity.LeaveRequest;
-import com.ams.entity.TimeModificationRequest;
+import com.ams.dto.CursorPage;
+import com.ams.dto.request.ApprovalInboxItem;
+import com.ams.dto.request.BulkApprovalResult;
+import com.ams.entity.User;
+import com.ams.repository.ApprovalInboxRepository;
+import com.ams.util.KeysetCursor;
 
 @Service
 @Transactional
@@ -28,71 +37,120 @@ public class ApprovalWorkflowService {
     @Autowired
     private UserService userService;
 
-    // Unified approval methods
+    @Autowired
+    private ApprovalInboxRepository approvalInboxRepository;
+
+    @Autowired
+    private AutoApprovalService autoApprovalService;
+
+    @Autowired
+    private EscalationService escalationService;
+
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
+
+    // Unified approval methods. Each decision runs in its own transaction and is retried on an optimistic
+    // lock conflict; a retry re-reads the request, so one already decided by someone else fails as such.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void approveRequest(String requestType, UUID requestId, String approverEmployeeId) {
-        switch (requestType.toLowerCase()) {
-            case "leave" -> leaveRequestService.approveLeaveRequest(requestId, approverEmployeeId);
-            case "time_modification" -> timeModificationRequestService.approveTimeModificationRequest(requestId, approverEmployeeId);
-            default -> throw new IllegalArgumentException("不明な申請タイプです: " + requestType);
-        }
+        optimisticLockRetry.run("approve", () -> {
+            switch (requestType.toLowerCase()) {
+                case "leave" -> leaveRequestService.approveLeaveRequest(requestId, approverEmployeeId);
+                case "time_modification" -> timeModificationRequestService.approveTimeModificationRequest(requestId, approverEmployeeId);
+                default -> throw new IllegalArgumentException("不明な申請タイプです: " + requestType);
+            }
+        });
         
         logger.info("Approved {} request {} by {}", requestType, requestId, approverEmployeeId);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void rejectRequest(String requestType, UUID requestId, String approverEmployeeId, String rejectionReason) {
-        switch (requestType.toLowerCase()) {
-            case "leave" -> leaveRequestService.rejectLeaveRequest(requestId, approverEmployeeId, rejectionReason);
-            case "time_modification" -> timeModificationRequestService.rejectTimeModificationRequest(requestId, approverEmployeeId, rejectionReason);
-            default -> throw new IllegalArgumentException("不明な申請タイプです: " + requestType);
-        }
+        optimisticLockRetry.run("reject", () -> {
+            switch (requestType.toLowerCase()) {
+                case "leave" -> leaveRequestService.rejectLeaveRequest(requestId, approverEmployeeId, rejectionReason);
+                case "time_modification" -> timeModificationRequestService.rejectTimeModificationRequest(requestId, approverEmployeeId, rejectionReason);
+                default -> throw new IllegalArgumentException("不明な申請タイプです: " + requestType);
+            }
+        });
         
         logger.info("Rejected {} request {} by {} with reason: {}", requestType, requestId, approverEmployeeId, rejectionReason);
     }
 
-    // Bulk approval methods
-    public void bulkApproveRequests(List<BulkApprovalRequest> requests, String approverEmployeeId) {
-        for (BulkApprovalRequest request : requests) {
-            try {
-                approveRequest(request.getRequestType(), request.getRequestId(), approverEmployeeId);
-            } catch (Exception e) {
-                logger.error("Failed to approve {} request {}: {}", 
-                           request.getRequestType(), request.getRequestId(), e.getMessage());
-                // Continue with other requests
-            }
-        }
-        
-        logger.info("Bulk approved {} requests by {}", requests.size(), approverEmployeeId);
-    }
-
-    public void bulkRejectRequests(List<BulkRejectionRequest> requests, String approverEmployeeId) {
-        for (BulkRejectionRequest request : requests) {
-            try {
-                rejectRequest(request.getRequestType(), request.getRequestId(), 
-                            approverEmployeeId, request.getRejectionReason());
-            } catch (Exception e) {
-                logger.error("Failed to reject {} request {}: {}", 
-                           request.getRequestType(), request.getRequestId(), e.getMessage());
-                // Continue with other requests
-            }
+    // Bulk approval methods: the approver is loaded once, each request type is decided with one set-based
+    // pass, and every submitted item gets an outcome in submission order. Retried as a whole like single
+    // decisions; the set-based update skips anything decided meanwhile.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkApprovalResult bulkApproveRequests(List<BulkApprovalRequest> requests, String approverEmployeeId) {
+        BulkApprovalResult result = optimisticLockRetry.execute("bulk_approve",
+                () -> decideBulkApproval(requests, approverEmployeeId));
+        logger.info("Bulk approved {} of {} requests by {}", result.getSucceeded(), requests.size(), approverEmployeeId);
+        return result;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkApprovalResult bulkRejectRequests(List<BulkRejectionRequest> requests, String approverEmployeeId) {
+        BulkApprovalResult result = optimisticLockRetry.execute("bulk_reject",
+                () -> decideBulkRejection(requests, approverEmployeeId));
+        logger.info("Bulk rejected {} of {} requests by {}", result.getSucceeded(), requests.size(), approverEmployeeId);
+        return result;
+    }
+
+    private BulkApprovalResult decideBulkApproval(List<BulkApprovalRequest> requests, String approverEmployeeId) {
+        User approver = getApprover(approverEmployeeId);
+        BulkItems<BulkApprovalRequest> items = new BulkItems<>(requests);
+
+        items.collect(items.idsOfType("leave"),
+                ids -> leaveRequestService.approveLeaveRequests(ids, approver));
+        items.collect(items.idsOfType("time_modification"),
+                ids -> timeModificationRequestService.approveTimeModificationRequests(ids, approver));
+
+        return items.toResult();
+    }
+
+    private BulkApprovalResult decideBulkRejection(List<BulkRejectionRequest> requests, String approverEmployeeId) {
+        User approver = getApprover(approverEmployeeId);
+        BulkItems<BulkRejectionRequest> items = new BulkItems<>(requests);
+
+        items.collect(items.valuesOfType("leave", BulkRejectionRequest::getRejectionReason),
+                reasons -> leaveRequestService.rejectLeaveRequests(reasons, approver));
+        items.collect(items.valuesOfType("time_modification", BulkRejectionRequest::getRejectionReason),
+                reasons -> timeModificationRequestService.rejectTimeModificationRequests(reasons, approver));
+
+        return items.toResult();
+    }
+
+    private User getApprover(String approverEmployeeId) {
+        User approver = userService.getUserByEmployeeId(approverEmployeeId);
+        if (!approver.isManager()) {
+            throw new IllegalArgumentException("承認権限がありません");
         }
-        
-        logger.info("Bulk rejected {} requests by {}", requests.size(), approverEmployeeId);
+        return approver;
     }
 
-    // Get all pending requests for a manager
+    // Pending leave and time modification requests as one (created_at, id) descending keyset page, merged,
+    // filtered and limited by the database. A null requestType or employeeId does not filter.
     @Transactional(readOnly = true)
-    public List<Object> getAllPendingRequestsForManager(String managerId) {
-        List<Object> allRequests = new ArrayList<>();
-        
-        // Get pending leave requests
-        List<LeaveRequest> pendingLeaveRequests = leaveRequestService.getPendingLeaveRequestsForManager(managerId);
-        allRequests.addAll(pendingLeaveRequests);
-        
-        // Get pending time modification requests
-        List<TimeModificationRequest> pendingTimeRequests = timeModificationRequestService.getPendingTimeModificationRequestsForManager(managerId);
-        allRequests.addAll(pendingTimeRequests);
-        
-        return allRequests;
+    public CursorPage<ApprovalInboxItem> getPendingRequestsPageForManager(String managerId, String requestType,
+                                                                         String employeeId, String cursor,
+                                                                         Integer limit) {
+        String type = requestType != null && !requestType.isBlank() ? requestType.toLowerCase() : null;
+        if (type != null && !type.equals("leave") && !type.equals("time_modification")) {
+            throw new IllegalArgumentException("不明な申請タイプです: " + requestType);
+        }
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.resolveLimit(limit);
+
+        List<ApprovalInboxItem> fetched = approvalInboxRepository.findPendingPageByManagerId(managerId,
+                type == null || type.equals("leave"),
+                type == null || type.equals("time_modification"),
+                employeeId != null && !employeeId.isBlank() ? employeeId : null,
+                position.getCreatedAt(), position.getId(), pageSize + 1);
+
+        boolean hasMore = fetched.size() > pageSize;
+        List<ApprovalInboxItem> items = hasMore ? fetched.subList(0, pageSize) : fetched;
+        ApprovalInboxItem last = hasMore ? items.get(items.size() - 1) : null;
+        return new CursorPage<>(items, last != null ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null, hasMore);
     }
 
     // Get approval statistics for a manager
@@ -126,19 +184,19 @@ public class ApprovalWorkflowService {
         }
     }
 
-    // Auto-approval rules (for future implementation)
-    public void processAutoApprovalRules() {
-        // Future implementation for automatic approval based on rules
-        // e.g., auto-approve leave requests less than 1 day
-        // e.g., auto-approve time modifications within 15 minutes
+    // Runs the auto-approval rules once outside the schedule; each batch commits in its own transaction.
+    // Returns the number of requests approved, or newly matched in dry-run mode.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int processAutoApprovalRules() {
         logger.debug("Processing auto-approval rules...");
+        return autoApprovalService.process();
     }
 
-    // Escalation handling (for future implementation)
+    // Escalates a pending request to the next manager up the department hierarchy ahead of its deadline.
+    // Overdue requests are escalated by EscalationService on its schedule.
     public void handleEscalation(String requestType, UUID requestId) {
-        // Future implementation for escalating pending requests
-        // e.g., escalate to higher management after 48 hours
-        logger.info("Handling escalation for {} request {}", requestType, requestId);
+        String escalatedTo = escalationService.escalate(requestType, requestId);
+        logger.info("Escalated {} request {} to {}", requestType, requestId, escalatedTo);
     }
 
     // Inner classes for request handling
@@ -173,6 +231,58 @@ public class ApprovalWorkflowService {
         public void setRejectionReason(String rejectionReason) { this.rejectionReason = rejectionReason; }
     }
 
+    // Submitted items indexed by request id; malformed, unknown-type and repeated items are failed up front
+    private static class BulkItems<T extends BulkApprovalRequest> {
+        private final List<T> requests;
+        private final BulkApprovalResult.Item[] outcomes;
+        private final Map<UUID, Integer> positions = new HashMap<>();
+
+        BulkItems(List<T> requests) {
+            this.requests = requests;
+            this.outcomes = new BulkApprovalResult.Item[requests.size()];
+            for (int i = 0; i < requests.size(); i++) {
+                T request = requests.get(i);
+                String type = request.getRequestType() != null ? request.getRequestType().toLowerCase() : null;
+                if (request.getRequestId() == null) {
+                    outcomes[i] = BulkApprovalResult.Item.failure(type, null, "申請IDは必須です");
+                } else if (!"leave".equals(type) && !"time_modification".equals(type)) {
+                    outcomes[i] = BulkApprovalResult.Item.failure(type, request.getRequestId(),
+                            "不明な申請タイプです: " + request.getRequestType());
+                } else if (positions.putIfAbsent(request.getRequestId(), i) != null) {
+                    outcomes[i] = BulkApprovalResult.Item.failure(type, request.getRequestId(), "同じ申請が重複しています");
+                }
+            }
+        }
+
+        List<UUID> idsOfType(String type) {
+            List<UUID> ids = new ArrayList<>();
+            positions.forEach((id, position) -> {
+                if (type.equalsIgnoreCase(requests.get(position).getRequestType())) {
+                    ids.add(id);
+                }
+            });
+            return ids;
+        }
+
+        <V> Map<UUID, V> valuesOfType(String type, Function<T, V> value) {
+            Map<UUID, V> values = new HashMap<>();
+            for (UUID id : idsOfType(type)) {
+                values.put(id, value.apply(requests.get(positions.get(id))));
+            }
+            return values;
+        }
+
+        <K> void collect(K targets, Function<K, List<BulkApprovalResult.Item>> decide) {
+            for (BulkApprovalResult.Item item : decide.apply(targets)) {
+                outcomes[positions.get(item.getRequestId())] = item;
+            }
+        }
+
+        BulkApprovalResult toResult() {
+            return new BulkApprovalResult(new ArrayList<>(Arrays.asList(outcomes)));
+        }
+    }
+
     public static class ApprovalStatistics {
         private final long pendingLeaveRequests;
         private final long pendingTimeModificationRequests;
@@ -0,0 +1,11 @@
+package com.ams.service;
+
+/**
+ * One compliance check run by {@link AttendanceRuleEngine} whenever a time record changes.
+ * Rules raise alerts through AlertService, which skips an alert already raised for the same user, type and day,
+ * so a rule may fire again on every later punch of the day without duplicating anything.
+ */
+public interface AttendanceRule {
+
+    void evaluate(AttendanceRuleEngine.RuleContext context);
+}
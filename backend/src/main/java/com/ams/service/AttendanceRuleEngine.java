@@ -0,0 +1,149 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import com.ams.entity.TimeRecord;
+import com.ams.entity.User;
+import com.ams.entity.WorkSummaryContribution;
+import com.ams.repository.MonthlyWorkSummaryRepository;
+import com.ams.repository.TimeRecordRepository;
+import com.ams.repository.WorkSummaryContributionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Evaluates the attendance rules for a time record after each punch, fed by PUNCH_RECORDED outbox events.
+ * Monthly totals come from the running summary in monthly_work_summaries, which each completed record updates
+ * by the difference from what it contributed last time, so no rule has to re-read the month's time records.
+ */
+@Service
+@Transactional
+public class AttendanceRuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceRuleEngine.class);
+
+    @Autowired
+    private TimeRecordRepository timeRecordRepository;
+
+    @Autowired
+    private MonthlyWorkSummaryRepository monthlyWorkSummaryRepository;
+
+    @Autowired
+    private WorkSummaryContributionRepository workSummaryContributionRepository;
+
+    @Autowired
+    private List<AttendanceRule> rules;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    public void evaluate(UUID timeRecordId) {
+        if (!appProperties.getAttendance().isRulesEnabled()) {
+            return;
+        }
+
+        TimeRecord record = timeRecordRepository.findById(timeRecordId).orElse(null);
+        if (record == null || record.getClockIn() == null) {
+            return;
+        }
+
+        RuleContext context = new RuleContext(record, appProperties.getAttendance().getStandardDailyMinutes());
+        if (record.isCompleted()) {
+            applyToMonthlySummary(context);
+        }
+
+        for (AttendanceRule rule : rules) {
+            rule.evaluate(context);
+        }
+        logger.debug("Evaluated {} attendance rules for record {}", rules.size(), timeRecordId);
+    }
+
+    private void applyToMonthlySummary(RuleContext context) {
+        TimeRecord record = context.getRecord();
+        UUID userId = record.getUser().getId();
+        LocalDate month = record.getRecordDate().withDayOfMonth(1);
+
+        WorkSummaryContribution contribution = workSummaryContributionRepository.findForUpdate(record.getId())
+                .orElseGet(() -> new WorkSummaryContribution(record.getId()));
+        boolean counted = contribution.getSummaryMonth() != null;
+
+        // A record moved to another month is taken out of the old month first
+        if (counted && !contribution.getSummaryMonth().equals(month)) {
+            monthlyWorkSummaryRepository.addToMonth(contribution.getUserId(), contribution.getSummaryMonth(),
+                    -contribution.getWorkedMinutes(), -contribution.getOvertimeMinutes(), -1);
+            counted = false;
+        }
+
+        int workedDelta = context.getWorkedMinutes() - (counted ? contribution.getWorkedMinutes() : 0);
+        int overtimeDelta = context.getOvertimeMinutes() - (counted ? contribution.getOvertimeMinutes() : 0);
+        int daysDelta = counted ? 0 : 1;
+
+        int monthlyOvertime = monthlyWorkSummaryRepository.addToMonth(userId, month, workedDelta, overtimeDelta, daysDelta);
+        context.setMonthlyOvertime(monthlyOvertime - overtimeDelta, monthlyOvertime);
+
+        contribution.update(userId, month, context.getWorkedMinutes(), context.getOvertimeMinutes());
+        workSummaryContributionRepository.save(contribution);
+    }
+
+    /**
+     * Facts about one time record, plus the user's monthly overtime before and after it when the record is complete.
+     */
+    public static class RuleContext {
+        private final TimeRecord record;
+        private final int workedMinutes;
+        private final int overtimeMinutes;
+        private final long longestContinuousMinutes;
+        private boolean monthlyTotalsKnown;
+        private int monthlyOvertimeBefore;
+        private int monthlyOvertimeAfter;
+
+        RuleContext(TimeRecord record, int standardDailyMinutes) {
+            this.record = record;
+            LocalDateTime end = record.getClockOut() != null ? record.getClockOut() : LocalDateTime.now();
+            long worked = Duration.between(record.getClockIn(), end).minus(record.getBreakDuration()).toMinutes();
+            this.workedMinutes = (int) Math.max(0, worked);
+            this.overtimeMinutes = Math.max(0, workedMinutes - standardDailyMinutes);
+            this.longestContinuousMinutes = calculateLongestContinuousMinutes(record);
+        }
+
+        // Longest stretch of work without a break; with one break per record that is before it or after it
+        private static long calculateLongestContinuousMinutes(TimeRecord record) {
+            LocalDateTime clockIn = record.getClockIn();
+            LocalDateTime workEnd = record.getClockOut();
+            if (record.getBreakStart() == null) {
+                return workEnd != null ? Duration.between(clockIn, workEnd).toMinutes() : 0;
+            }
+
+            long beforeBreak = Duration.between(clockIn, record.getBreakStart()).toMinutes();
+            long afterBreak = record.getBreakEnd() != null && workEnd != null
+                    ? Duration.between(record.getBreakEnd(), workEnd).toMinutes()
+                    : 0;
+            return Math.max(beforeBreak, afterBreak);
+        }
+
+        void setMonthlyOvertime(int before, int after) {
+            this.monthlyTotalsKnown = true;
+            this.monthlyOvertimeBefore = before;
+            this.monthlyOvertimeAfter = after;
+        }
+
+        public TimeRecord getRecord() { return record; }
+        public User getUser() { return record.getUser(); }
+        public LocalDate getRecordDate() { return record.getRecordDate(); }
+        public boolean isCompleted() { return record.isCompleted(); }
+        public int getWorkedMinutes() { return workedMinutes; }
+        public int getOvertimeMinutes() { return overtimeMinutes; }
+        public long getLongestContinuousMinutes() { return longestContinuousMinutes; }
+        public boolean isMonthlyTotalsKnown() { return monthlyTotalsKnown; }
+        public int getMonthlyOvertimeBefore() { return monthlyOvertimeBefore; }
+        public int getMonthlyOvertimeAfter() { return monthlyOvertimeAfter; }
+    }
+}
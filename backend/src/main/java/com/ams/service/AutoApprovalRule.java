@@ -0,0 +1,25 @@
+package com.ams.service;
+
+import com.ams.entity.LeaveRequest;
+import com.ams.entity.TimeModificationRequest;
+
+/**
+ * One condition under which {@link AutoApprovalService} approves a pending request without a manager.
+ * A request is approved by the first rule that matches it; each match method returns a short description of
+ * why the request qualifies, recorded in the approval audit log, or null if the rule does not cover it.
+ */
+public interface AutoApprovalRule {
+
+    // Approver named in the decision events of auto-approved requests
+    String SYSTEM_APPROVER = "SYSTEM";
+
+    String getName();
+
+    default String matchLeave(LeaveRequest request) {
+        return null;
+    }
+
+    default String matchTimeModification(TimeModificationRequest request) {
+        return null;
+    }
+}
@@ -0,0 +1,233 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import com.ams.entity.ApprovalAuditLog;
+import com.ams.entity.BaseEntity;
+import com.ams.entity.LeaveRequest;
+import com.ams.entity.TimeModificationRequest;
+import com.ams.entity.User;
+import com.ams.entity.enums.ApprovalAuditAction;
+import com.ams.entity.enums.RequestStatus;
+import com.ams.repository.ApprovalAuditLogRepository;
+import com.ams.repository.LeaveRequestRepository;
+import com.ams.repository.TimeModificationRequestRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Approves pending requests matched by an {@link AutoApprovalRule}. Pending requests are walked in
+ * (created_at, id) order in batches, each evaluated, approved with one set-based UPDATE and audited in its
+ * own transaction. In dry-run mode matches are audited and counted once per request but left pending.
+ */
+@Service
+public class AutoApprovalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutoApprovalService.class);
+
+    private static final LocalDateTime START_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID START_ID = new UUID(0L, 0L);
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private TimeModificationRequestRepository timeModificationRequestRepository;
+
+    @Autowired
+    private LeaveRequestService leaveRequestService;
+
+    @Autowired
+    private TimeModificationRequestService timeModificationRequestService;
+
+    @Autowired
+    private ApprovalAuditLogRepository approvalAuditLogRepository;
+
+    @Autowired
+    private List<AutoApprovalRule> rules;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Scheduled(fixedDelayString = "${app.auto-approval.interval-millis:300000}")
+    public void processScheduled() {
+        if (!appProperties.getAutoApproval().isEnabled()) {
+            return;
+        }
+        process();
+    }
+
+    // Returns the number of requests approved, or newly matched in dry-run mode
+    public int process() {
+        boolean dryRun = appProperties.getAutoApproval().isDryRun();
+        int batchSize = Math.max(1, appProperties.getAutoApproval().getBatchSize());
+
+        int leave = processPending("leave", batchSize, dryRun,
+                (afterTime, afterId, page) -> leaveRequestRepository.findBatchByStatusAfter(RequestStatus.PENDING,
+                        afterTime, afterId, page),
+                AutoApprovalRule::matchLeave,
+                leaveRequestService::autoApproveLeaveRequests,
+                LeaveRequest::getUser);
+        int timeModification = processPending("time_modification", batchSize, dryRun,
+                (afterTime, afterId, page) -> timeModificationRequestRepository.findBatchByStatusAfter(
+                        RequestStatus.PENDING, afterTime, afterId, page),
+                AutoApprovalRule::matchTimeModification,
+                requests -> timeModificationRequestService.autoApproveTimeModificationRequests(requests).stream()
+                        .map(BaseEntity::getId)
+                        .toList(),
+                TimeModificationRequest::getUser);
+
+        if (leave + timeModification > 0) {
+            logger.info("Auto-approval {} {} leave and {} time modification requests",
+                    dryRun ? "matched (dry run)" : "approved", leave, timeModification);
+        }
+        return leave + timeModification;
+    }
+
+    private <R extends BaseEntity> int processPending(String requestType, int batchSize, boolean dryRun,
+                                                      BatchLoader<R> loadBatch,
+                                                      BiFunction<AutoApprovalRule, R, String> matcher,
+                                                      Function<List<R>, Collection<UUID>> approve,
+                                                      Function<R, User> owner) {
+        LocalDateTime afterTime = START_TIME;
+        UUID afterId = START_ID;
+
+        int total = 0;
+        while (true) {
+            LocalDateTime positionTime = afterTime;
+            UUID positionId = afterId;
+            // A batch re-reads its requests and approves only those still pending, so it is safe to retry
+            // when a time record it applies to was punched concurrently
+            BatchOutcome<R> outcome = optimisticLockRetry.execute("auto_approval", () -> {
+                List<R> batch = loadBatch.load(positionTime, positionId, PageRequest.of(0, batchSize));
+                List<Match<R>> matches = match(batch, matcher);
+                if (dryRun) {
+                    return new BatchOutcome<>(batch, recordDryRun(requestType, matches, owner));
+                }
+                Collection<UUID> approvedIds = approve.apply(matches.stream().map(m -> m.request).toList());
+                return new BatchOutcome<>(batch, recordApproved(requestType, matches, approvedIds, owner));
+            });
+
+            meterRegistry.counter("ams.approvals.auto.evaluated", "type", requestType).increment(outcome.batch.size());
+            total += outcome.decided;
+            if (outcome.batch.size() < batchSize) {
+                return total;
+            }
+            R last = outcome.batch.get(outcome.batch.size() - 1);
+            afterTime = last.getCreatedAt();
+            afterId = last.getId();
+        }
+    }
+
+    // The first matching rule wins
+    private <R extends BaseEntity> List<Match<R>> match(List<R> batch, BiFunction<AutoApprovalRule, R, String> matcher) {
+        List<Match<R>> matches = new ArrayList<>();
+        for (R request : batch) {
+            for (AutoApprovalRule rule : rules) {
+                String detail = matcher.apply(rule, request);
+                if (detail != null) {
+                    matches.add(new Match<>(request, rule, detail));
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private <R extends BaseEntity> int recordApproved(String requestType, List<Match<R>> matches,
+                                                      Collection<UUID> approvedIds, Function<R, User> owner) {
+        Set<UUID> approved = new HashSet<>(approvedIds);
+        List<ApprovalAuditLog> entries = new ArrayList<>();
+        for (Match<R> match : matches) {
+            if (approved.contains(match.request.getId())) {
+                entries.add(auditEntry(requestType, match, ApprovalAuditAction.AUTO_APPROVED, owner));
+                count(requestType, match.rule, "approved");
+            }
+        }
+        approvalAuditLogRepository.saveAll(entries);
+        return entries.size();
+    }
+
+    // Requests stay pending in dry-run mode, so each is audited only the first time it matches
+    private <R extends BaseEntity> int recordDryRun(String requestType, List<Match<R>> matches, Function<R, User> owner) {
+        if (matches.isEmpty()) {
+            return 0;
+        }
+        Set<UUID> recorded = new HashSet<>(approvalAuditLogRepository.findRequestIdsWithAction(
+                ApprovalAuditAction.AUTO_APPROVAL_MATCHED, matches.stream().map(m -> m.request.getId()).toList()));
+
+        List<ApprovalAuditLog> entries = new ArrayList<>();
+        for (Match<R> match : matches) {
+            if (!recorded.contains(match.request.getId())) {
+                entries.add(auditEntry(requestType, match, ApprovalAuditAction.AUTO_APPROVAL_MATCHED, owner));
+                count(requestType, match.rule, "dry_run");
+            }
+        }
+        approvalAuditLogRepository.saveAll(entries);
+        return entries.size();
+    }
+
+    private <R extends BaseEntity> ApprovalAuditLog auditEntry(String requestType, Match<R> match,
+                                                               ApprovalAuditAction action, Function<R, User> owner) {
+        return new ApprovalAuditLog(requestType, match.request.getId(), owner.apply(match.request).getId(),
+                action, match.rule.getName(), match.detail);
+    }
+
+    private void count(String requestType, AutoApprovalRule rule, String outcome) {
+        Counter.builder("ams.approvals.auto")
+                .description("Requests approved, or matched in dry-run mode, by auto-approval rules")
+                .tag("type", requestType)
+                .tag("rule", rule.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private interface BatchLoader<R> {
+        List<R> load(LocalDateTime afterTime, UUID afterId, Pageable page);
+    }
+
+    private static class Match<R> {
+        private final R request;
+        private final AutoApprovalRule rule;
+        private final String detail;
+
+        Match(R request, AutoApprovalRule rule, String detail) {
+            this.request = request;
+            this.rule = rule;
+            this.detail = detail;
+        }
+    }
+
+    private static class BatchOutcome<R> {
+        private final List<R> batch;
+        private final int decided;
+
+        BatchOutcome(List<R> batch, int decided) {
+            this.batch = batch;
+            this.decided = decided;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Alerts when a stretch of work without a break exceeds the configured limit; checked at break start and clock-out
+@Component
+public class ContinuousWorkRule implements AttendanceRule {
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Override
+    public void evaluate(AttendanceRuleEngine.RuleContext context) {
+        if (context.getLongestContinuousMinutes() > appProperties.getAttendance().getContinuousWorkLimitMinutes()) {
+            alertService.createContinuousWorkAlert(context.getUser(), context.getRecordDate(),
+                    context.getLongestContinuousMinutes());
+        }
+    }
+}
@@ -1,21 +1,45 @@
 package com.ams.service;
 
+import com.ams.config.AppProperties;
+import com.ams.dto.export.TeamSummaryRow;
 import com.ams.entity.TimeRecord;
 import com.ams.entity.User;
 import com.ams.entity.LeaveRequest;
 import com.ams.entity.TimeModificationRequest;
+import com.ams.util.CsvEncoder;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 @Service
@@ -23,8 +47,9 @@ import java.util.stream.Stream;
 public class CsvExportService {
 
     private static final Logger logger = LoggerFactory.getLogger(CsvExportService.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Per-export directory of partition chunks under the staging directory
+    private static final String PARTITION_DIRECTORY_PREFIX = "partitions-";
 
     @Autowired
     private TimeRecordService timeRecordService;
@@ -38,30 +63,65 @@ public class CsvExportService {
     @Autowired
     private TimeModificationRequestService timeModificationRequestService;
 
+    @Autowired
+    private AppProperties appProperties;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    @Qualifier("exportPartitionExecutor")
+    private ExecutorService exportPartitionExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    // Shared by all running exports so partitions together never take more than half the connection pool
+    private Semaphore partitionPermits;
+
+    @PostConstruct
+    void initPartitioning() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        int permits = Math.max(1, appProperties.getExport().getParallelism());
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                permits = Math.min(permits, Math.max(1, poolSize / 2));
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not determine connection pool size, using configured export parallelism", e);
+        }
+        partitionPermits = new Semaphore(permits, true);
+        logger.info("Export partition parallelism: {}", permits);
+    }
+
     public void exportAttendanceRecords(Writer writer, LocalDate startDate, LocalDate endDate, String managerId) 
             throws IOException {
         logger.info("Starting attendance records CSV export for manager: {} from {} to {}", 
                    managerId, startDate, endDate);
 
-        // Write CSV header
-        writeAttendanceHeader(writer);
-
-        // Get team members for this manager
-        List<User> teamMembers = userService.getTeamMembersByManagerId(managerId);
-        
-        for (User member : teamMembers) {
-            // Stream attendance records for each team member
-            try (Stream<TimeRecord> recordStream = timeRecordService.getTimeRecordsStream(
-                    member.getEmployeeId(), startDate, endDate)) {
-                
+        try (CsvEncoder csv = openEncoder(writer)) {
+            // Write CSV header
+            writeAttendanceHeader(csv);
+
+            // One joined query for the whole team; rows are detached once written to keep the session small
+            try (Stream<TimeRecord> recordStream = timeRecordService.getTeamRecordsStream(managerId, startDate, endDate)) {
                 recordStream.forEach(record -> {
                     try {
-                        writeAttendanceRecord(writer, record);
+                        writeAttendanceRecord(csv, record);
                     } catch (IOException e) {
-                        logger.error("Error writing attendance record for employee: {}", 
-                                   member.getEmployeeId(), e);
+                        logger.error("Error writing attendance record for employee: {}",
+                                   record.getUser().getEmployeeId(), e);
                         throw new RuntimeException("CSV書き込みエラー", e);
                     }
+                    entityManager.detach(record);
                 });
             }
         }
@@ -70,27 +130,29 @@ public class CsvExportService {
         logger.info("Completed attendance records CSV export");
     }
 
+    // No surrounding transaction: the sequential path opens its own and each parallel partition streams on its own connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void exportAllAttendanceRecords(Writer writer, LocalDate startDate, LocalDate endDate) 
             throws IOException {
         logger.info("Starting all attendance records CSV export from {} to {}", startDate, endDate);
 
-        // Write CSV header
-        writeAttendanceHeader(writer);
+        List<DatePartition> partitions = planPartitions(startDate, endDate);
 
-        // Stream all attendance records for the date range
-        try (Stream<TimeRecord> recordStream = timeRecordService.getAllTimeRecordsStream(startDate, endDate)) {
-            recordStream.forEach(record -> {
-                try {
-                    writeAttendanceRecord(writer, record);
-                } catch (IOException e) {
-                    logger.error("Error writing attendance record", e);
-                    throw new RuntimeException("CSV書き込みエラー", e);
-                }
-            });
+        try (CsvEncoder csv = openEncoder(writer)) {
+            // Write CSV header
+            writeAttendanceHeader(csv);
+
+            if (appProperties.getExport().isParallelEnabled() && partitions.size() > 1) {
+                // Header must reach the writer before partition chunks are appended to it
+                csv.flush();
+                exportPartitionsInParallel(writer, partitions);
+            } else {
+                readOnlyTransaction.executeWithoutResult(status -> writeAllAttendanceRange(csv, startDate, endDate));
+            }
         }
 
         writer.flush();
-        logger.info("Completed all attendance records CSV export");
+        logger.info("Completed all attendance records CSV export ({} partitions)", partitions.size());
     }
 
     public void exportLeaveRequests(Writer writer, LocalDate startDate, LocalDate endDate, String managerId) 
@@ -98,14 +160,16 @@ public class CsvExportService {
         logger.info("Starting leave requests CSV export for manager: {} from {} to {}", 
                    managerId, startDate, endDate);
 
-        // Write CSV header
-        writeLeaveRequestHeader(writer);
+        try (CsvEncoder csv = openEncoder(writer)) {
+            // Write CSV header
+            writeLeaveRequestHeader(csv);
+
+            // Get leave requests for team members
+            List<LeaveRequest> leaveRequests = leaveRequestService.getLeaveRequestsForManager(managerId, startDate, endDate);
 
-        // Get leave requests for team members
-        List<LeaveRequest> leaveRequests = leaveRequestService.getLeaveRequestsForManager(managerId, startDate, endDate);
-        
-        for (LeaveRequest request : leaveRequests) {
-            writeLeaveRequestRecord(writer, request);
+            for (LeaveRequest request : leaveRequests) {
+                writeLeaveRequestRecord(csv, request);
+            }
         }
 
         writer.flush();
@@ -117,23 +181,24 @@ public class CsvExportService {
         logger.info("Starting time modification requests CSV export for manager: {} from {} to {}", 
                    managerId, startDate, endDate);
 
-        // Write CSV header
-        writeTimeModificationHeader(writer);
+        try (CsvEncoder csv = openEncoder(writer)) {
+            // Write CSV header
+            writeTimeModificationHeader(csv);
 
-        // Get time modification requests for team members
-        List<TimeModificationRequest> requests = timeModificationRequestService.getTimeModificationRequestsForManager(managerId);
-        
-        // Filter by date range
-        requests.stream()
-                .filter(req -> !req.getRequestDate().isBefore(startDate) && !req.getRequestDate().isAfter(endDate))
-                .forEach(request -> {
+            // Date-bounded, fetch-joined stream; rows are detached once written
+            try (Stream<TimeModificationRequest> requestStream = timeModificationRequestService
+                    .getTimeModificationRequestsStreamForManager(managerId, startDate, endDate)) {
+                requestStream.forEach(request -> {
                     try {
-                        writeTimeModificationRecord(writer, request);
+                        writeTimeModificationRecord(csv, request);
                     } catch (IOException e) {
                         logger.error("Error writing time modification record", e);
                         throw new RuntimeException("CSV書き込みエラー", e);
                     }
+                    entityManager.detach(request);
                 });
+            }
+        }
 
         writer.flush();
         logger.info("Completed time modification requests CSV export");
@@ -144,194 +209,249 @@ public class CsvExportService {
         logger.info("Starting team summary CSV export for manager: {} from {} to {}", 
                    managerId, startDate, endDate);
 
-        // Write CSV header
-        writeTeamSummaryHeader(writer);
-
-        // Get team members
-        List<User> teamMembers = userService.getTeamMembersByManagerId(managerId);
-        
-        for (User member : teamMembers) {
-            // Calculate summary for each member
-            Double totalHours = timeRecordService.getTotalWorkingHours(member.getEmployeeId(), startDate, endDate);
-            Double avgHours = timeRecordService.getAverageWorkingHours(member.getEmployeeId(), startDate, endDate);
-            long presentDays = timeRecordService.countPresentDays(member.getEmployeeId(), startDate, endDate);
-            long lateDays = timeRecordService.countLateDays(member.getEmployeeId(), startDate, endDate);
-            long absentDays = timeRecordService.countAbsentDays(member.getEmployeeId(), startDate, endDate);
-            
-            writeTeamSummaryRecord(writer, member, totalHours, avgHours, presentDays, lateDays, absentDays);
+        try (CsvEncoder csv = openEncoder(writer)) {
+            // Write CSV header
+            writeTeamSummaryHeader(csv);
+
+            // All summary columns for every member come from one grouped query
+            try (Stream<TeamSummaryRow> summaryStream = timeRecordService.getTeamSummaryStream(managerId, startDate, endDate)) {
+                summaryStream.forEach(row -> {
+                    try {
+                        writeTeamSummaryRecord(csv, row);
+                    } catch (IOException e) {
+                        logger.error("Error writing team summary record for employee: {}", row.getEmployeeId(), e);
+                        throw new RuntimeException("CSV書き込みエラー", e);
+                    }
+                });
+            }
         }
 
         writer.flush();
         logger.info("Completed team summary CSV export");
     }
 
-    private void writeAttendanceHeader(Writer writer) throws IOException {
-        writer.write("従業員ID,氏名,部署,日付,出勤時刻,退勤時刻,休憩時間,総労働時間,出勤状況,備考\n");
+    private void writeAllAttendanceRange(CsvEncoder csv, LocalDate startDate, LocalDate endDate) {
+        try (Stream<TimeRecord> recordStream = timeRecordService.getAllTimeRecordsWithUserStream(startDate, endDate)) {
+            recordStream.forEach(record -> {
+                try {
+                    writeAttendanceRecord(csv, record);
+                } catch (IOException e) {
+                    logger.error("Error writing attendance record", e);
+                    throw new RuntimeException("CSV書き込みエラー", e);
+                }
+                entityManager.detach(record);
+            });
+        }
     }
 
-    private void writeAttendanceRecord(Writer writer, TimeRecord record) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        
-        // Employee ID
-        sb.append(escapeField(record.getUser().getEmployeeId())).append(",");
-        
-        // Employee Name
-        sb.append(escapeField(record.getUser().getName())).append(",");
-        
-        // Department
-        String departmentName = record.getUser().getDepartment() != null ? 
-                               record.getUser().getDepartment().getName() : "";
-        sb.append(escapeField(departmentName)).append(",");
-        
-        // Date
-        sb.append(record.getRecordDate().format(DATE_FORMATTER)).append(",");
-        
-        // Clock In
-        String clockIn = record.getClockIn() != null ? 
-                        record.getClockIn().format(DATETIME_FORMATTER) : "";
-        sb.append(escapeField(clockIn)).append(",");
-        
-        // Clock Out
-        String clockOut = record.getClockOut() != null ? 
-                         record.getClockOut().format(DATETIME_FORMATTER) : "";
-        sb.append(escapeField(clockOut)).append(",");
-        
-        // Break Duration
-        String breakDuration = "0";
-        if (record.getBreakStart() != null && record.getBreakEnd() != null) {
-            Duration duration = Duration.between(record.getBreakStart(), record.getBreakEnd());
-            breakDuration = String.valueOf(duration.toMinutes());
+    // Consecutive date ranges of partitionDays each, in output order
+    private List<DatePartition> planPartitions(LocalDate startDate, LocalDate endDate) {
+        int partitionDays = Math.max(1, appProperties.getExport().getPartitionDays());
+        List<DatePartition> partitions = new ArrayList<>();
+        LocalDate partitionStart = startDate;
+        while (!partitionStart.isAfter(endDate)) {
+            LocalDate partitionEnd = partitionStart.plusDays(partitionDays - 1L);
+            if (partitionEnd.isAfter(endDate)) {
+                partitionEnd = endDate;
+            }
+            partitions.add(new DatePartition(partitionStart, partitionEnd));
+            partitionStart = partitionEnd.plusDays(1);
         }
-        sb.append(escapeField(breakDuration)).append(",");
-        
-        // Total Hours
-        String totalHours = record.getTotalHours() != null ? 
-                           record.getTotalHours().toString() : "0";
-        sb.append(escapeField(totalHours)).append(",");
-        
-        // Status
-        String status = record.getStatus() != null ? record.getStatus().name() : "";
-        sb.append(escapeField(status)).append(",");
-        
-        // Notes
-        String notes = record.getNotes() != null ? record.getNotes() : "";
-        sb.append(escapeField(notes));
-        
-        sb.append("\n");
-        writer.write(sb.toString());
+        return partitions;
     }
 
-    private void writeLeaveRequestHeader(Writer writer) throws IOException {
-        writer.write("申請ID,従業員ID,氏名,申請日,休暇開始日,休暇終了日,休暇種別,理由,状況,承認者,承認日,却下理由\n");
+    /**
+     * Encodes partitions into temporary chunk files concurrently and appends them to the writer in
+     * partition order. At most {@code parallelism} partitions of this export are in flight, so finished
+     * chunks never pile up on disk while an earlier one is still being read. Chunks live in a directory
+     * of their own that is removed when the export ends; one left by a crash is removed on startup.
+     */
+    private void exportPartitionsInParallel(Writer writer, List<DatePartition> partitions) throws IOException {
+        Path stagingDirectory = Paths.get(appProperties.getExport().getStagingDirectory()).toAbsolutePath();
+        Files.createDirectories(stagingDirectory);
+        Path chunkDirectory = Files.createTempDirectory(stagingDirectory, PARTITION_DIRECTORY_PREFIX);
+
+        int window = Math.max(1, appProperties.getExport().getParallelism());
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<Future<Path>> chunks = new ArrayList<>(partitions.size());
+        int merged = 0;
+        try {
+            while (chunks.size() < Math.min(window, partitions.size())) {
+                chunks.add(submitPartition(partitions.get(chunks.size()), chunkDirectory, aborted));
+            }
+            for (; merged < partitions.size(); merged++) {
+                Path chunk = awaitChunk(chunks.get(merged));
+                try (Reader reader = Files.newBufferedReader(chunk, StandardCharsets.UTF_8)) {
+                    reader.transferTo(writer);
+                } finally {
+                    deleteQuietly(chunk);
+                }
+                if (chunks.size() < partitions.size()) {
+                    chunks.add(submitPartition(partitions.get(chunks.size()), chunkDirectory, aborted));
+                }
+            }
+        } finally {
+            if (merged < partitions.size()) {
+                // Stop the remaining partitions; any that still finish delete their own chunk
+                aborted.set(true);
+                for (int i = merged; i < chunks.size(); i++) {
+                    Future<Path> pending = chunks.get(i);
+                    if (!pending.cancel(true) && pending.state() == Future.State.SUCCESS && pending.resultNow() != null) {
+                        deleteQuietly(pending.resultNow());
+                    }
+                }
+            }
+            // A cancelled partition still writing keeps its chunk until it sees the abort flag; if the
+            // directory is not empty yet, the startup cleanup removes it
+            deleteQuietly(chunkDirectory);
+        }
     }
 
-    private void writeLeaveRequestRecord(Writer writer, LeaveRequest request) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        
-        sb.append(escapeField(request.getId().toString())).append(",");
-        sb.append(escapeField(request.getUser().getEmployeeId())).append(",");
-        sb.append(escapeField(request.getUser().getName())).append(",");
-        sb.append(request.getCreatedAt().format(DATETIME_FORMATTER)).append(",");
-        sb.append(request.getStartDate().format(DATE_FORMATTER)).append(",");
-        sb.append(request.getEndDate().format(DATE_FORMATTER)).append(",");
-        sb.append(escapeField(request.getType().name())).append(",");
-        sb.append(escapeField(request.getReason())).append(",");
-        sb.append(escapeField(request.getStatus().name())).append(",");
-        
-        String approver = request.getApprovedBy() != null ? request.getApprovedBy() : "";
-        sb.append(escapeField(approver)).append(",");
-        
-        String approvedAt = request.getApprovedAt() != null ? 
-                          request.getApprovedAt().format(DATETIME_FORMATTER) : "";
-        sb.append(escapeField(approvedAt)).append(",");
-        
-        String rejectionReason = request.getRejectionReason() != null ? request.getRejectionReason() : "";
-        sb.append(escapeField(rejectionReason));
-        
-        sb.append("\n");
-        writer.write(sb.toString());
+    private Future<Path> submitPartition(DatePartition partition, Path chunkDirectory, AtomicBoolean aborted) {
+        return exportPartitionExecutor.submit(() -> {
+            partitionPermits.acquire();
+            try {
+                if (aborted.get()) {
+                    return null;
+                }
+                Path chunk = Files.createTempFile(chunkDirectory, "partition-", ".csv");
+                boolean written = false;
+                try (Writer out = Files.newBufferedWriter(chunk, StandardCharsets.UTF_8);
+                     CsvEncoder csv = new CsvEncoder(out)) {
+                    readOnlyTransaction.executeWithoutResult(
+                            status -> writeAllAttendanceRange(csv, partition.startDate, partition.endDate));
+                    written = true;
+                } finally {
+                    if (!written || aborted.get()) {
+                        deleteQuietly(chunk);
+                    }
+                }
+                logger.debug("Encoded attendance partition {} to {}", partition.startDate, partition.endDate);
+                return chunk;
+            } finally {
+                partitionPermits.release();
+            }
+        });
     }
 
-    private void writeTimeModificationHeader(Writer writer) throws IOException {
-        writer.write("申請ID,従業員ID,氏名,対象日,元の出勤時刻,元の退勤時刻,修正後出勤時刻,修正後退勤時刻,理由,状況,申請日,承認者,承認日,却下理由\n");
+    private Path awaitChunk(Future<Path> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for export partition");
+        } catch (ExecutionException e) {
+            throw new IOException("Export partition failed", e.getCause());
+        }
     }
 
-    private void writeTimeModificationRecord(Writer writer, TimeModificationRequest request) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        
-        sb.append(escapeField(request.getId().toString())).append(",");
-        sb.append(escapeField(request.getUser().getEmployeeId())).append(",");
-        sb.append(escapeField(request.getUser().getName())).append(",");
-        sb.append(request.getRequestDate().format(DATE_FORMATTER)).append(",");
-        
-        String originalClockIn = request.getOriginalClockIn() != null ? 
-                               request.getOriginalClockIn().format(DATETIME_FORMATTER) : "";
-        sb.append(escapeField(originalClockIn)).append(",");
-        
-        String originalClockOut = request.getOriginalClockOut() != null ? 
-                                request.getOriginalClockOut().format(DATETIME_FORMATTER) : "";
-        sb.append(escapeField(originalClockOut)).append(",");
-        
-        String requestedClockIn = request.getRequestedClockIn() != null ? 
-                                request.getRequestedClockIn().format(DATETIME_FORMATTER) : "";
-        sb.append(escapeField(requestedClockIn)).append(",");
-        
-        String requestedClockOut = request.getRequestedClockOut() != null ? 
-                                 request.getRequestedClockOut().format(DATETIME_FORMATTER) : "";
-        sb.append(escapeField(requestedClockOut)).append(",");
-        
-        sb.append(escapeField(request.getReason())).append(",");
-        sb.append(escapeField(request.getStatus().name())).append(",");
-        sb.append(request.getCreatedAt().format(DATETIME_FORMATTER)).append(",");
-        
-        String approver = request.getApprovedBy() != null ? request.getApprovedBy() : "";
-        sb.append(escapeField(approver)).append(",");
-        
-        String approvedAt = request.getApprovedAt() != null ? 
-                          request.getApprovedAt().format(DATETIME_FORMATTER) : "";
-        sb.append(escapeField(approvedAt)).append(",");
-        
-        String rejectionReason = request.getRejectionReason() != null ? request.getRejectionReason() : "";
-        sb.append(escapeField(rejectionReason));
-        
-        sb.append("\n");
-        writer.write(sb.toString());
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete export partition chunk {}", file, e);
+        }
     }
 
-    private void writeTeamSummaryHeader(Writer writer) throws IOException {
-        writer.write("従業員ID,氏名,部署,総労働時間,平均労働時間,出勤日数,遅刻日数,欠勤日数\n");
+    private CsvEncoder openEncoder(Writer writer) throws IOException {
+        CsvEncoder csv = new CsvEncoder(writer);
+        if (appProperties.getExport().isCsvBom()) {
+            // BOM for Excel compatibility
+            csv.bom();
+        }
+        return csv;
     }
 
-    private void writeTeamSummaryRecord(Writer writer, User user, Double totalHours, Double avgHours, 
-                                      long presentDays, long lateDays, long absentDays) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        
-        sb.append(escapeField(user.getEmployeeId())).append(",");
-        sb.append(escapeField(user.getName())).append(",");
-        
-        String departmentName = user.getDepartment() != null ? user.getDepartment().getName() : "";
-        sb.append(escapeField(departmentName)).append(",");
-        
-        sb.append(totalHours != null ? String.format("%.2f", totalHours) : "0.00").append(",");
-        sb.append(avgHours != null ? String.format("%.2f", avgHours) : "0.00").append(",");
-        sb.append(presentDays).append(",");
-        sb.append(lateDays).append(",");
-        sb.append(absentDays);
-        
-        sb.append("\n");
-        writer.write(sb.toString());
+    private void writeAttendanceHeader(CsvEncoder csv) throws IOException {
+        csv.line("従業員ID,氏名,部署,日付,出勤時刻,退勤時刻,休憩時間,総労働時間,出勤状況,備考");
     }
 
-    private String escapeField(String field) {
-        if (field == null) {
-            return "";
+    private void writeAttendanceRecord(CsvEncoder csv, TimeRecord record) throws IOException {
+        User user = record.getUser();
+        csv.field(user.getEmployeeId())
+           .field(user.getName())
+           .field(user.getDepartment() != null ? user.getDepartment().getName() : null)
+           .field(record.getRecordDate())
+           .field(record.getClockIn())
+           .field(record.getClockOut());
+
+        // Break duration in minutes
+        long breakMinutes = 0;
+        if (record.getBreakStart() != null && record.getBreakEnd() != null) {
+            breakMinutes = Duration.between(record.getBreakStart(), record.getBreakEnd()).toMinutes();
         }
-        
-        // Escape double quotes and wrap in quotes if necessary
-        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
-            return "\"" + field.replace("\"", "\"\"") + "\"";
+        csv.field(breakMinutes)
+           .decimal(record.getTotalHours() != null ? record.getTotalHours().doubleValue() : 0.0, 2)
+           .field(record.getStatus())
+           .field(record.getNotes())
+           .endRow();
+    }
+
+    private void writeLeaveRequestHeader(CsvEncoder csv) throws IOException {
+        csv.line("申請ID,従業員ID,氏名,申請日,休暇開始日,休暇終了日,休暇種別,理由,状況,承認者,承認日,却下理由");
+    }
+
+    private void writeLeaveRequestRecord(CsvEncoder csv, LeaveRequest request) throws IOException {
+        csv.field(request.getId())
+           .field(request.getUser().getEmployeeId())
+           .field(request.getUser().getName())
+           .field(request.getCreatedAt())
+           .field(request.getStartDate())
+           .field(request.getEndDate())
+           .field(request.getType())
+           .field(request.getReason())
+           .field(request.getStatus())
+           .field(request.getApprovedBy())
+           .field(request.getApprovedAt())
+           .field(request.getRejectionReason())
+           .endRow();
+    }
+
+    private void writeTimeModificationHeader(CsvEncoder csv) throws IOException {
+        csv.line("申請ID,従業員ID,氏名,対象日,元の出勤時刻,元の退勤時刻,修正後出勤時刻,修正後退勤時刻,理由,状況,申請日,承認者,承認日,却下理由");
+    }
+
+    private void writeTimeModificationRecord(CsvEncoder csv, TimeModificationRequest request) throws IOException {
+        csv.field(request.getId())
+           .field(request.getUser().getEmployeeId())
+           .field(request.getUser().getName())
+           .field(request.getRequestDate())
+           .field(request.getOriginalClockIn())
+           .field(request.getOriginalClockOut())
+           .field(request.getRequestedClockIn())
+           .field(request.getRequestedClockOut())
+           .field(request.getReason())
+           .field(request.getStatus())
+           .field(request.getCreatedAt())
+           .field(request.getApprovedBy())
+           .field(request.getApprovedAt())
+           .field(request.getRejectionReason())
+           .endRow();
+    }
+
+    private void writeTeamSummaryHeader(CsvEncoder csv) throws IOException {
+        csv.line("従業員ID,氏名,部署,総労働時間,平均労働時間,出勤日数,遅刻日数,欠勤日数");
+    }
+
+    private void writeTeamSummaryRecord(CsvEncoder csv, TeamSummaryRow row) throws IOException {
+        csv.field(row.getEmployeeId())
+           .field(row.getName())
+           .field(row.getDepartmentName())
+           .decimal(row.getTotalHours(), 2)
+           .decimal(row.getAverageHours(), 2)
+           .field(row.getPresentDays())
+           .field(row.getLateDays())
+           .field(row.getAbsentDays())
+           .endRow();
+    }
+
+    private static class DatePartition {
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+
+        DatePartition(LocalDate startDate, LocalDate endDate) {
+            this.startDate = startDate;
+            this.endDate = endDate;
         }
-        
-        return field;
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Alerts when a completed day's overtime beyond the standard working day reaches the configured threshold
+@Component
+public class DailyOvertimeRule implements AttendanceRule {
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Override
+    public void evaluate(AttendanceRuleEngine.RuleContext context) {
+        if (!context.isCompleted()) {
+            return;
+        }
+        if (context.getOvertimeMinutes() >= appProperties.getAttendance().getDailyOvertimeAlertMinutes()) {
+            alertService.createOvertimeAlert(context.getUser(), context.getRecordDate(),
+                    context.getOvertimeMinutes() / 60.0);
+        }
+    }
+}
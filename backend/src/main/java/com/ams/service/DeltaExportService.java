@@ -0,0 +1,242 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import com.ams.dto.export.DeltaPage;
+import com.ams.dto.request.LeaveRequestDto;
+import com.ams.dto.request.TimeModificationRequestDto;
+import com.ams.dto.time.TimeRecordDto;
+import com.ams.entity.BaseEntity;
+import com.ams.entity.DeletedRecord;
+import com.ams.entity.LeaveRequest;
+import com.ams.entity.TimeModificationRequest;
+import com.ams.repository.DeletedRecordRepository;
+import com.ams.repository.LeaveRequestRepository;
+import com.ams.repository.TimeModificationRequestRepository;
+import com.ams.repository.TimeRecordRepository;
+import com.ams.util.TimeRecordMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Incremental exports keyed on (updated_at, id) watermarks. Rows newer than now minus a safety
+ * lag are held back until the next sync, so transactions that commit slightly out of timestamp
+ * order are not skipped. Timestamps and the bound both come from the database clock.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DeltaExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeltaExportService.class);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
+
+    private static final List<String> DELTA_TABLES = List.of("time_records", "leave_requests", "time_modification_requests");
+
+    @Autowired
+    private TimeRecordRepository timeRecordRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private TimeModificationRequestRepository timeModificationRequestRepository;
+
+    @Autowired
+    private DeletedRecordRepository deletedRecordRepository;
+
+    @Autowired
+    private TimeRecordMapper timeRecordMapper;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    public DeltaPage<TimeRecordDto> getTimeRecordDelta(String managerId, String watermark, int limit) {
+        Watermark from = Watermark.decode(watermark);
+        int pageSize = resolvePageSize(limit);
+        LocalDateTime upTo = upperBound(watermark, from);
+
+        return buildPage("time_records", managerId, from, upTo, pageSize,
+                timeRecordRepository.findDeltaForManager(managerId, from.rowTime, from.rowId, upTo,
+                        PageRequest.of(0, pageSize + 1)),
+                timeRecordMapper::toDto);
+    }
+
+    public DeltaPage<LeaveRequestDto> getLeaveRequestDelta(String managerId, String watermark, int limit) {
+        Watermark from = Watermark.decode(watermark);
+        int pageSize = resolvePageSize(limit);
+        LocalDateTime upTo = upperBound(watermark, from);
+
+        return buildPage("leave_requests", managerId, from, upTo, pageSize,
+                leaveRequestRepository.findDeltaForManager(managerId, from.rowTime, from.rowId, upTo,
+                        PageRequest.of(0, pageSize + 1)),
+                this::toLeaveRequestDto);
+    }
+
+    public DeltaPage<TimeModificationRequestDto> getTimeModificationDelta(String managerId, String watermark, int limit) {
+        Watermark from = Watermark.decode(watermark);
+        int pageSize = resolvePageSize(limit);
+        LocalDateTime upTo = upperBound(watermark, from);
+
+        return buildPage("time_modification_requests", managerId, from, upTo, pageSize,
+                timeModificationRequestRepository.findDeltaForManager(managerId, from.rowTime, from.rowId, upTo,
+                        PageRequest.of(0, pageSize + 1)),
+                this::toTimeModificationDto);
+    }
+
+    private <E extends BaseEntity, D> DeltaPage<D> buildPage(String tableName, String managerId, Watermark from,
+                                                            LocalDateTime upTo, int pageSize, List<E> rows,
+                                                            Function<E, D> mapper) {
+        List<DeletedRecord> deletions = deletedRecordRepository.findDeltaForManager(
+                tableName, managerId, from.deletedTime, from.deletedId, upTo, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize || deletions.size() > pageSize;
+        List<E> pageRows = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        List<DeletedRecord> pageDeletions = deletions.size() > pageSize ? deletions.subList(0, pageSize) : deletions;
+
+        // Each stream advances independently to the last entry it returned
+        Watermark next = new Watermark(from.rowTime, from.rowId, from.deletedTime, from.deletedId);
+        if (!pageRows.isEmpty()) {
+            E last = pageRows.get(pageRows.size() - 1);
+            next.rowTime = last.getUpdatedAt();
+            next.rowId = last.getId();
+        }
+        if (deletions.size() <= pageSize) {
+            // Every tombstone up to the bound was returned, so the next call starts from the bound. This keeps
+            // the watermark of a client that syncs regularly inside the tombstone retention period.
+            if (upTo.isAfter(next.deletedTime)) {
+                next.deletedTime = upTo;
+                next.deletedId = MAX_UUID;
+            }
+        } else {
+            DeletedRecord last = pageDeletions.get(pageDeletions.size() - 1);
+            next.deletedTime = last.getDeletedAt();
+            next.deletedId = last.getId();
+        }
+
+        List<D> changes = pageRows.stream().map(mapper).toList();
+        List<DeltaPage.Tombstone> tombstones = pageDeletions.stream()
+                .map(deleted -> new DeltaPage.Tombstone(deleted.getRecordId(), deleted.getUserId(), deleted.getDeletedAt()))
+                .toList();
+
+        logger.debug("Delta export of {} for manager {}: {} changes, {} deletions, hasMore={}",
+                tableName, managerId, changes.size(), tombstones.size(), hasMore);
+        return new DeltaPage<>(changes, tombstones, next.encode(), hasMore);
+    }
+
+    private int resolvePageSize(int limit) {
+        int maxPageSize = appProperties.getExport().getDeltaMaxPageSize();
+        if (limit <= 0) {
+            return maxPageSize;
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    // Tombstones older than the retention period are gone, so a watermark from before it would miss deletions
+    private LocalDateTime upperBound(String watermark, Watermark from) {
+        LocalDateTime now = deletedRecordRepository.findDatabaseTime();
+        if (watermark != null && !watermark.isBlank()
+                && from.deletedTime.isBefore(now.minusDays(appProperties.getExport().getDeltaTombstoneRetentionDays()))) {
+            throw new IllegalArgumentException("ウォーターマークの有効期限が切れています。ウォーターマークを指定せずに全件を再取得してください");
+        }
+        return now.minusSeconds(appProperties.getExport().getDeltaSafetyLagSeconds());
+    }
+
+    // Scheduled task to purge expired tombstones (runs daily at 3:45 AM)
+    @Scheduled(cron = "0 45 3 * * ?")
+    @Transactional
+    public void purgeExpiredTombstones() {
+        LocalDateTime cutoff = deletedRecordRepository.findDatabaseTime()
+                .minusDays(appProperties.getExport().getDeltaTombstoneRetentionDays());
+        int deleted = 0;
+        for (String tableName : DELTA_TABLES) {
+            deleted += deletedRecordRepository.deleteDeletedBefore(tableName, cutoff);
+        }
+        logger.info("Purged {} deletion tombstones recorded before {}", deleted, cutoff.toLocalDate());
+    }
+
+    private LeaveRequestDto toLeaveRequestDto(LeaveRequest request) {
+        LeaveRequestDto dto = new LeaveRequestDto(request.getId(), request.getType(),
+                request.getStartDate(), request.getEndDate(), request.getStatus());
+        dto.setUserId(request.getUser().getId());
+        dto.setUserName(request.getUser().getName());
+        dto.setEmployeeId(request.getUser().getEmployeeId());
+        dto.setReason(request.getReason());
+        dto.setApprovedBy(request.getApprovedBy());
+        dto.setApprovedAt(request.getApprovedAt());
+        dto.setRejectionReason(request.getRejectionReason());
+        dto.setCreatedAt(request.getCreatedAt());
+        dto.setUpdatedAt(request.getUpdatedAt());
+        return dto;
+    }
+
+    private TimeModificationRequestDto toTimeModificationDto(TimeModificationRequest request) {
+        TimeModificationRequestDto dto = new TimeModificationRequestDto(request.getId(),
+                request.getRequestDate(), request.getStatus());
+        dto.setUserId(request.getUser().getId());
+        dto.setUserName(request.getUser().getName());
+        dto.setEmployeeId(request.getUser().getEmployeeId());
+        dto.setOriginalClockIn(request.getOriginalClockIn());
+        dto.setOriginalClockOut(request.getOriginalClockOut());
+        dto.setRequestedClockIn(request.getRequestedClockIn());
+        dto.setRequestedClockOut(request.getRequestedClockOut());
+        dto.setReason(request.getReason());
+        dto.setApprovedBy(request.getApprovedBy());
+        dto.setApprovedAt(request.getApprovedAt());
+        dto.setRejectionReason(request.getRejectionReason());
+        dto.setCreatedAt(request.getCreatedAt());
+        dto.setUpdatedAt(request.getUpdatedAt());
+        return dto;
+    }
+
+    // Opaque token: base64url("rowTime|rowId|deletedTime|deletedId")
+    private static class Watermark {
+        private LocalDateTime rowTime;
+        private UUID rowId;
+        private LocalDateTime deletedTime;
+        private UUID deletedId;
+
+        Watermark(LocalDateTime rowTime, UUID rowId, LocalDateTime deletedTime, UUID deletedId) {
+            this.rowTime = rowTime;
+            this.rowId = rowId;
+            this.deletedTime = deletedTime;
+            this.deletedId = deletedId;
+        }
+
+        static Watermark decode(String token) {
+            if (token == null || token.isBlank()) {
+                return new Watermark(EPOCH, MIN_UUID, EPOCH, MIN_UUID);
+            }
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = decoded.split("\\|");
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("ウォーターマークの形式が正しくありません");
+                }
+                return new Watermark(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]),
+                        LocalDateTime.parse(parts[2]), UUID.fromString(parts[3]));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("ウォーターマークの形式が正しくありません");
+            }
+        }
+
+        String encode() {
+            String raw = rowTime + "|" + rowId + "|" + deletedTime + "|" + deletedId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
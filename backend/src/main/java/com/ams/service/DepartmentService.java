@@ -83,11 +83,27 @@ public class DepartmentService {
             existingDepartment.setManagerId(departmentUpdates.getManagerId());
         }
 
+        // Update parent if provided; the hierarchy is walked upwards for escalation, so it must not loop
+        if (departmentUpdates.getParentId() != null) {
+            validateParent(existingDepartment.getId(), departmentUpdates.getParentId());
+            existingDepartment.setParentId(departmentUpdates.getParentId());
+        }
+
         Department savedDepartment = departmentRepository.save(existingDepartment);
         logger.info("Updated department: {}", savedDepartment.getName());
         return savedDepartment;
     }
 
+    private void validateParent(UUID departmentId, UUID parentId) {
+        UUID ancestorId = parentId;
+        while (ancestorId != null) {
+            if (ancestorId.equals(departmentId)) {
+                throw new IllegalArgumentException("A department cannot be placed under itself or its own sub-department");
+            }
+            ancestorId = getDepartmentById(ancestorId).getParentId();
+        }
+    }
+
     public void deleteDepartment(UUID id) {
         Department department = getDepartmentById(id);
         
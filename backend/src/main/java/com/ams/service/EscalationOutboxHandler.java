@@ -0,0 +1,39 @@
+package com.ams.service;
+
+import com.ams.entity.OutboxEvent;
+import com.ams.entity.enums.OutboxEventType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+// Notifies the manager a request was escalated to. Like decision notices, delivery is a log entry until
+// a notification channel exists.
+@Component
+public class EscalationOutboxHandler implements OutboxEventHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(EscalationOutboxHandler.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public Set<OutboxEventType> getEventTypes() {
+        return Set.of(OutboxEventType.REQUEST_ESCALATED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        logger.info("Notify {}: {} request {} of {} escalated to level {}",
+                payload.path("escalatedTo").asText(),
+                payload.path("requestType").asText(),
+                event.getAggregateId(),
+                payload.path("employeeId").asText(),
+                payload.path("level").asInt());
+    }
+}
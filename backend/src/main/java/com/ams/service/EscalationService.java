@@ -0,0 +1,240 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import com.ams.entity.ApprovalAuditLog;
+import com.ams.entity.Department;
+import com.ams.entity.EscalatableRequest;
+import com.ams.entity.User;
+import com.ams.entity.enums.ApprovalAuditAction;
+import com.ams.entity.enums.OutboxEventType;
+import com.ams.exception.ResourceNotFoundException;
+import com.ams.repository.ApprovalAuditLogRepository;
+import com.ams.repository.DepartmentRepository;
+import com.ams.repository.LeaveRequestRepository;
+import com.ams.repository.TimeModificationRequestRepository;
+import com.ams.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves pending requests that outlived their SLA to the manager of the next department up the hierarchy.
+ * Each request carries its own escalation deadline, so a run locks only the due rows through a partial
+ * index instead of scanning every pending request, and concurrent runs skip each other's rows.
+ */
+@Service
+public class EscalationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EscalationService.class);
+
+    private static final String RULE_NAME = "sla";
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private TimeModificationRequestRepository timeModificationRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private ApprovalAuditLogRepository approvalAuditLogRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void initTransaction() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Deadline for a newly filed request; null when no SLA is configured
+    public LocalDateTime firstDueAt() {
+        return nextDueAt(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.escalation.interval-millis:60000}")
+    public void processScheduled() {
+        if (!appProperties.getEscalation().isEnabled()) {
+            return;
+        }
+        process();
+    }
+
+    // Returns the number of requests escalated
+    public int process() {
+        int batchSize = Math.max(1, appProperties.getEscalation().getBatchSize());
+
+        int leave = processDue("leave", batchSize,
+                now -> leaveRequestRepository.lockDueForEscalation(now, batchSize));
+        int timeModification = processDue("time_modification", batchSize,
+                now -> timeModificationRequestRepository.lockDueForEscalation(now, batchSize));
+
+        if (leave + timeModification > 0) {
+            logger.info("Escalated {} leave and {} time modification requests", leave, timeModification);
+        }
+        return leave + timeModification;
+    }
+
+    // Escalates one pending request now, regardless of its deadline
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String escalate(String requestType, UUID requestId) {
+        EscalatableRequest request = switch (requestType.toLowerCase()) {
+            case "leave" -> leaveRequestRepository.findByIdForUpdate(requestId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Leave request not found with id: " + requestId));
+            case "time_modification" -> timeModificationRequestRepository.findByIdForUpdate(requestId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Time modification request not found with id: " + requestId));
+            default -> throw new IllegalArgumentException("不明な申請タイプです: " + requestType);
+        };
+        if (!request.isPending()) {
+            throw new IllegalStateException("この申請は既に処理済みです");
+        }
+
+        if (escalateAll(requestType.toLowerCase(), List.of(request), LocalDateTime.now()) == 0) {
+            throw new IllegalArgumentException("エスカレーション先の上位管理者がいません");
+        }
+        return request.getEscalatedTo();
+    }
+
+    // Every processed row either gets a later deadline or none, so the loop ends once the due rows are drained
+    private <R extends EscalatableRequest> int processDue(String requestType, int batchSize,
+                                                         Function<LocalDateTime, List<R>> lockDue) {
+        int total = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            BatchOutcome outcome = transaction.execute(status -> {
+                List<R> due = lockDue.apply(now);
+                return new BatchOutcome(due.size(), escalateAll(requestType, due, now));
+            });
+            total += outcome.escalated;
+            if (outcome.locked < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private int escalateAll(String requestType, List<? extends EscalatableRequest> requests, LocalDateTime now) {
+        if (requests.isEmpty()) {
+            return 0;
+        }
+        int maxLevel = appProperties.getEscalation().getMaxLevel();
+
+        // One query for the requesters with their departments and one for the hierarchy, instead of a
+        // lookup per request and per ancestor
+        Map<UUID, User> users = userRepository.findAllWithDepartmentByIdIn(
+                        requests.stream().map(r -> r.getUser().getId()).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<UUID, Department> departments = departmentRepository.findAll().stream()
+                .collect(Collectors.toMap(Department::getId, Function.identity()));
+
+        List<ApprovalAuditLog> entries = new ArrayList<>();
+        for (EscalatableRequest request : requests) {
+            User user = users.get(request.getUser().getId());
+            int level = request.getEscalationLevel() != null ? request.getEscalationLevel() : 0;
+            List<String> managers = escalationChain(user, departments);
+
+            if (level >= maxLevel || level >= managers.size()) {
+                // Nowhere further to go; the request stays with its current approver
+                request.setEscalationDueAt(null);
+                continue;
+            }
+
+            String target = managers.get(level);
+            request.setEscalatedTo(target);
+            request.setEscalationLevel(level + 1);
+            // The last allowed level gets no further deadline
+            request.setEscalationDueAt(level + 1 < maxLevel ? nextDueAt(now) : null);
+
+            outboxService.publish(OutboxEventType.REQUEST_ESCALATED, request.getId(), Map.of(
+                    "requestType", requestType,
+                    "employeeId", user.getEmployeeId(),
+                    "escalatedTo", target,
+                    "level", level + 1));
+            entries.add(new ApprovalAuditLog(requestType, request.getId(), user.getId(), ApprovalAuditAction.ESCALATED,
+                    RULE_NAME, "レベル" + (level + 1) + ": " + target + " にエスカレーション"));
+            meterRegistry.counter("ams.approvals.escalated", "type", requestType).increment();
+        }
+        approvalAuditLogRepository.saveAll(entries);
+        return entries.size();
+    }
+
+    // Managers of the ancestor departments, nearest first, skipping the requester, the department's own
+    // manager and repeats; a cycle in the hierarchy ends the walk
+    private List<String> escalationChain(User user, Map<UUID, Department> departments) {
+        List<String> managers = new ArrayList<>();
+        Department department = user.getDepartment() != null ? departments.get(user.getDepartment().getId()) : null;
+        if (department == null) {
+            return managers;
+        }
+
+        Set<String> skipped = new HashSet<>();
+        skipped.add(user.getEmployeeId());
+        if (department.getManagerId() != null) {
+            skipped.add(department.getManagerId());
+        }
+        Set<UUID> visited = new HashSet<>();
+        visited.add(department.getId());
+
+        UUID parentId = department.getParentId();
+        while (parentId != null && visited.add(parentId)) {
+            Department parent = departments.get(parentId);
+            if (parent == null) {
+                break;
+            }
+            String managerId = parent.getManagerId();
+            if (managerId != null && skipped.add(managerId)) {
+                managers.add(managerId);
+            }
+            parentId = parent.getParentId();
+        }
+        return managers;
+    }
+
+    private LocalDateTime nextDueAt(LocalDateTime from) {
+        int slaHours = appProperties.getEscalation().getSlaHours();
+        return slaHours > 0 ? from.plusHours(slaHours) : null;
+    }
+
+    private static class BatchOutcome {
+        private final int locked;
+        private final int escalated;
+
+        BatchOutcome(int locked, int escalated) {
+            this.locked = locked;
+            this.escalated = escalated;
+        }
+    }
+}
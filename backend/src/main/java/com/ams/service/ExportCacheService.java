@@ -0,0 +1,370 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import com.ams.dto.export.DataVersion;
+import com.ams.repository.DeletedRecordRepository;
+import com.ams.repository.DepartmentRepository;
+import com.ams.repository.TimeRecordRepository;
+import com.ams.repository.UserRepository;
+import com.ams.util.ExportCompression;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Disk-backed LRU cache of finished exports. Entries are keyed by export type, scope, date range,
+ * compression and a version fingerprint of the rows the export reads, so any change to those rows
+ * produces a new key; the superseded entry is dropped as soon as the new one is stored. Data changed
+ * within the delta safety lag is served uncached, since a late commit could still land behind its version.
+ */
+@Service
+public class ExportCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportCacheService.class);
+
+    private static final String ALL_SCOPE = "*";
+
+    @Autowired
+    private TimeRecordRepository timeRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DeletedRecordRepository deletedRecordRepository;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by this
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> currentKeyByBase = new HashMap<>();
+    private long totalBytes;
+
+    private Path cacheDirectory;
+
+    @PostConstruct
+    void initCacheDirectory() throws IOException {
+        if (!appProperties.getExport().isCacheEnabled()) {
+            return;
+        }
+        cacheDirectory = Paths.get(appProperties.getExport().getCacheDirectory()).toAbsolutePath();
+        Files.createDirectories(cacheDirectory);
+
+        // The index lives in memory, so files from a previous run cannot be trusted
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(cacheDirectory, "cache-*")) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+        logger.info("Export cache directory: {} (max {} MB)", cacheDirectory, appProperties.getExport().getCacheMaxSizeMb());
+    }
+
+    /**
+     * Builds the cache key for an export, reading the current data version of everything it depends on.
+     * Returns null when caching is disabled or the data changed too recently to fingerprint safely.
+     * A null scope means company-wide.
+     */
+    @Transactional(readOnly = true)
+    public CacheKey buildKey(CacheableExport type, String scope, LocalDate startDate, LocalDate endDate,
+                             ExportCompression compression) {
+        if (cacheDirectory == null) {
+            return null;
+        }
+
+        List<LocalDateTime> lastChanges;
+        String version;
+        switch (type) {
+            case ATTENDANCE, TEAM_SUMMARY -> {
+                DataVersion records = timeRecordRepository.findTeamDataVersion(scope, startDate, endDate);
+                DataVersion users = userRepository.findTeamDataVersion(scope);
+                LocalDateTime deleted = deletedRecordRepository.findLatestDeletionForManager("time_records", scope);
+                lastChanges = Arrays.asList(records.getLastUpdated(), users.getLastUpdated(), deleted);
+                version = records + "|" + users + "|" + deleted;
+            }
+            // Only the range is counted; users and departments contribute their newest change
+            case ALL_ATTENDANCE -> {
+                DataVersion records = timeRecordRepository.findDataVersion(startDate, endDate);
+                LocalDateTime usersUpdated = userRepository.findLastUpdatedAt();
+                LocalDateTime departmentsUpdated = departmentRepository.findLastUpdatedAt();
+                LocalDateTime deleted = deletedRecordRepository.findLatestDeletion("time_records");
+                lastChanges = Arrays.asList(records.getLastUpdated(), usersUpdated, departmentsUpdated, deleted);
+                version = records + "|" + usersUpdated + "|" + departmentsUpdated + "|" + deleted;
+            }
+            default -> throw new IllegalArgumentException("Unsupported cacheable export: " + type);
+        }
+
+        // Timestamps are transaction start times, so a transaction that started earlier but commits later can
+        // change rows without moving the newest timestamp. As with delta exports, data changed within the safety
+        // lag is not fingerprinted; the export is generated without the cache until the window has passed.
+        LocalDateTime settledBefore = deletedRecordRepository.findDatabaseTime()
+                .minusSeconds(appProperties.getExport().getDeltaSafetyLagSeconds());
+        for (LocalDateTime lastChange : lastChanges) {
+            if (lastChange != null && lastChange.isAfter(settledBefore)) {
+                logger.debug("Export cache bypassed for {} {}: data changed within the safety lag", type, scope);
+                return null;
+            }
+        }
+
+        String base = type + "|" + (scope != null ? scope : ALL_SCOPE) + "|" + startDate + "|" + endDate + "|" + compression;
+        return new CacheKey(sha256(base), sha256(base + "|" + version));
+    }
+
+    /**
+     * Streams a cached copy of the export if one exists for the key; otherwise runs the generator
+     * and tees its output into the cache while it is sent. A null key bypasses the cache.
+     */
+    public void serve(CacheKey key, OutputStream out, ExportGenerator generator) throws IOException {
+        if (key == null) {
+            generator.write(out);
+            return;
+        }
+
+        InputStream cached = openCached(key);
+        if (cached != null) {
+            try (cached) {
+                long bytes = cached.transferTo(out);
+                logger.debug("Export cache hit {} ({} bytes)", key.getId(), bytes);
+            }
+            out.close();
+            return;
+        }
+
+        logger.debug("Export cache miss {}", key.getId());
+        Path partFile = cacheDirectory.resolve("cache-" + UUID.randomUUID() + ".part");
+        TeeOutputStream tee = new TeeOutputStream(out,
+                new BufferedOutputStream(Files.newOutputStream(partFile)), getMaxBytes());
+        boolean completed = false;
+        try {
+            generator.write(tee);
+            completed = true;
+        } finally {
+            tee.close();
+            if (completed && tee.isCopyIntact()) {
+                store(key, partFile, tee.getCopiedBytes());
+            } else {
+                deleteQuietly(partFile);
+            }
+        }
+    }
+
+    private synchronized InputStream openCached(CacheKey key) {
+        CacheEntry entry = entries.get(key.getId());
+        if (entry == null) {
+            return null;
+        }
+        try {
+            // Opened under the lock so a concurrent eviction cannot delete the file first
+            return Files.newInputStream(entry.file);
+        } catch (NoSuchFileException e) {
+            removeEntry(key.getId());
+            return null;
+        } catch (IOException e) {
+            logger.warn("Failed to open cached export {}", entry.file, e);
+            return null;
+        }
+    }
+
+    private synchronized void store(CacheKey key, Path partFile, long size) {
+        Path target = cacheDirectory.resolve("cache-" + key.getId());
+        try {
+            Files.move(partFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Failed to store cached export {}", target, e);
+            deleteQuietly(partFile);
+            return;
+        }
+
+        // A newer version of the same export invalidates the previous one
+        String previousId = currentKeyByBase.put(key.getBase(), key.getId());
+        if (previousId != null && !previousId.equals(key.getId())) {
+            removeEntry(previousId);
+        }
+
+        CacheEntry replaced = entries.put(key.getId(), new CacheEntry(key.getBase(), target, size));
+        if (replaced != null) {
+            totalBytes -= replaced.size;
+        }
+        totalBytes += size;
+        evictToLimit();
+    }
+
+    private void evictToLimit() {
+        long maxBytes = getMaxBytes();
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue().size;
+            currentKeyByBase.remove(eldest.getValue().base, eldest.getKey());
+            deleteQuietly(eldest.getValue().file);
+            logger.debug("Evicted cached export {}", eldest.getKey());
+        }
+    }
+
+    private void removeEntry(String id) {
+        CacheEntry removed = entries.remove(id);
+        if (removed != null) {
+            totalBytes -= removed.size;
+            currentKeyByBase.remove(removed.base, id);
+            deleteQuietly(removed.file);
+        }
+    }
+
+    private long getMaxBytes() {
+        return appProperties.getExport().getCacheMaxSizeMb() * 1024L * 1024L;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete cached export {}", file, e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ExportGenerator {
+        void write(OutputStream out) throws IOException;
+    }
+
+    public enum CacheableExport {
+        ATTENDANCE, ALL_ATTENDANCE, TEAM_SUMMARY
+    }
+
+    public static class CacheKey {
+        private final String base;
+        private final String id;
+
+        CacheKey(String base, String id) {
+            this.base = base;
+            this.id = id;
+        }
+
+        // Identifies the export regardless of data version
+        public String getBase() { return base; }
+        public String getId() { return id; }
+    }
+
+    private static class CacheEntry {
+        private final String base;
+        private final Path file;
+        private final long size;
+
+        CacheEntry(String base, Path file, long size) {
+            this.base = base;
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    // Sends everything to the client; the cache copy is abandoned on a write error or once it outgrows the cache
+    private static class TeeOutputStream extends OutputStream {
+        private final OutputStream primary;
+        private final OutputStream copy;
+        private final long maxCopyBytes;
+        private long copiedBytes;
+        private boolean copyIntact = true;
+        private boolean closed;
+
+        TeeOutputStream(OutputStream primary, OutputStream copy, long maxCopyBytes) {
+            this.primary = primary;
+            this.copy = copy;
+            this.maxCopyBytes = maxCopyBytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            primary.write(b);
+            copy(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            primary.write(b, off, len);
+            copy(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            primary.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                copy.close();
+            } catch (IOException e) {
+                copyIntact = false;
+            }
+            primary.close();
+        }
+
+        boolean isCopyIntact() {
+            return copyIntact;
+        }
+
+        long getCopiedBytes() {
+            return copiedBytes;
+        }
+
+        private void copy(byte[] b, int off, int len) {
+            if (!copyIntact) {
+                return;
+            }
+            if (copiedBytes + len > maxCopyBytes) {
+                copyIntact = false;
+                return;
+            }
+            try {
+                copy.write(b, off, len);
+                copiedBytes += len;
+            } catch (IOException e) {
+                copyIntact = false;
+            }
+        }
+    }
+}
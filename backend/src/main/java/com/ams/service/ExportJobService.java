@@ -0,0 +1,320 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import com.ams.exception.ResourceNotFoundException;
+import com.ams.util.ExportCompression;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Runs exports in the background and stages the results on local disk, so the HTTP
+ * request that downloads a file never holds a database connection or transaction.
+ * Job state is kept in memory; staged files left over from a previous run are removed on startup.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+    private static final DateTimeFormatter FILENAME_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Autowired
+    private CsvExportService csvExportService;
+
+    @Autowired
+    private ExportCacheService exportCacheService;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    @Qualifier("exportJobExecutor")
+    private ExecutorService exportJobExecutor;
+
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    private Path stagingDirectory;
+
+    @PostConstruct
+    void initStagingDirectory() throws IOException {
+        stagingDirectory = Paths.get(appProperties.getExport().getStagingDirectory()).toAbsolutePath();
+        Files.createDirectories(stagingDirectory);
+
+        // Jobs do not survive a restart, so neither do their files, nor partition chunks of interrupted exports
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(stagingDirectory, "export-*")) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+        // Also matches the loose partition-*.csv chunks earlier versions wrote into the staging directory
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(stagingDirectory, "partition*")) {
+            for (Path leftover : leftovers) {
+                try (Stream<Path> files = Files.walk(leftover)) {
+                    // Deepest first, so each directory is empty by the time it is deleted
+                    for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+        logger.info("Export staging directory: {}", stagingDirectory);
+    }
+
+    public ExportJob submitJob(ExportType type, String requesterId, LocalDate startDate, LocalDate endDate,
+                               ExportCompression compression) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("開始日と終了日は必須です");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("開始日は終了日より前である必要があります");
+        }
+
+        ExportJob job = new ExportJob(type, requesterId, startDate, endDate, compression);
+        job.setFilename(String.format("%s_%s_%s.csv%s", type.getFilenamePrefix(),
+                startDate.format(FILENAME_DATE_FORMATTER), endDate.format(FILENAME_DATE_FORMATTER),
+                compression.getFileExtension()));
+        jobs.put(job.getId(), job);
+
+        try {
+            exportJobExecutor.execute(() -> runJob(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            logger.warn("Export job queue is full, rejected {} export for {}", type, requesterId);
+            throw new IllegalStateException("エクスポート処理が混み合っています。しばらくしてから再度お試しください");
+        }
+
+        logger.info("Submitted export job {} ({}) for {} from {} to {}", job.getId(), type, requesterId, startDate, endDate);
+        return job;
+    }
+
+    public ExportJob getJob(UUID jobId, String requesterId) {
+        ExportJob job = jobs.get(jobId);
+        // Other users' jobs are reported as missing rather than forbidden
+        if (job == null || !job.getRequesterId().equals(requesterId)) {
+            throw new ResourceNotFoundException("エクスポートジョブが見つかりません: " + jobId);
+        }
+        return job;
+    }
+
+    public Path getResultFile(UUID jobId, String requesterId) {
+        ExportJob job = getJob(jobId, requesterId);
+        if (job.getStatus() != JobStatus.COMPLETED) {
+            throw new IllegalStateException("エクスポートはまだ完了していません");
+        }
+        Path file = job.getResultFile();
+        if (file == null || !Files.exists(file)) {
+            throw new ResourceNotFoundException("エクスポートファイルの有効期限が切れています");
+        }
+        return file;
+    }
+
+    @Scheduled(fixedDelay = 300000) // Every 5 minutes
+    public void purgeExpiredJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            if (job.getExpiresAt() == null || job.getExpiresAt().isAfter(now)) {
+                return false;
+            }
+            deleteQuietly(job.getResultFile());
+            logger.debug("Expired export job {}", job.getId());
+            return true;
+        });
+    }
+
+    private void runJob(ExportJob job) {
+        job.setStatus(JobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+
+        Path partFile = stagingDirectory.resolve("export-" + job.getId() + ".part");
+        Path resultFile = stagingDirectory.resolve("export-" + job.getId() + ".csv" + job.getCompression().getFileExtension());
+        try {
+            try (OutputStream out = new ProgressOutputStream(Files.newOutputStream(partFile), job)) {
+                writeExport(job, out);
+            }
+            Files.move(partFile, resultFile, StandardCopyOption.ATOMIC_MOVE);
+
+            job.setResultFile(resultFile);
+            job.setStatus(JobStatus.COMPLETED);
+            logger.info("Export job {} completed ({} bytes)", job.getId(), job.getBytesWritten());
+        } catch (Exception e) {
+            logger.error("Export job {} failed", job.getId(), e);
+            deleteQuietly(partFile);
+            job.setErrorMessage("エクスポート処理でエラーが発生しました");
+            job.setStatus(JobStatus.FAILED);
+        } finally {
+            job.setCompletedAt(LocalDateTime.now());
+            job.setExpiresAt(job.getCompletedAt().plusMinutes(appProperties.getExport().getJobResultTtlMinutes()));
+        }
+    }
+
+    // Same compression and cache as the synchronous endpoints, so a job and a direct download of the
+    // same export share one cache entry
+    private void writeExport(ExportJob job, OutputStream out) throws IOException {
+        String requesterId = job.getRequesterId();
+        LocalDate startDate = job.getStartDate();
+        LocalDate endDate = job.getEndDate();
+
+        ExportCacheService.CacheKey cacheKey = switch (job.getType()) {
+            case ATTENDANCE -> exportCacheService.buildKey(ExportCacheService.CacheableExport.ATTENDANCE,
+                    requesterId, startDate, endDate, job.getCompression());
+            case ALL_ATTENDANCE -> exportCacheService.buildKey(ExportCacheService.CacheableExport.ALL_ATTENDANCE,
+                    null, startDate, endDate, job.getCompression());
+            case TEAM_SUMMARY -> exportCacheService.buildKey(ExportCacheService.CacheableExport.TEAM_SUMMARY,
+                    requesterId, startDate, endDate, job.getCompression());
+            case LEAVE_REQUESTS, TIME_MODIFICATIONS -> null;
+        };
+
+        exportCacheService.serve(cacheKey, out, target -> {
+            // Closing the writer finishes the compressed stream
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    job.getCompression().wrap(target), StandardCharsets.UTF_8))) {
+                switch (job.getType()) {
+                    case ATTENDANCE -> csvExportService.exportAttendanceRecords(writer, startDate, endDate, requesterId);
+                    case ALL_ATTENDANCE -> csvExportService.exportAllAttendanceRecords(writer, startDate, endDate);
+                    case LEAVE_REQUESTS -> csvExportService.exportLeaveRequests(writer, startDate, endDate, requesterId);
+                    case TIME_MODIFICATIONS -> csvExportService.exportTimeModificationRequests(writer, startDate, endDate, requesterId);
+                    case TEAM_SUMMARY -> csvExportService.exportTeamSummary(writer, startDate, endDate, requesterId);
+                }
+            }
+        });
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete export file {}", file, e);
+        }
+    }
+
+    // Counts bytes as they reach the staging file so clients can poll progress
+    private static class ProgressOutputStream extends FilterOutputStream {
+        private final ExportJob job;
+
+        ProgressOutputStream(OutputStream out, ExportJob job) {
+            super(out);
+            this.job = job;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            job.addBytesWritten(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            job.addBytesWritten(len);
+        }
+    }
+
+    public enum ExportType {
+        ATTENDANCE("attendance"),
+        ALL_ATTENDANCE("all_attendance"),
+        LEAVE_REQUESTS("leave_requests"),
+        TIME_MODIFICATIONS("time_modifications"),
+        TEAM_SUMMARY("team_summary");
+
+        private final String filenamePrefix;
+
+        ExportType(String filenamePrefix) {
+            this.filenamePrefix = filenamePrefix;
+        }
+
+        public String getFilenamePrefix() {
+            return filenamePrefix;
+        }
+    }
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public static class ExportJob {
+        private final UUID id = UUID.randomUUID();
+        private final ExportType type;
+        private final String requesterId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final ExportCompression compression;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile long bytesWritten;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+        private volatile LocalDateTime expiresAt;
+        private volatile String errorMessage;
+        private volatile String filename;
+        private volatile Path resultFile;
+
+        public ExportJob(ExportType type, String requesterId, LocalDate startDate, LocalDate endDate,
+                         ExportCompression compression) {
+            this.type = type;
+            this.requesterId = requesterId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.compression = compression;
+        }
+
+        // Only the worker thread writes the counter
+        void addBytesWritten(long count) { bytesWritten += count; }
+
+        // Getters and setters
+        public UUID getId() { return id; }
+        public ExportType getType() { return type; }
+        @JsonIgnore
+        public String getRequesterId() { return requesterId; }
+        public LocalDate getStartDate() { return startDate; }
+        public LocalDate getEndDate() { return endDate; }
+        public ExportCompression getCompression() { return compression; }
+        public LocalDateTime getSubmittedAt() { return submittedAt; }
+        public JobStatus getStatus() { return status; }
+        public void setStatus(JobStatus status) { this.status = status; }
+        public long getBytesWritten() { return bytesWritten; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+        public LocalDateTime getCompletedAt() { return completedAt; }
+        public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+        public LocalDateTime getExpiresAt() { return expiresAt; }
+        public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+        public String getErrorMessage() { return errorMessage; }
+        public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+        public String getFilename() { return filename; }
+        public void setFilename(String filename) { this.filename = filename; }
+        @JsonIgnore
+        public Path getResultFile() { return resultFile; }
+        public void setResultFile(Path resultFile) { this.resultFile = resultFile; }
+    }
+}
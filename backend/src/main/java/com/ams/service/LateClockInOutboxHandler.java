@@ -0,0 +1,43 @@
+package com.ams.service;
+
+import com.ams.entity.OutboxEvent;
+import com.ams.entity.User;
+import com.ams.entity.enums.OutboxEventType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+// Creates the late alert for a clock-in. The alert (or digest item) insert skips an existing one for the day and a
+// digest is chosen by the clock-in time in the payload, so redelivery is harmless
+@Component
+public class LateClockInOutboxHandler implements OutboxEventHandler {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public Set<OutboxEventType> getEventTypes() {
+        return Set.of(OutboxEventType.LATE_CLOCK_IN);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        User user = userService.getUserById(UUID.fromString(payload.get("userId").asText()));
+        alertService.createLateAlert(user,
+                LocalDate.parse(payload.get("recordDate").asText()),
+                LocalDateTime.parse(payload.get("clockInTime").asText()));
+    }
+}
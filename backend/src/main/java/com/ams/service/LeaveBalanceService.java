@@ -0,0 +1,220 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import com.ams.entity.LeaveBalance;
+import com.ams.entity.LeaveRequest;
+import com.ams.entity.User;
+import com.ams.entity.enums.LeaveType;
+import com.ams.exception.BusinessRuleViolationException;
+import com.ams.repository.LeaveBalanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keeps the leave ledger in step with leave requests. Filing a request reserves its days, approval moves
+ * them from pending to used, and rejection or cancellation gives them back, each as an atomic delta in
+ * the caller's transaction. A request counts towards the year it starts in; types that are not tracked
+ * are left alone.
+ */
+@Service
+@Transactional
+public class LeaveBalanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveBalanceService.class);
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    public boolean isTracked(LeaveType type) {
+        return appProperties.getLeaveBalance().getTrackedTypes().contains(type);
+    }
+
+    // Opens the current year for every active user; the rows of users who already have one are kept
+    @Scheduled(cron = "${app.leave-balance.open-year-cron:0 10 0 * * *}")
+    public void openCurrentYear() {
+        int year = LocalDate.now().getYear();
+        for (LeaveType type : appProperties.getLeaveBalance().getTrackedTypes()) {
+            int opened = leaveBalanceRepository.openYearForActiveUsers(year, type.name(),
+                    appProperties.getLeaveBalance().getYearlyGrantDays(),
+                    appProperties.getLeaveBalance().getMaxCarryOverDays());
+            if (opened > 0) {
+                logger.info("Opened {} {} leave balances for {}", opened, type, year);
+            }
+        }
+    }
+
+    // A type added to the tracked types has requests that reserved nothing when they were filed; their rows are
+    // opened from the requests before any decision touches them, so every later delta finds a matching row
+    @EventListener(ApplicationReadyEvent.class)
+    public void openYearsForExistingRequests() {
+        for (LeaveType type : appProperties.getLeaveBalance().getTrackedTypes()) {
+            int opened = leaveBalanceRepository.openYearsForExistingRequests(type.name(),
+                    appProperties.getLeaveBalance().getYearlyGrantDays(),
+                    appProperties.getLeaveBalance().getMaxCarryOverDays());
+            if (opened > 0) {
+                logger.info("Opened {} {} leave balances from existing requests", opened, type);
+            }
+        }
+    }
+
+    // Balances of every tracked type for the year, opening the missing ones
+    public List<LeaveBalance> getBalances(String employeeId, int year) {
+        User user = userService.getUserByEmployeeId(employeeId);
+        List<LeaveBalance> balances = leaveBalanceRepository.findByUserIdAndLeaveYearOrderByLeaveTypeAsc(user.getId(), year);
+        if (balances.size() < appProperties.getLeaveBalance().getTrackedTypes().size()) {
+            for (LeaveType type : appProperties.getLeaveBalance().getTrackedTypes()) {
+                openYear(user.getId(), year, type);
+            }
+            balances = leaveBalanceRepository.findByUserIdAndLeaveYearOrderByLeaveTypeAsc(user.getId(), year);
+        }
+        return balances;
+    }
+
+    // Null for a type without a ledger
+    public Integer getRemainingDays(UUID userId, LeaveType type, int year) {
+        if (!isTracked(type)) {
+            return null;
+        }
+        return getBalance(userId, type, year).getRemainingDays();
+    }
+
+    // Adds days to a year's grant, e.g. special leave awarded by a manager; negative days withdraw a grant
+    public LeaveBalance grant(String employeeId, LeaveType type, int year, int days) {
+        if (!isTracked(type)) {
+            throw new IllegalArgumentException(type.getDisplayName() + "は残日数を管理していません");
+        }
+        if (days == 0) {
+            throw new IllegalArgumentException("付与日数を指定してください");
+        }
+        User user = userService.getUserByEmployeeId(employeeId);
+        openYear(user.getId(), year, type);
+        leaveBalanceRepository.adjust(user.getId(), year, type.name(), days, 0, 0);
+
+        logger.info("Granted {} {} leave days for {} to {}", days, type, year, employeeId);
+        return getBalance(user.getId(), type, year);
+    }
+
+    // Reserves the days of a request being filed or edited, failing when the balance does not cover them
+    public void reserve(LeaveRequest request) {
+        if (!isTracked(request.getType())) {
+            return;
+        }
+        UUID userId = request.getUser().getId();
+        int year = request.getStartDate().getYear();
+        int days = (int) request.getDurationDays();
+
+        List<Integer> remainingAfter = leaveBalanceRepository.reserve(userId, year, request.getType().name(), days);
+        if (remainingAfter.isEmpty() && openYear(userId, year, request.getType()) > 0) {
+            // First request of the year for this user
+            remainingAfter = leaveBalanceRepository.reserve(userId, year, request.getType().name(), days);
+        }
+        if (remainingAfter.isEmpty()) {
+            int remaining = getBalance(userId, request.getType(), year).getRemainingDays();
+            throw new BusinessRuleViolationException(String.format("%sの残日数が不足しています（残り: %d日、申請: %d日）",
+                    request.getType().getDisplayName(), remaining, days));
+        }
+    }
+
+    // Gives back the days of a pending request that was rejected, cancelled or is about to be edited
+    public void release(LeaveRequest request) {
+        releaseAll(List.of(request));
+    }
+
+    public void releaseAll(Collection<LeaveRequest> requests) {
+        apply(requests, -1, 0);
+    }
+
+    // Moves the days of approved requests from pending to used
+    public void consume(LeaveRequest request) {
+        consumeAll(List.of(request));
+    }
+
+    public void consumeAll(Collection<LeaveRequest> requests) {
+        apply(requests, -1, 1);
+    }
+
+    // Sums the requests per ledger row so a bulk decision issues one UPDATE per (user, year, type)
+    private void apply(Collection<LeaveRequest> requests, int pendingSign, int usedSign) {
+        Map<BalanceKey, Integer> daysByBalance = new LinkedHashMap<>();
+        for (LeaveRequest request : requests) {
+            if (isTracked(request.getType())) {
+                daysByBalance.merge(new BalanceKey(request.getUser().getId(), request.getStartDate().getYear(),
+                        request.getType()), (int) request.getDurationDays(), Integer::sum);
+            }
+        }
+
+        daysByBalance.forEach((key, days) -> {
+            int updated = leaveBalanceRepository.adjust(key.userId, key.year, key.type.name(),
+                    0, pendingSign * days, usedSign * days);
+            if (updated == 0) {
+                // Rolls back the decision instead of leaving the ledger short of the requests it tracks
+                throw new IllegalStateException(String.format(
+                        "Leave balance out of step with requests: %s %d for user %s", key.type, key.year, key.userId));
+            }
+        });
+    }
+
+    // One read by the unique key; the row is opened only the first time the year is touched
+    private LeaveBalance getBalance(UUID userId, LeaveType type, int year) {
+        return leaveBalanceRepository.findByUserIdAndLeaveYearAndLeaveType(userId, year, type)
+                .orElseGet(() -> {
+                    openYear(userId, year, type);
+                    return leaveBalanceRepository.findByUserIdAndLeaveYearAndLeaveType(userId, year, type)
+                            .orElseThrow(() -> new IllegalStateException("Leave balance missing after opening: " + userId));
+                });
+    }
+
+    private int openYear(UUID userId, int year, LeaveType type) {
+        return leaveBalanceRepository.openYearForUser(userId, year, type.name(),
+                appProperties.getLeaveBalance().getYearlyGrantDays(),
+                appProperties.getLeaveBalance().getMaxCarryOverDays());
+    }
+
+    private static class BalanceKey {
+        private final UUID userId;
+        private final int year;
+        private final LeaveType type;
+
+        BalanceKey(UUID userId, int year, LeaveType type) {
+            this.userId = userId;
+            this.year = year;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BalanceKey other)) {
+                return false;
+            }
+            return year == other.year && userId.equals(other.userId) && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, year, type);
+        }
+    }
+}
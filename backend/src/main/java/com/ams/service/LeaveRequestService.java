@@ -1,8 +1,17 @@
 package com.ams.service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,9 +19,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ams.dto.request.BulkApprovalResult;
 import com.ams.entity.LeaveRequest;
 import com.ams.entity.User;
 import com.ams.entity.enums.LeaveType;
+import com.ams.entity.enums.OutboxEventType;
 import com.ams.entity.enums.RequestStatus;
 import com.ams.exception.ResourceNotFoundException;
 import com.ams.repository.LeaveRequestRepository;
@@ -23,12 +34,23 @@ public class LeaveRequestService {
 
     private static final Logger logger = LoggerFactory.getLogger(LeaveRequestService.class);
 
+    private static final String REQUEST_TYPE = "leave";
+
     @Autowired
     private LeaveRequestRepository leaveRequestRepository;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private EscalationService escalationService;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
     @Autowired
     private com.ams.validation.BusinessRuleValidator businessRuleValidator;
 
@@ -45,10 +67,11 @@ public class LeaveRequestService {
         // Check for overlapping requests
         checkForOverlappingRequests(user.getId(), startDate, endDate);
         
-        // Business rules validation
-        validateLeaveRequest(user, type, startDate, endDate);
-        
         LeaveRequest leaveRequest = new LeaveRequest(user, type, startDate, endDate, reason);
+        leaveRequest.setEscalationDueAt(escalationService.firstDueAt());
+
+        // Reserve the days in the leave ledger; fails when the balance does not cover them
+        leaveBalanceService.reserve(leaveRequest);
         LeaveRequest savedRequest = leaveRequestRepository.save(leaveRequest);
         
         logger.info("Created leave request for user: {} from {} to {}", employeeId, startDate, endDate);
@@ -104,6 +127,8 @@ public class LeaveRequestService {
         
         leaveRequest.approve(approverEmployeeId);
         LeaveRequest savedRequest = leaveRequestRepository.save(leaveRequest);
+        leaveBalanceService.consume(savedRequest);
+        publishDecision(savedRequest);
         
         logger.info("Approved leave request {} by {}", requestId, approverEmployeeId);
         return savedRequest;
@@ -126,11 +151,50 @@ public class LeaveRequestService {
         
         leaveRequest.reject(approverEmployeeId, rejectionReason);
         LeaveRequest savedRequest = leaveRequestRepository.save(leaveRequest);
+        leaveBalanceService.release(savedRequest);
+        publishDecision(savedRequest);
         
         logger.info("Rejected leave request {} by {} with reason: {}", requestId, approverEmployeeId, rejectionReason);
         return savedRequest;
     }
 
+    // Approves every listed request that passes the checks of approveLeaveRequest with a single UPDATE;
+    // requests failing a check stay pending and are reported as failed items
+    public List<BulkApprovalResult.Item> approveLeaveRequests(Collection<UUID> requestIds, User approver) {
+        List<LeaveRequest> approvable = new ArrayList<>();
+        List<BulkApprovalResult.Item> results = checkBulkDecision(requestIds, approver, approvable, true);
+        results.addAll(decideInBulk(approvable, approver.getEmployeeId(), RequestStatus.APPROVED, null));
+        return results;
+    }
+
+    public List<BulkApprovalResult.Item> rejectLeaveRequests(Map<UUID, String> rejectionReasons, User approver) {
+        List<LeaveRequest> rejectable = new ArrayList<>();
+        List<BulkApprovalResult.Item> results = checkBulkDecision(rejectionReasons.keySet(), approver, rejectable, false);
+
+        // Requests sharing a rejection reason are rejected by one statement
+        Map<String, List<LeaveRequest>> byReason = new LinkedHashMap<>();
+        for (LeaveRequest request : rejectable) {
+            String reason = rejectionReasons.get(request.getId());
+            if (reason == null || reason.trim().isEmpty()) {
+                results.add(BulkApprovalResult.Item.failure(REQUEST_TYPE, request.getId(), "却下理由は必須です"));
+            } else {
+                byReason.computeIfAbsent(reason, r -> new ArrayList<>()).add(request);
+            }
+        }
+        byReason.forEach((reason, requests) ->
+                results.addAll(decideInBulk(requests, approver.getEmployeeId(), RequestStatus.REJECTED, reason)));
+        return results;
+    }
+
+    // Approves requests matched by an auto-approval rule; approved_by stays empty and the rule is named in the
+    // approval audit log instead. Returns the ids actually approved, skipping any decided in the meantime.
+    public List<UUID> autoApproveLeaveRequests(List<LeaveRequest> requests) {
+        return decideInBulk(requests, null, RequestStatus.APPROVED, null).stream()
+                .filter(BulkApprovalResult.Item::isSuccess)
+                .map(BulkApprovalResult.Item::getRequestId)
+                .toList();
+    }
+
     public LeaveRequest updateLeaveRequest(UUID requestId, String employeeId, LeaveRequest updates) {
         LeaveRequest existingRequest = getLeaveRequestById(requestId);
         
@@ -144,6 +208,9 @@ public class LeaveRequestService {
             throw new IllegalStateException("承認済みまたは却下済みの申請は編集できません");
         }
         
+        // The reservation follows the new dates and type: give back the old days, then reserve the new ones
+        leaveBalanceService.release(existingRequest);
+
         // Update fields
         if (updates.getStartDate() != null && updates.getEndDate() != null) {
             validateLeaveDates(updates.getStartDate(), updates.getEndDate());
@@ -160,6 +227,8 @@ public class LeaveRequestService {
         if (updates.getReason() != null) {
             existingRequest.setReason(updates.getReason());
         }
+
+        leaveBalanceService.reserve(existingRequest);
         
         LeaveRequest savedRequest = leaveRequestRepository.save(existingRequest);
         logger.info("Updated leave request {} by {}", requestId, employeeId);
@@ -180,6 +249,7 @@ public class LeaveRequestService {
         }
         
         leaveRequestRepository.delete(leaveRequest);
+        leaveBalanceService.release(leaveRequest);
         logger.info("Cancelled leave request {} by {}", requestId, employeeId);
     }
 
@@ -222,22 +292,89 @@ public class LeaveRequestService {
         }
     }
 
-    private void validateLeaveRequest(User user, LeaveType type, LocalDate startDate, LocalDate endDate) {
-        // Additional business rules can be implemented here
-        // For example: checking annual leave balance, blackout dates, etc.
-        
-        if (type == LeaveType.PAID) {
-            // Check if user has sufficient paid leave balance
-            // This would require a separate table to track leave balances
-            long usedPaidLeave = leaveRequestRepository.countApprovedLeavesByUserAndTypeAndYear(
-                    user.getId(), LeaveType.PAID, startDate.getYear());
-            
-            // Assume 20 days annual leave limit
-            long requestDays = startDate.datesUntil(endDate.plusDays(1)).count();
-            if (usedPaidLeave + requestDays > 20) {
-                throw new IllegalArgumentException("有給休暇の残日数が不足しています");
+    // Loads the targets in one query and checks each in memory; the ones that pass are added to decidable
+    private List<BulkApprovalResult.Item> checkBulkDecision(Collection<UUID> requestIds, User approver,
+                                                            List<LeaveRequest> decidable, boolean approving) {
+        if (!approver.isManager()) {
+            throw new IllegalArgumentException("承認権限がありません");
+        }
+
+        List<BulkApprovalResult.Item> results = new ArrayList<>();
+        if (requestIds.isEmpty()) {
+            return results;
+        }
+        Map<UUID, LeaveRequest> requestsById = leaveRequestRepository.findAllWithUserByIdIn(requestIds).stream()
+                .collect(Collectors.toMap(LeaveRequest::getId, Function.identity()));
+
+        for (UUID requestId : requestIds) {
+            LeaveRequest request = requestsById.get(requestId);
+            if (request == null) {
+                results.add(BulkApprovalResult.Item.failure(REQUEST_TYPE, requestId, "申請が見つかりません"));
+                continue;
+            }
+            try {
+                validateDepartmentAuthority(request, approver.getEmployeeId());
+                if (!request.isPending()) {
+                    throw new IllegalStateException("この申請は既に処理済みです");
+                }
+                if (approving) {
+                    validateLeaveApproval(request);
+                }
+                decidable.add(request);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                results.add(BulkApprovalResult.Item.failure(REQUEST_TYPE, requestId, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // A null approverId records a decision made by an auto-approval rule
+    private List<BulkApprovalResult.Item> decideInBulk(List<LeaveRequest> requests, String approverId,
+                                                       RequestStatus status, String rejectionReason) {
+        List<BulkApprovalResult.Item> results = new ArrayList<>(requests.size());
+        if (requests.isEmpty()) {
+            return results;
+        }
+
+        // Only rows still pending are updated, so a request decided since it was loaded is reported, not overwritten
+        Set<UUID> decided = new HashSet<>(leaveRequestRepository.decidePending(
+                requests.stream().map(LeaveRequest::getId).toList(),
+                status.name(), approverId, LocalDateTime.now(), rejectionReason));
+
+        List<LeaveRequest> decidedRequests = new ArrayList<>(decided.size());
+        for (LeaveRequest request : requests) {
+            if (decided.contains(request.getId())) {
+                decidedRequests.add(request);
+                publishDecision(request.getId(), request.getUser(), status,
+                        approverId != null ? approverId : AutoApprovalRule.SYSTEM_APPROVER);
+                results.add(BulkApprovalResult.Item.success(REQUEST_TYPE, request.getId(), status));
+            } else {
+                results.add(BulkApprovalResult.Item.failure(REQUEST_TYPE, request.getId(), "この申請は既に処理済みです"));
             }
         }
+
+        // One ledger update per user, year and type for the whole set
+        if (status == RequestStatus.APPROVED) {
+            leaveBalanceService.consumeAll(decidedRequests);
+        } else {
+            leaveBalanceService.releaseAll(decidedRequests);
+        }
+        logger.info("Bulk {} {} leave requests by {}", status, decided.size(),
+                approverId != null ? approverId : AutoApprovalRule.SYSTEM_APPROVER);
+        return results;
+    }
+
+    private void publishDecision(LeaveRequest request) {
+        publishDecision(request.getId(), request.getUser(), request.getStatus(), request.getApprovedBy());
+    }
+
+    // The applicant is notified by the outbox relay once the decision commits
+    private void publishDecision(UUID requestId, User user, RequestStatus status, String approverId) {
+        outboxService.publish(OutboxEventType.LEAVE_REQUEST_DECIDED, requestId, Map.of(
+                "userId", user.getId().toString(),
+                "employeeId", user.getEmployeeId(),
+                "status", status.name(),
+                "approverId", approverId));
     }
 
     private void validateApprovalAuthority(LeaveRequest leaveRequest, String approverEmployeeId) {
@@ -248,6 +385,15 @@ public class LeaveRequestService {
             throw new IllegalArgumentException("承認権限がありません");
         }
         
+        validateDepartmentAuthority(leaveRequest, approverEmployeeId);
+    }
+
+    private void validateDepartmentAuthority(LeaveRequest leaveRequest, String approverEmployeeId) {
+        // A request escalated past its department's manager is decided by the manager it was escalated to
+        if (approverEmployeeId.equals(leaveRequest.getEscalatedTo())) {
+            return;
+        }
+
         // Check if approver manages the department of the requester
         if (leaveRequest.getUser().getDepartment() == null) {
             throw new IllegalArgumentException("申請者の部署が設定されていません");
@@ -1,20 +1,37 @@
 package com.ams.service;
 
+import com.ams.config.AppProperties;
 import com.ams.entity.Alert;
 import com.ams.entity.TimeRecord;
 import com.ams.entity.User;
 import com.ams.entity.enums.AttendanceStatus;
 import com.ams.entity.enums.UserRole;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 @Transactional(readOnly = true)
@@ -22,6 +39,12 @@ public class ManagerDashboardService {
 
     private static final Logger logger = LoggerFactory.getLogger(ManagerDashboardService.class);
 
+    private static final String SECTION_TEAM_MEMBERS = "teamMembers";
+    private static final String SECTION_TODAY_ATTENDANCE = "todayAttendance";
+    private static final String SECTION_UNREAD_ALERTS = "unreadAlerts";
+    private static final String SECTION_APPROVAL_STATISTICS = "approvalStatistics";
+    private static final int RECENT_ALERT_LIMIT = 10;
+
     @Autowired
     private UserService userService;
 
@@ -34,35 +57,166 @@ public class ManagerDashboardService {
     @Autowired
     private ApprovalWorkflowService approvalWorkflowService;
 
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    @Qualifier("dashboardQueryExecutor")
+    private ExecutorService dashboardQueryExecutor;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Shared by all dashboards so their sub-queries together never take more than a quarter of the pool.
+    // A section abandoned at the deadline keeps its permit until its JDBC call returns, since cancelling
+    // the future does not stop the statement.
+    private Semaphore queryPermits;
+
+    @PostConstruct
+    void initQueryPermits() {
+        int permits = Math.max(1, appProperties.getDashboard().getMaxConcurrentQueries());
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                permits = Math.min(permits, Math.max(1, poolSize / 4));
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not determine connection pool size, using configured dashboard concurrency", e);
+        }
+        queryPermits = new Semaphore(permits, true);
+        logger.info("Dashboard query concurrency: {}", permits);
+    }
+
+    // Sub-queries run in their own read-only transactions so they can be spread across threads
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DashboardOverview getDashboardOverview(String managerId) {
-        // Get team members
-        List<User> teamMembers = userService.getTeamMembersByManagerId(managerId);
-        
-        // Get today's attendance
-        List<TimeRecord> todayAttendance = timeRecordService.getTeamRecords(managerId, LocalDate.now());
-        
-        // Get alerts
-        List<Alert> unreadAlerts = alertService.getUnreadAlertsForManager(managerId);
-        
-        // Get approval statistics
-        ApprovalWorkflowService.ApprovalStatistics approvalStats = 
-                approvalWorkflowService.getApprovalStatistics(managerId);
-        
-        // Calculate team statistics
-        TeamStatistics teamStats = calculateTeamStatistics(teamMembers, todayAttendance);
-        
+        long startTime = System.nanoTime();
+        DashboardOverview overview = appProperties.getDashboard().isConcurrent()
+                ? composeConcurrently(managerId)
+                : composeSequentially(managerId);
+        overview.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+
+        logger.debug("Generated dashboard overview for manager: {} in {} ms (partial: {})",
+                managerId, overview.getElapsedMillis(), overview.isPartial());
+        return overview;
+    }
+
+    private DashboardOverview composeSequentially(String managerId) {
+        Map<String, Long> timings = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now();
+
+        List<User> teamMembers = timed(SECTION_TEAM_MEMBERS, timings,
+                () -> userService.getTeamMembersWithDepartment(managerId));
+        List<TimeRecord> todayAttendance = timed(SECTION_TODAY_ATTENDANCE, timings,
+                () -> timeRecordService.getTeamRecords(managerId, today));
+        UnreadAlerts unreadAlerts = timed(SECTION_UNREAD_ALERTS, timings,
+                () -> loadUnreadAlerts(managerId));
+        ApprovalWorkflowService.ApprovalStatistics approvalStats = timed(SECTION_APPROVAL_STATISTICS, timings,
+                () -> approvalWorkflowService.getApprovalStatistics(managerId));
+
+        return buildOverview(teamMembers, todayAttendance, unreadAlerts, approvalStats, timings, List.of());
+    }
+
+    private DashboardOverview composeConcurrently(String managerId) {
+        Map<String, Long> timings = new ConcurrentHashMap<>();
+        LocalDate today = LocalDate.now();
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(appProperties.getDashboard().getTimeoutMillis());
+
+        Future<List<User>> teamMembersFuture = submitSection(SECTION_TEAM_MEMBERS, timings, deadline,
+                () -> userService.getTeamMembersWithDepartment(managerId));
+        Future<List<TimeRecord>> todayAttendanceFuture = submitSection(SECTION_TODAY_ATTENDANCE, timings, deadline,
+                () -> timeRecordService.getTeamRecords(managerId, today));
+        Future<UnreadAlerts> unreadAlertsFuture = submitSection(SECTION_UNREAD_ALERTS, timings, deadline,
+                () -> loadUnreadAlerts(managerId));
+        Future<ApprovalWorkflowService.ApprovalStatistics> approvalStatsFuture = submitSection(SECTION_APPROVAL_STATISTICS,
+                timings, deadline, () -> approvalWorkflowService.getApprovalStatistics(managerId));
+
+        // All sub-queries share one deadline, so the total wait is bounded by the slowest one
+        List<String> missingSections = new ArrayList<>();
+        List<User> teamMembers = awaitSection(SECTION_TEAM_MEMBERS, teamMembersFuture, deadline, missingSections);
+        List<TimeRecord> todayAttendance = awaitSection(SECTION_TODAY_ATTENDANCE, todayAttendanceFuture, deadline, missingSections);
+        UnreadAlerts unreadAlerts = awaitSection(SECTION_UNREAD_ALERTS, unreadAlertsFuture, deadline, missingSections);
+        ApprovalWorkflowService.ApprovalStatistics approvalStats =
+                awaitSection(SECTION_APPROVAL_STATISTICS, approvalStatsFuture, deadline, missingSections);
+
+        if (!missingSections.isEmpty()) {
+            logger.warn("Dashboard overview for manager {} is partial, missing sections: {}", managerId, missingSections);
+        }
+
+        return buildOverview(teamMembers, todayAttendance, unreadAlerts, approvalStats,
+                new LinkedHashMap<>(timings), missingSections);
+    }
+
+    // The badge count comes from the cached counters; only the newest few alerts are loaded
+    private UnreadAlerts loadUnreadAlerts(String managerId) {
+        return new UnreadAlerts(alertService.countUnreadAlertsForManager(managerId),
+                alertService.getUnreadAlertsPageForManager(managerId, null, RECENT_ALERT_LIMIT).getItems());
+    }
+
+    // Waits for a query permit no longer than the dashboard deadline; a section that gets none is reported missing
+    private <T> Future<T> submitSection(String section, Map<String, Long> timings, long deadline, Supplier<T> query) {
+        return dashboardQueryExecutor.submit(() -> {
+            if (!queryPermits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException("No dashboard query permit before the deadline");
+            }
+            try {
+                return timed(section, timings, query);
+            } finally {
+                queryPermits.release();
+            }
+        });
+    }
+
+    private <T> T timed(String section, Map<String, Long> timings, Supplier<T> query) {
+        long startTime = System.nanoTime();
+        try {
+            return query.get();
+        } finally {
+            timings.put(section, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+    }
+
+    private <T> T awaitSection(String section, Future<T> future, long deadline, List<String> missingSections) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Dashboard section {} did not finish before the deadline", section);
+        } catch (ExecutionException e) {
+            logger.error("Dashboard section {} failed", section, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        }
+        missingSections.add(section);
+        return null;
+    }
+
+    private DashboardOverview buildOverview(List<User> teamMembers,
+                                            List<TimeRecord> todayAttendance,
+                                            UnreadAlerts unreadAlerts,
+                                            ApprovalWorkflowService.ApprovalStatistics approvalStats,
+                                            Map<String, Long> timings,
+                                            List<String> missingSections) {
         DashboardOverview overview = new DashboardOverview();
-        overview.setTeamSize(teamMembers.size());
-        overview.setTodayPresent(teamStats.getPresentToday());
-        overview.setTodayLate(teamStats.getLateToday());
-        overview.setTodayAbsent(teamStats.getAbsentToday());
-        overview.setUnreadAlerts(unreadAlerts.size());
-        overview.setPendingApprovals(approvalStats.getTotalPendingRequests());
-        overview.setTeamMembers(teamMembers);
-        overview.setTodayAttendance(todayAttendance);
-        overview.setRecentAlerts(unreadAlerts.stream().limit(10).toList());
-        
-        logger.debug("Generated dashboard overview for manager: {}", managerId);
+
+        if (teamMembers != null && todayAttendance != null) {
+            TeamStatistics teamStats = calculateTeamStatistics(teamMembers, todayAttendance);
+            overview.setTodayPresent(teamStats.getPresentToday());
+            overview.setTodayLate(teamStats.getLateToday());
+            overview.setTodayAbsent(teamStats.getAbsentToday());
+        }
+
+        overview.setTeamSize(teamMembers != null ? teamMembers.size() : 0);
+        overview.setTeamMembers(teamMembers != null ? teamMembers : List.of());
+        overview.setTodayAttendance(todayAttendance != null ? todayAttendance : List.of());
+        overview.setUnreadAlerts(unreadAlerts != null ? (int) unreadAlerts.count : 0);
+        overview.setRecentAlerts(unreadAlerts != null ? unreadAlerts.recent : List.of());
+        overview.setPendingApprovals(approvalStats != null ? approvalStats.getTotalPendingRequests() : 0);
+        overview.setPartial(!missingSections.isEmpty());
+        overview.setMissingSections(missingSections);
+        overview.setSectionTimings(timings);
         return overview;
     }
 
@@ -214,6 +368,16 @@ public class ManagerDashboardService {
         return metric;
     }
 
+    private static class UnreadAlerts {
+        private final long count;
+        private final List<Alert> recent;
+
+        UnreadAlerts(long count, List<Alert> recent) {
+            this.count = count;
+            this.recent = recent;
+        }
+    }
+
     // Inner classes for response DTOs
     public static class DashboardOverview {
         private int teamSize;
@@ -225,6 +389,10 @@ public class ManagerDashboardService {
         private List<User> teamMembers;
         private List<TimeRecord> todayAttendance;
         private List<Alert> recentAlerts;
+        private boolean partial;
+        private List<String> missingSections;
+        private Map<String, Long> sectionTimings;
+        private long elapsedMillis;
 
         // Getters and setters
         public int getTeamSize() { return teamSize; }
@@ -245,6 +413,14 @@ public class ManagerDashboardService {
         public void setTodayAttendance(List<TimeRecord> todayAttendance) { this.todayAttendance = todayAttendance; }
         public List<Alert> getRecentAlerts() { return recentAlerts; }
         public void setRecentAlerts(List<Alert> recentAlerts) { this.recentAlerts = recentAlerts; }
+        public boolean isPartial() { return partial; }
+        public void setPartial(boolean partial) { this.partial = partial; }
+        public List<String> getMissingSections() { return missingSections; }
+        public void setMissingSections(List<String> missingSections) { this.missingSections = missingSections; }
+        public Map<String, Long> getSectionTimings() { return sectionTimings; }
+        public void setSectionTimings(Map<String, Long> sectionTimings) { this.sectionTimings = sectionTimings; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
     }
 
     public static class TeamStatistics {
@@ -0,0 +1,37 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Alerts on the day a user's monthly overtime first crosses the 36協定 warning level or the monthly limit
+@Component
+public class MonthlyOvertimeRule implements AttendanceRule {
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Override
+    public void evaluate(AttendanceRuleEngine.RuleContext context) {
+        if (!context.isMonthlyTotalsKnown()) {
+            return;
+        }
+
+        AppProperties.Attendance attendance = appProperties.getAttendance();
+        int before = context.getMonthlyOvertimeBefore();
+        int after = context.getMonthlyOvertimeAfter();
+        int limitMinutes = attendance.getMonthlyOvertimeLimitHours() * 60;
+        int warningMinutes = attendance.getMonthlyOvertimeWarningHours() * 60;
+
+        if (before < limitMinutes && after >= limitMinutes) {
+            alertService.createMonthlyOvertimeAlert(context.getUser(), context.getRecordDate(),
+                    after / 60.0, attendance.getMonthlyOvertimeLimitHours(), true);
+        } else if (before < warningMinutes && after >= warningMinutes) {
+            alertService.createMonthlyOvertimeAlert(context.getUser(), context.getRecordDate(),
+                    after / 60.0, attendance.getMonthlyOvertimeLimitHours(), false);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ams.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and repeats it a bounded number of times when a concurrent
+ * update makes the version check fail. Only for work that re-reads and re-validates what it changes,
+ * like an approval that checks the request is still pending: a retried blind overwrite would bring back
+ * the lost update the version check exists to prevent.
+ */
+@Component
+public class OptimisticLockRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticLockRetry.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_MILLIS = 25;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void initTransaction() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        // Joining an outer transaction would retry against the same stale persistence context
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Optimistic lock retry for " + operation + " must start its own transaction");
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    meterRegistry.counter("ams.optimistic_lock.conflicts", "operation", operation).increment();
+                    logger.warn("{} gave up after {} optimistic lock conflicts", operation, attempt);
+                    throw e;
+                }
+                meterRegistry.counter("ams.optimistic_lock.retries", "operation", operation).increment();
+                logger.debug("{} hit an optimistic lock conflict, retrying (attempt {})", operation, attempt);
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable work) {
+        execute(operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Jittered so two writers that collided do not collide again on the retry
+    private void backOff(int attempt, OptimisticLockingFailureException conflict) {
+        try {
+            Thread.sleep(BACKOFF_MILLIS * attempt + ThreadLocalRandom.current().nextLong(BACKOFF_MILLIS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ams.service;
+
+import com.ams.entity.OutboxEvent;
+import com.ams.entity.enums.OutboxEventType;
+
+import java.util.Set;
+
+/**
+ * Delivers one kind of outbox event. Handlers run in their own transaction and may see the same event
+ * more than once (after a failed attempt or an expired lease), so they must be idempotent.
+ */
+public interface OutboxEventHandler {
+
+    Set<OutboxEventType> getEventTypes();
+
+    void handle(OutboxEvent event) throws Exception;
+}
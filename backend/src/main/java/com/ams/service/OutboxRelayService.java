@@ -0,0 +1,164 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import com.ams.entity.OutboxEvent;
+import com.ams.entity.enums.OutboxEventType;
+import com.ams.entity.enums.OutboxStatus;
+import com.ams.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers outbox events in batches. Each batch is leased in one short transaction, then every event is
+ * handled in its own transaction so one failure neither blocks nor rolls back the others. Failed events
+ * are retried with exponential backoff until the attempt limit, after which they are left as FAILED.
+ */
+@Service
+public class OutboxRelayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelayService.class);
+
+    private static final long MAX_RETRY_DELAY_SECONDS = 3600;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private List<OutboxEventHandler> handlers;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<OutboxEventType, OutboxEventHandler> handlersByType = new EnumMap<>(OutboxEventType.class);
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void initHandlers() {
+        transaction = new TransactionTemplate(transactionManager);
+        for (OutboxEventHandler handler : handlers) {
+            for (OutboxEventType type : handler.getEventTypes()) {
+                OutboxEventHandler previous = handlersByType.put(type, handler);
+                if (previous != null) {
+                    throw new IllegalStateException("Multiple outbox handlers for " + type);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-millis:1000}")
+    public void relay() {
+        if (!appProperties.getOutbox().isRelayEnabled()) {
+            return;
+        }
+
+        // Keep draining while batches come back full, so a backlog is not limited to one batch per poll, but
+        // only up to a cap so a large backlog does not hold a scheduler thread for the other jobs
+        int batchSize = Math.max(1, appProperties.getOutbox().getBatchSize());
+        int maxBatches = Math.max(1, appProperties.getOutbox().getMaxBatchesPerPoll());
+        int batches = 0;
+        int claimed;
+        do {
+            claimed = relayBatch(batchSize);
+            batches++;
+        } while (claimed == batchSize && batches < maxBatches);
+    }
+
+    // Returns the number of events claimed
+    public int relayBatch(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(appProperties.getOutbox().getLeaseSeconds());
+        List<OutboxEvent> events = transaction.execute(status ->
+                outboxEventRepository.claimDueEvents(now, leaseUntil, batchSize));
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        int delivered = 0;
+        for (OutboxEvent event : events) {
+            if (deliver(event)) {
+                delivered++;
+            }
+        }
+        logger.debug("Outbox relay delivered {} of {} events", delivered, events.size());
+        return events.size();
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        OutboxEventHandler handler = handlersByType.get(event.getEventType());
+        try {
+            if (handler == null) {
+                throw new IllegalStateException("No outbox handler for " + event.getEventType());
+            }
+            transaction.executeWithoutResult(status -> {
+                try {
+                    handler.handle(event);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+                outboxEventRepository.markProcessed(event.getId(), OutboxStatus.PROCESSED, LocalDateTime.now());
+            });
+            return true;
+        } catch (RuntimeException e) {
+            recordFailure(event, e);
+            return false;
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException error) {
+        AppProperties.Outbox outbox = appProperties.getOutbox();
+        int attempts = event.getAttempts();
+        boolean exhausted = attempts >= outbox.getMaxAttempts();
+
+        long delaySeconds = Math.min(MAX_RETRY_DELAY_SECONDS,
+                outbox.getRetryBaseSeconds() << Math.min(attempts - 1, 20));
+        String message = String.valueOf(error.getMessage());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        String lastError = message;
+
+        try {
+            transaction.executeWithoutResult(status -> outboxEventRepository.markAttemptFailed(event.getId(),
+                    exhausted ? OutboxStatus.FAILED : OutboxStatus.PENDING,
+                    LocalDateTime.now().plusSeconds(delaySeconds),
+                    lastError));
+        } catch (RuntimeException e) {
+            // The lease still expires, so the event is retried even if the failure could not be recorded
+            logger.error("Failed to record outbox failure for event {}", event.getId(), e);
+        }
+
+        if (exhausted) {
+            logger.error("Outbox event {} ({}) failed after {} attempts", event.getId(), event.getEventType(), attempts, error);
+        } else {
+            logger.warn("Outbox event {} ({}) failed on attempt {}, retrying in {}s: {}",
+                    event.getId(), event.getEventType(), attempts, delaySeconds, message);
+        }
+    }
+
+    // Scheduled task to remove delivered events (runs daily at 3:30 AM)
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void cleanupProcessedEvents() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(appProperties.getOutbox().getRetentionDays());
+        Integer deleted = transaction.execute(status ->
+                outboxEventRepository.deleteProcessedBefore(OutboxStatus.PROCESSED, cutoff));
+        logger.info("Cleaned up {} outbox events processed before {}", deleted, cutoff.toLocalDate());
+    }
+}
@@ -0,0 +1,46 @@
+package com.ams.service;
+
+import com.ams.entity.OutboxEvent;
+import com.ams.entity.enums.OutboxEventType;
+import com.ams.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records side effects in the outbox. Publishing joins the caller's transaction, so an event exists
+ * exactly when the change that caused it was committed; {@link OutboxRelayService} delivers it afterwards.
+ */
+@Service
+public class OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent publish(OutboxEventType type, UUID aggregateId, Map<String, ?> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload for " + type + " is not serializable", e);
+        }
+
+        OutboxEvent event = outboxEventRepository.save(new OutboxEvent(type, aggregateId, json));
+        logger.debug("Published outbox event {} for {}", type, aggregateId);
+        return event;
+    }
+}
@@ -0,0 +1,260 @@
+package com.ams.service;
+
+import com.ams.entity.LeaveRequest;
+import com.ams.entity.TimeModificationRequest;
+import com.ams.entity.TimeRecord;
+import com.ams.entity.User;
+import com.ams.util.ParquetStreamOutputFile;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Parquet counterpart of {@link CsvExportService}. Reads through the same service queries and
+ * writes typed columns; row groups are flushed to the output as they fill up.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ParquetExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParquetExportService.class);
+
+    // Row groups are buffered in memory until full, so this bounds memory per export
+    private static final long ROW_GROUP_SIZE = 8L * 1024 * 1024;
+
+    private static final LogicalTypeAnnotation STRING = LogicalTypeAnnotation.stringType();
+    private static final LogicalTypeAnnotation ENUM = LogicalTypeAnnotation.enumType();
+    private static final LogicalTypeAnnotation DATE = LogicalTypeAnnotation.dateType();
+    // Local wall-clock timestamps, as stored in the database
+    private static final LogicalTypeAnnotation TIMESTAMP =
+            LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MILLIS);
+
+    private static final MessageType ATTENDANCE_SCHEMA = Types.buildMessage()
+            .required(PrimitiveTypeName.BINARY).as(STRING).named("employee_id")
+            .required(PrimitiveTypeName.BINARY).as(STRING).named("name")
+            .optional(PrimitiveTypeName.BINARY).as(STRING).named("department")
+            .required(PrimitiveTypeName.INT32).as(DATE).named("record_date")
+            .optional(PrimitiveTypeName.INT64).as(TIMESTAMP).named("clock_in")
+            .optional(PrimitiveTypeName.INT64).as(TIMESTAMP).named("clock_out")
+            .optional(PrimitiveTypeName.INT32).named("break_minutes")
+            .optional(PrimitiveTypeName.INT32).as(LogicalTypeAnnotation.decimalType(2, 4)).named("total_hours")
+            .optional(PrimitiveTypeName.BINARY).as(ENUM).named("status")
+            .optional(PrimitiveTypeName.BINARY).as(STRING).named("notes")
+            .named("attendance_record");
+
+    private static final MessageType LEAVE_REQUEST_SCHEMA = Types.buildMessage()
+            .required(PrimitiveTypeName.BINARY).as(STRING).named("request_id")
+            .required(PrimitiveTypeName.BINARY).as(STRING).named("employee_id")
+            .required(PrimitiveTypeName.BINARY).as(STRING).named("name")
+            .optional(PrimitiveTypeName.INT64).as(TIMESTAMP).named("created_at")
+            .required(PrimitiveTypeName.INT32).as(DATE).named("start_date")
+            .required(PrimitiveTypeName.INT32).as(DATE).named("end_date")
+            .required(PrimitiveTypeName.BINARY).as(ENUM).named("leave_type")
+            .optional(PrimitiveTypeName.BINARY).as(STRING).named("reason")
+            .required(PrimitiveTypeName.BINARY).as(ENUM).named("status")
+            .optional(PrimitiveTypeName.BINARY).as(STRING).named("approved_by")
+            .optional(PrimitiveTypeName.INT64).as(TIMESTAMP).named("approved_at")
+            .optional(PrimitiveTypeName.BINARY).as(STRING).named("rejection_reason")
+            .named("leave_request");
+
+    private static final MessageType TIME_MODIFICATION_SCHEMA = Types.buildMessage()
+            .required(PrimitiveTypeName.BINARY).as(STRING).named("request_id")
+            .required(PrimitiveTypeName.BINARY).as(STRING).named("employee_id")
+            .required(PrimitiveTypeName.BINARY).as(STRING).named("name")
+            .required(PrimitiveTypeName.INT32).as(DATE).named("request_date")
+            .optional(PrimitiveTypeName.INT64).as(TIMESTAMP).named("original_clock_in")
+            .optional(PrimitiveTypeName.INT64).as(TIMESTAMP).named("original_clock_out")
+            .optional(PrimitiveTypeName.INT64).as(TIMESTAMP).named("requested_clock_in")
+            .optional(PrimitiveTypeName.INT64).as(TIMESTAMP).named("requested_clock_out")
+            .optional(PrimitiveTypeName.BINARY).as(STRING).named("reason")
+            .required(PrimitiveTypeName.BINARY).as(ENUM).named("status")
+            .optional(PrimitiveTypeName.INT64).as(TIMESTAMP).named("created_at")
+            .optional(PrimitiveTypeName.BINARY).as(STRING).named("approved_by")
+            .optional(PrimitiveTypeName.INT64).as(TIMESTAMP).named("approved_at")
+            .optional(PrimitiveTypeName.BINARY).as(STRING).named("rejection_reason")
+            .named("time_modification_request");
+
+    @Autowired
+    private TimeRecordService timeRecordService;
+
+    @Autowired
+    private LeaveRequestService leaveRequestService;
+
+    @Autowired
+    private TimeModificationRequestService timeModificationRequestService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void exportAttendanceRecords(OutputStream out, LocalDate startDate, LocalDate endDate, String managerId)
+            throws IOException {
+        logger.info("Starting attendance records Parquet export for manager: {} from {} to {}",
+                   managerId, startDate, endDate);
+
+        SimpleGroupFactory groups = new SimpleGroupFactory(ATTENDANCE_SCHEMA);
+        try (ParquetWriter<Group> writer = openWriter(out, ATTENDANCE_SCHEMA);
+             Stream<TimeRecord> recordStream = timeRecordService.getTeamRecordsStream(managerId, startDate, endDate)) {
+            recordStream.forEach(record -> {
+                write(writer, toAttendanceGroup(groups, record));
+                entityManager.detach(record);
+            });
+        }
+
+        logger.info("Completed attendance records Parquet export");
+    }
+
+    public void exportLeaveRequests(OutputStream out, LocalDate startDate, LocalDate endDate, String managerId)
+            throws IOException {
+        logger.info("Starting leave requests Parquet export for manager: {} from {} to {}",
+                   managerId, startDate, endDate);
+
+        SimpleGroupFactory groups = new SimpleGroupFactory(LEAVE_REQUEST_SCHEMA);
+        List<LeaveRequest> leaveRequests = leaveRequestService.getLeaveRequestsForManager(managerId, startDate, endDate);
+        try (ParquetWriter<Group> writer = openWriter(out, LEAVE_REQUEST_SCHEMA)) {
+            for (LeaveRequest request : leaveRequests) {
+                writer.write(toLeaveRequestGroup(groups, request));
+            }
+        }
+
+        logger.info("Completed leave requests Parquet export");
+    }
+
+    public void exportTimeModificationRequests(OutputStream out, LocalDate startDate, LocalDate endDate, String managerId)
+            throws IOException {
+        logger.info("Starting time modification requests Parquet export for manager: {} from {} to {}",
+                   managerId, startDate, endDate);
+
+        SimpleGroupFactory groups = new SimpleGroupFactory(TIME_MODIFICATION_SCHEMA);
+        try (ParquetWriter<Group> writer = openWriter(out, TIME_MODIFICATION_SCHEMA);
+             Stream<TimeModificationRequest> requestStream = timeModificationRequestService
+                     .getTimeModificationRequestsStreamForManager(managerId, startDate, endDate)) {
+            requestStream.forEach(request -> {
+                write(writer, toTimeModificationGroup(groups, request));
+                entityManager.detach(request);
+            });
+        }
+
+        logger.info("Completed time modification requests Parquet export");
+    }
+
+    private ParquetWriter<Group> openWriter(OutputStream out, MessageType schema) throws IOException {
+        return ExampleParquetWriter.builder(new ParquetStreamOutputFile(out))
+                .withType(schema)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withCompressionCodec(CompressionCodecName.SNAPPY)
+                .withRowGroupSize(ROW_GROUP_SIZE)
+                .withDictionaryEncoding(true)
+                .build();
+    }
+
+    private void write(ParquetWriter<Group> writer, Group group) {
+        try {
+            writer.write(group);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Parquet書き込みエラー", e);
+        }
+    }
+
+    private Group toAttendanceGroup(SimpleGroupFactory groups, TimeRecord record) {
+        User user = record.getUser();
+        Group group = groups.newGroup()
+                .append("employee_id", user.getEmployeeId())
+                .append("name", user.getName());
+        appendString(group, "department", user.getDepartment() != null ? user.getDepartment().getName() : null);
+        group.append("record_date", toDays(record.getRecordDate()));
+        appendTimestamp(group, "clock_in", record.getClockIn());
+        appendTimestamp(group, "clock_out", record.getClockOut());
+        if (record.getBreakStart() != null && record.getBreakEnd() != null) {
+            group.append("break_minutes", (int) Duration.between(record.getBreakStart(), record.getBreakEnd()).toMinutes());
+        }
+        if (record.getTotalHours() != null) {
+            group.append("total_hours", toUnscaled(record.getTotalHours(), 2));
+        }
+        appendString(group, "status", record.getStatus() != null ? record.getStatus().name() : null);
+        appendString(group, "notes", record.getNotes());
+        return group;
+    }
+
+    private Group toLeaveRequestGroup(SimpleGroupFactory groups, LeaveRequest request) {
+        Group group = groups.newGroup()
+                .append("request_id", request.getId().toString())
+                .append("employee_id", request.getUser().getEmployeeId())
+                .append("name", request.getUser().getName());
+        appendTimestamp(group, "created_at", request.getCreatedAt());
+        group.append("start_date", toDays(request.getStartDate()))
+             .append("end_date", toDays(request.getEndDate()))
+             .append("leave_type", request.getType().name());
+        appendString(group, "reason", request.getReason());
+        group.append("status", request.getStatus().name());
+        appendString(group, "approved_by", request.getApprovedBy());
+        appendTimestamp(group, "approved_at", request.getApprovedAt());
+        appendString(group, "rejection_reason", request.getRejectionReason());
+        return group;
+    }
+
+    private Group toTimeModificationGroup(SimpleGroupFactory groups, TimeModificationRequest request) {
+        Group group = groups.newGroup()
+                .append("request_id", request.getId().toString())
+                .append("employee_id", request.getUser().getEmployeeId())
+                .append("name", request.getUser().getName())
+                .append("request_date", toDays(request.getRequestDate()));
+        appendTimestamp(group, "original_clock_in", request.getOriginalClockIn());
+        appendTimestamp(group, "original_clock_out", request.getOriginalClockOut());
+        appendTimestamp(group, "requested_clock_in", request.getRequestedClockIn());
+        appendTimestamp(group, "requested_clock_out", request.getRequestedClockOut());
+        appendString(group, "reason", request.getReason());
+        group.append("status", request.getStatus().name());
+        appendTimestamp(group, "created_at", request.getCreatedAt());
+        appendString(group, "approved_by", request.getApprovedBy());
+        appendTimestamp(group, "approved_at", request.getApprovedAt());
+        appendString(group, "rejection_reason", request.getRejectionReason());
+        return group;
+    }
+
+    // Optional columns are left unset when the value is null
+    private void appendString(Group group, String field, String value) {
+        if (value != null) {
+            group.append(field, value);
+        }
+    }
+
+    private void appendTimestamp(Group group, String field, LocalDateTime value) {
+        if (value != null) {
+            group.append(field, value.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+    }
+
+    private int toDays(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    private int toUnscaled(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+    }
+}
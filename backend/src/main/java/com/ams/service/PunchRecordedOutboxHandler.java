@@ -0,0 +1,26 @@
+package com.ams.service;
+
+import com.ams.entity.OutboxEvent;
+import com.ams.entity.enums.OutboxEventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+// Runs the attendance rules against the current state of the punched time record
+@Component
+public class PunchRecordedOutboxHandler implements OutboxEventHandler {
+
+    @Autowired
+    private AttendanceRuleEngine attendanceRuleEngine;
+
+    @Override
+    public Set<OutboxEventType> getEventTypes() {
+        return Set.of(OutboxEventType.PUNCH_RECORDED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        attendanceRuleEngine.evaluate(event.getAggregateId());
+    }
+}
@@ -0,0 +1,39 @@
+package com.ams.service;
+
+import com.ams.entity.OutboxEvent;
+import com.ams.entity.enums.OutboxEventType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+// Notifies the applicant that a request was approved or rejected. There is no notification channel yet,
+// so delivery is a log entry; a mail or push sender plugs in here without touching the approval services.
+@Component
+public class RequestDecisionOutboxHandler implements OutboxEventHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestDecisionOutboxHandler.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public Set<OutboxEventType> getEventTypes() {
+        return Set.of(OutboxEventType.LEAVE_REQUEST_DECIDED, OutboxEventType.TIME_MODIFICATION_DECIDED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        logger.info("Notify {}: {} {} was {} by {}",
+                payload.path("employeeId").asText(),
+                event.getEventType(),
+                event.getAggregateId(),
+                payload.path("status").asText(),
+                payload.path("approverId").asText());
+    }
+}
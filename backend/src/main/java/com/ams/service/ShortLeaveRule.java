@@ -0,0 +1,39 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import com.ams.entity.LeaveRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Approves short future leave of the configured types, e.g. a single paid day off
+@Component
+public class ShortLeaveRule implements AutoApprovalRule {
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Override
+    public String getName() {
+        return "short-leave";
+    }
+
+    @Override
+    public String matchLeave(LeaveRequest request) {
+        AppProperties.AutoApproval settings = appProperties.getAutoApproval();
+        if (settings.getLeaveMaxDays() <= 0 || !settings.getLeaveTypes().contains(request.getType())) {
+            return null;
+        }
+        // Same condition as a manual approval: leave that has already started is left to the manager
+        if (request.getStartDate().isBefore(LocalDate.now())) {
+            return null;
+        }
+
+        long days = request.getDurationDays();
+        if (days > settings.getLeaveMaxDays()) {
+            return null;
+        }
+        return request.getType().getDisplayName() + " " + days + "日（上限" + settings.getLeaveMaxDays() + "日）";
+    }
+}
@@ -0,0 +1,55 @@
+package com.ams.service;
+
+import com.ams.config.AppProperties;
+import com.ams.entity.TimeModificationRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Approves time corrections that move recorded punches by at most the configured number of minutes.
+// A request adding a punch that was never recorded is a missing punch, not a correction, and is left to the manager.
+@Component
+public class SmallTimeCorrectionRule implements AutoApprovalRule {
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Override
+    public String getName() {
+        return "small-time-correction";
+    }
+
+    @Override
+    public String matchTimeModification(TimeModificationRequest request) {
+        int maxMinutes = appProperties.getAutoApproval().getTimeCorrectionMaxMinutes();
+        if (maxMinutes <= 0 || (!request.hasClockInModification() && !request.hasClockOutModification())) {
+            return null;
+        }
+
+        Long clockInShift = shiftMinutes(request.getOriginalClockIn(), request.getRequestedClockIn());
+        Long clockOutShift = shiftMinutes(request.getOriginalClockOut(), request.getRequestedClockOut());
+        if ((request.hasClockInModification() && (clockInShift == null || Math.abs(clockInShift) > maxMinutes))
+                || (request.hasClockOutModification() && (clockOutShift == null || Math.abs(clockOutShift) > maxMinutes))) {
+            return null;
+        }
+
+        return "出勤 " + formatShift(clockInShift) + ", 退勤 " + formatShift(clockOutShift) + "（上限" + maxMinutes + "分）";
+    }
+
+    // Null when there is no recorded punch to correct
+    private static Long shiftMinutes(LocalDateTime original, LocalDateTime requested) {
+        if (requested == null || original == null) {
+            return null;
+        }
+        return Duration.between(original, requested).toMinutes();
+    }
+
+    private static String formatShift(Long minutes) {
+        if (minutes == null) {
+            return "変更なし";
+        }
+        return (minutes >= 0 ? "+" : "") + minutes + "分";
+    }
+}
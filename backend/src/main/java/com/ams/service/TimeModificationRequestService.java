@@ -1,22 +1,36 @@
 package com.ams.service;
 
+import com.ams.dto.CursorPage;
+import com.ams.dto.request.BulkApprovalResult;
 import com.ams.entity.TimeModificationRequest;
 import com.ams.entity.TimeRecord;
 import com.ams.entity.User;
+import com.ams.entity.enums.OutboxEventType;
 import com.ams.entity.enums.RequestStatus;
 import com.ams.exception.ResourceNotFoundException;
 import com.ams.repository.TimeModificationRequestRepository;
+import com.ams.util.KeysetCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -24,12 +38,20 @@ public class TimeModificationRequestService {
 
     private static final Logger logger = LoggerFactory.getLogger(TimeModificationRequestService.class);
 
+    private static final String REQUEST_TYPE = "time_modification";
+
     @Autowired
     private TimeModificationRequestRepository timeModificationRequestRepository;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private EscalationService escalationService;
+
     @Autowired
     private TimeRecordService timeRecordService;
 
@@ -51,6 +73,7 @@ public class TimeModificationRequestService {
         checkForActiveRequests(user.getId(), requestDate);
         
         TimeModificationRequest request = new TimeModificationRequest(user, requestDate, reason);
+        request.setEscalationDueAt(escalationService.firstDueAt());
         
         // Get existing time record for the date to set original values
         Optional<TimeRecord> existingRecord = timeRecordService.getTodayRecord(user.getId(), requestDate);
@@ -87,6 +110,23 @@ public class TimeModificationRequestService {
         return timeModificationRequestRepository.findByUserIdAndStatusOrderByCreatedAtDesc(user.getId(), status);
     }
 
+    // A null status lists requests in every status
+    @Transactional(readOnly = true)
+    public CursorPage<TimeModificationRequest> getTimeModificationRequestsPageByUser(String employeeId, RequestStatus status,
+                                                                                     String cursor, Integer limit) {
+        User user = userService.getUserByEmployeeId(employeeId);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.resolveLimit(limit);
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+
+        List<TimeModificationRequest> requests = status != null
+                ? timeModificationRequestRepository.findPageByUserIdAndStatus(user.getId(), status,
+                        position.getCreatedAt(), position.getId(), fetch)
+                : timeModificationRequestRepository.findPageByUserId(user.getId(),
+                        position.getCreatedAt(), position.getId(), fetch);
+        return CursorPage.of(requests, pageSize);
+    }
+
     @Transactional(readOnly = true)
     public List<TimeModificationRequest> getPendingTimeModificationRequests() {
         return timeModificationRequestRepository.findByStatusOrderByCreatedAtDesc(RequestStatus.PENDING);
@@ -97,6 +137,14 @@ public class TimeModificationRequestService {
         return timeModificationRequestRepository.findByManagerIdOrderByCreatedAtDesc(managerId);
     }
 
+    // Must be consumed inside the caller's transaction
+    @Transactional(readOnly = true)
+    public Stream<TimeModificationRequest> getTimeModificationRequestsStreamForManager(String managerId,
+                                                                                       LocalDate startDate,
+                                                                                       LocalDate endDate) {
+        return timeModificationRequestRepository.streamByManagerIdAndRequestDateRange(managerId, startDate, endDate);
+    }
+
     @Transactional(readOnly = true)
     public List<TimeModificationRequest> getPendingTimeModificationRequestsForManager(String managerId) {
         return timeModificationRequestRepository.findByManagerIdAndStatusOrderByCreatedAtDesc(managerId, RequestStatus.PENDING);
@@ -113,11 +161,13 @@ public class TimeModificationRequestService {
             throw new IllegalStateException("この申請は既に処理済みです");
         }
         
-        // Apply the time modifications
-        applyTimeModifications(request);
+        // Apply the time modifications; a concurrent punch on the same record fails the version check
+        // and the whole approval is rolled back rather than applied on top of a stale record
+        timeRecordService.applyTimeModifications(List.of(request));
         
         request.approve(approverEmployeeId);
         TimeModificationRequest savedRequest = timeModificationRequestRepository.save(request);
+        publishDecision(savedRequest);
         
         logger.info("Approved time modification request {} by {}", requestId, approverEmployeeId);
         return savedRequest;
@@ -140,11 +190,52 @@ public class TimeModificationRequestService {
         
         request.reject(approverEmployeeId, rejectionReason);
         TimeModificationRequest savedRequest = timeModificationRequestRepository.save(request);
+        publishDecision(savedRequest);
         
         logger.info("Rejected time modification request {} by {} with reason: {}", requestId, approverEmployeeId, rejectionReason);
         return savedRequest;
     }
 
+    // Approves every listed request that passes the checks of approveTimeModificationRequest with a single
+    // UPDATE and applies their times in one batch; requests failing a check stay pending and are reported
+    public List<BulkApprovalResult.Item> approveTimeModificationRequests(Collection<UUID> requestIds, User approver) {
+        List<TimeModificationRequest> approvable = new ArrayList<>();
+        List<BulkApprovalResult.Item> results = checkBulkDecision(requestIds, approver, approvable);
+        List<TimeModificationRequest> approved = new ArrayList<>();
+        results.addAll(decideInBulk(approvable, approver.getEmployeeId(), RequestStatus.APPROVED, null, approved));
+        timeRecordService.applyTimeModifications(approved);
+        return results;
+    }
+
+    public List<BulkApprovalResult.Item> rejectTimeModificationRequests(Map<UUID, String> rejectionReasons, User approver) {
+        List<TimeModificationRequest> rejectable = new ArrayList<>();
+        List<BulkApprovalResult.Item> results = checkBulkDecision(rejectionReasons.keySet(), approver, rejectable);
+
+        // Requests sharing a rejection reason are rejected by one statement
+        Map<String, List<TimeModificationRequest>> byReason = new LinkedHashMap<>();
+        for (TimeModificationRequest request : rejectable) {
+            String reason = rejectionReasons.get(request.getId());
+            if (reason == null || reason.trim().isEmpty()) {
+                results.add(BulkApprovalResult.Item.failure(REQUEST_TYPE, request.getId(), "却下理由は必須です"));
+            } else {
+                byReason.computeIfAbsent(reason, r -> new ArrayList<>()).add(request);
+            }
+        }
+        byReason.forEach((reason, requests) ->
+                results.addAll(decideInBulk(requests, approver.getEmployeeId(), RequestStatus.REJECTED, reason,
+                        new ArrayList<>())));
+        return results;
+    }
+
+    // Approves requests matched by an auto-approval rule and applies their times; approved_by stays empty and
+    // the rule is named in the approval audit log instead. Returns the requests actually approved.
+    public List<TimeModificationRequest> autoApproveTimeModificationRequests(List<TimeModificationRequest> requests) {
+        List<TimeModificationRequest> approved = new ArrayList<>();
+        decideInBulk(requests, null, RequestStatus.APPROVED, null, approved);
+        timeRecordService.applyTimeModifications(approved);
+        return approved;
+    }
+
     public TimeModificationRequest updateTimeModificationRequest(UUID requestId, String employeeId,
                                                                TimeModificationRequest updates) {
         TimeModificationRequest existingRequest = getTimeModificationRequestById(requestId);
@@ -257,6 +348,83 @@ public class TimeModificationRequestService {
         }
     }
 
+    // Loads the targets in one query and checks each in memory; the ones that pass are added to decidable
+    private List<BulkApprovalResult.Item> checkBulkDecision(Collection<UUID> requestIds, User approver,
+                                                            List<TimeModificationRequest> decidable) {
+        if (!approver.isManager()) {
+            throw new IllegalArgumentException("承認権限がありません");
+        }
+
+        List<BulkApprovalResult.Item> results = new ArrayList<>();
+        if (requestIds.isEmpty()) {
+            return results;
+        }
+        Map<UUID, TimeModificationRequest> requestsById = timeModificationRequestRepository.findAllWithUserByIdIn(requestIds)
+                .stream()
+                .collect(Collectors.toMap(TimeModificationRequest::getId, Function.identity()));
+
+        for (UUID requestId : requestIds) {
+            TimeModificationRequest request = requestsById.get(requestId);
+            if (request == null) {
+                results.add(BulkApprovalResult.Item.failure(REQUEST_TYPE, requestId, "申請が見つかりません"));
+                continue;
+            }
+            try {
+                validateDepartmentAuthority(request, approver.getEmployeeId());
+                if (!request.isPending()) {
+                    throw new IllegalStateException("この申請は既に処理済みです");
+                }
+                decidable.add(request);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                results.add(BulkApprovalResult.Item.failure(REQUEST_TYPE, requestId, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // Requests the UPDATE actually changed are added to decided. A null approverId records a decision made
+    // by an auto-approval rule.
+    private List<BulkApprovalResult.Item> decideInBulk(List<TimeModificationRequest> requests, String approverId,
+                                                       RequestStatus status, String rejectionReason,
+                                                       List<TimeModificationRequest> decided) {
+        List<BulkApprovalResult.Item> results = new ArrayList<>(requests.size());
+        if (requests.isEmpty()) {
+            return results;
+        }
+
+        // Only rows still pending are updated, so a request decided since it was loaded is reported, not overwritten
+        Set<UUID> decidedIds = new HashSet<>(timeModificationRequestRepository.decidePending(
+                requests.stream().map(TimeModificationRequest::getId).toList(),
+                status.name(), approverId, LocalDateTime.now(), rejectionReason));
+
+        for (TimeModificationRequest request : requests) {
+            if (decidedIds.contains(request.getId())) {
+                decided.add(request);
+                publishDecision(request.getId(), request.getUser(), status,
+                        approverId != null ? approverId : AutoApprovalRule.SYSTEM_APPROVER);
+                results.add(BulkApprovalResult.Item.success(REQUEST_TYPE, request.getId(), status));
+            } else {
+                results.add(BulkApprovalResult.Item.failure(REQUEST_TYPE, request.getId(), "この申請は既に処理済みです"));
+            }
+        }
+        logger.info("Bulk {} {} time modification requests by {}", status, decidedIds.size(),
+                approverId != null ? approverId : AutoApprovalRule.SYSTEM_APPROVER);
+        return results;
+    }
+
+    private void publishDecision(TimeModificationRequest request) {
+        publishDecision(request.getId(), request.getUser(), request.getStatus(), request.getApprovedBy());
+    }
+
+    // The applicant is notified by the outbox relay once the decision commits
+    private void publishDecision(UUID requestId, User user, RequestStatus status, String approverId) {
+        outboxService.publish(OutboxEventType.TIME_MODIFICATION_DECIDED, requestId, Map.of(
+                "userId", user.getId().toString(),
+                "employeeId", user.getEmployeeId(),
+                "status", status.name(),
+                "approverId", approverId));
+    }
+
     private void validateApprovalAuthority(TimeModificationRequest request, String approverEmployeeId) {
         User approver = userService.getUserByEmployeeId(approverEmployeeId);
         
@@ -265,6 +433,15 @@ public class TimeModificationRequestService {
             throw new IllegalArgumentException("承認権限がありません");
         }
         
+        validateDepartmentAuthority(request, approverEmployeeId);
+    }
+
+    private void validateDepartmentAuthority(TimeModificationRequest request, String approverEmployeeId) {
+        // A request escalated past its department's manager is decided by the manager it was escalated to
+        if (approverEmployeeId.equals(request.getEscalatedTo())) {
+            return;
+        }
+
         // Check if approver manages the department of the requester
         if (request.getUser().getDepartment() == null) {
             throw new IllegalArgumentException("申請者の部署が設定されていません");
@@ -276,41 +453,6 @@ public class TimeModificationRequestService {
         }
     }
 
-    private void applyTimeModifications(TimeModificationRequest request) {
-        try {
-            // Get or create time record for the date
-            Optional<TimeRecord> existingRecord = timeRecordService.getTodayRecord(
-                    request.getUser().getId(), request.getRequestDate());
-            
-            TimeRecord timeRecord;
-            if (existingRecord.isPresent()) {
-                timeRecord = existingRecord.get();
-            } else {
-                // Create new time record
-                timeRecord = new TimeRecord(request.getUser(), request.getRequestDate());
-            }
-            
-            // Apply modifications
-            if (request.hasClockInModification()) {
-                timeRecord.setClockIn(request.getRequestedClockIn());
-            }
-            
-            if (request.hasClockOutModification()) {
-                timeRecord.setClockOut(request.getRequestedClockOut());
-            }
-            
-            // Update the time record
-            timeRecordService.updateTimeRecord(timeRecord.getId(), timeRecord);
-            
-            logger.info("Applied time modifications for user: {} on date: {}", 
-                       request.getUser().getEmployeeId(), request.getRequestDate());
-                       
-        } catch (Exception e) {
-            logger.error("Failed to apply time modifications for request: {}", request.getId(), e);
-            throw new RuntimeException("打刻修正の適用でエラーが発生しました", e);
-        }
-    }
-
     @Transactional(readOnly = true)
     public long countPendingRequests() {
         return timeModificationRequestRepository.countByStatus(RequestStatus.PENDING);
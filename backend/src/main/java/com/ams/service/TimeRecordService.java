@@ -1,22 +1,33 @@
 package com.ams.service;
 
+import com.ams.config.AppProperties;
+import com.ams.dto.export.TeamSummaryRow;
+import com.ams.entity.TimeModificationRequest;
 import com.ams.entity.TimeRecord;
 import com.ams.entity.User;
 import com.ams.entity.enums.AttendanceStatus;
+import com.ams.entity.enums.OutboxEventType;
 import com.ams.exception.ResourceNotFoundException;
 import com.ams.repository.TimeRecordRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -38,6 +49,12 @@ public class TimeRecordService {
     @Autowired
     private AlertService alertService;
 
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private AppProperties appProperties;
+
     @Autowired
     private com.ams.validation.BusinessRuleValidator businessRuleValidator;
 
@@ -64,9 +81,12 @@ public class TimeRecordService {
         
         TimeRecord savedRecord = timeRecordRepository.save(timeRecord);
         
-        // Generate alerts if necessary
+        // The late alert is created by the outbox relay once this punch commits
         if (savedRecord.getStatus() == AttendanceStatus.LATE) {
-            alertService.createLateAlert(user, recordDate, clockInTime);
+            outboxService.publish(OutboxEventType.LATE_CLOCK_IN, savedRecord.getId(), Map.of(
+                    "userId", user.getId().toString(),
+                    "recordDate", recordDate.toString(),
+                    "clockInTime", clockInTime.toString()));
         }
         
         logger.info("Clock-in recorded for user: {} at {}", employeeId, clockInTime);
@@ -103,6 +123,7 @@ public class TimeRecordService {
         timeRecord.clockOut(clockOutTime);
         
         TimeRecord savedRecord = timeRecordRepository.save(timeRecord);
+        publishPunch(savedRecord);
         logger.info("Clock-out recorded for user: {} at {}", employeeId, clockOutTime);
         return savedRecord;
     }
@@ -130,6 +151,7 @@ public class TimeRecordService {
         timeRecord.startBreak(breakStartTime);
         
         TimeRecord savedRecord = timeRecordRepository.save(timeRecord);
+        publishPunch(savedRecord);
         logger.info("Break started for user: {} at {}", employeeId, breakStartTime);
         return savedRecord;
     }
@@ -149,6 +171,7 @@ public class TimeRecordService {
         timeRecord.endBreak(breakEndTime);
         
         TimeRecord savedRecord = timeRecordRepository.save(timeRecord);
+        publishPunch(savedRecord);
         logger.info("Break ended for user: {} at {}", employeeId, breakEndTime);
         return savedRecord;
     }
@@ -189,6 +212,13 @@ public class TimeRecordService {
                 });
     }
 
+    // Overtime and continuous-work rules run in the outbox relay once the punch commits
+    private void publishPunch(TimeRecord timeRecord) {
+        outboxService.publish(OutboxEventType.PUNCH_RECORDED, timeRecord.getId(),
+                Map.of("userId", timeRecord.getUser().getId().toString(),
+                        "recordDate", timeRecord.getRecordDate().toString()));
+    }
+
     private void determineAttendanceStatus(TimeRecord timeRecord, LocalDateTime clockInTime) {
         LocalTime clockInTimeOnly = clockInTime.toLocalTime();
         
@@ -227,10 +257,56 @@ public class TimeRecordService {
         }
         
         TimeRecord savedRecord = timeRecordRepository.save(existingRecord);
+        publishPunch(savedRecord);
         logger.info("Updated time record: {} for user: {}", recordId, existingRecord.getUser().getEmployeeId());
         return savedRecord;
     }
 
+    // Applies approved time modification requests, reading every affected record in one query and
+    // creating the missing ones; the records are written as one JDBC batch
+    public List<TimeRecord> applyTimeModifications(List<TimeModificationRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Map<LocalDate, TimeRecord>> recordsByUser = new HashMap<>();
+        for (TimeRecord record : timeRecordRepository.findByUserIdInAndRecordDateIn(
+                requests.stream().map(request -> request.getUser().getId()).collect(Collectors.toSet()),
+                requests.stream().map(TimeModificationRequest::getRequestDate).collect(Collectors.toSet()))) {
+            recordsByUser.computeIfAbsent(record.getUser().getId(), id -> new HashMap<>())
+                    .put(record.getRecordDate(), record);
+        }
+
+        // Identity set: new records have no id yet, and one record may be touched by several requests
+        Set<TimeRecord> modified = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TimeModificationRequest request : requests) {
+            Map<LocalDate, TimeRecord> userRecords =
+                    recordsByUser.computeIfAbsent(request.getUser().getId(), id -> new HashMap<>());
+            TimeRecord record = userRecords.get(request.getRequestDate());
+            if (record == null) {
+                record = new TimeRecord(request.getUser(), request.getRequestDate());
+                userRecords.put(request.getRequestDate(), record);
+            }
+            modified.add(record);
+
+            if (request.hasClockInModification()) {
+                record.setClockIn(request.getRequestedClockIn());
+            }
+            if (request.hasClockOutModification()) {
+                record.setClockOut(request.getRequestedClockOut());
+            }
+            record.calculateTotalHours();
+            if (record.getClockIn() != null) {
+                determineAttendanceStatus(record, record.getClockIn());
+            }
+        }
+
+        List<TimeRecord> savedRecords = timeRecordRepository.saveAll(modified);
+        savedRecords.forEach(this::publishPunch);
+        logger.info("Applied {} time modification requests to {} time records", requests.size(), savedRecords.size());
+        return savedRecords;
+    }
+
     @Transactional(readOnly = true)
     public boolean hasTimeRecordForDate(String employeeId, LocalDate date) {
         User user = userService.getUserByEmployeeId(employeeId);
@@ -260,20 +336,25 @@ public class TimeRecordService {
         return timeRecordRepository.getTotalHoursByUserAndDateRange(user.getId(), startDate, endDate);
     }
 
-    // Background job to create missing clock-out alerts
-    public void checkMissingClockOuts(LocalDate date) {
-        List<TimeRecord> incompleteRecords = getIncompleteRecordsForDate(date);
-        
-        for (TimeRecord record : incompleteRecords) {
-            alertService.createMissingClockOutAlert(record.getUser(), date);
+    // Nightly job for the previous days' records that were clocked in but never clocked out
+    @Scheduled(cron = "${app.attendance.missing-clock-out-cron:0 15 0 * * *}")
+    public void detectMissingClockOuts() {
+        AppProperties.Attendance attendance = appProperties.getAttendance();
+        if (!attendance.isMissingClockOutCheckEnabled()) {
+            return;
         }
-        
-        if (!incompleteRecords.isEmpty()) {
-            logger.info("Created missing clock-out alerts for {} records on {}", 
-                       incompleteRecords.size(), date);
+
+        LocalDate today = LocalDate.now();
+        for (int daysAgo = Math.max(1, attendance.getCheckLookbackDays()); daysAgo >= 1; daysAgo--) {
+            checkMissingClockOuts(today.minusDays(daysAgo));
         }
     }
 
+    // Creates missing clock-out alerts for a date in a single INSERT ... SELECT; existing alerts are skipped
+    public int checkMissingClockOuts(LocalDate date) {
+        return alertService.createMissingClockOutAlerts(date);
+    }
+
     // CSV Export support methods
     @Transactional(readOnly = true)
     public Stream<TimeRecord> getTimeRecordsStream(String employeeId, LocalDate startDate, LocalDate endDate) {
@@ -281,11 +362,26 @@ public class TimeRecordService {
         return timeRecordRepository.findByUserIdAndDateRangeStream(user.getId(), startDate, endDate);
     }
 
+    @Transactional(readOnly = true)
+    public Stream<TimeRecord> getTeamRecordsStream(String managerId, LocalDate startDate, LocalDate endDate) {
+        return timeRecordRepository.streamTeamRecordsByManagerIdAndDateRange(managerId, startDate, endDate);
+    }
+
+    @Transactional(readOnly = true)
+    public Stream<TeamSummaryRow> getTeamSummaryStream(String managerId, LocalDate startDate, LocalDate endDate) {
+        return timeRecordRepository.streamTeamSummaryByManagerId(managerId, startDate, endDate);
+    }
+
     @Transactional(readOnly = true)
     public Stream<TimeRecord> getAllTimeRecordsStream(LocalDate startDate, LocalDate endDate) {
         return timeRecordRepository.findByDateRangeStream(startDate, endDate);
     }
 
+    @Transactional(readOnly = true)
+    public Stream<TimeRecord> getAllTimeRecordsWithUserStream(LocalDate startDate, LocalDate endDate) {
+        return timeRecordRepository.streamAllWithUserByDateRange(startDate, endDate);
+    }
+
     @Transactional(readOnly = true)
     public long countPresentDays(String employeeId, LocalDate startDate, LocalDate endDate) {
         User user = userService.getUserByEmployeeId(employeeId);
@@ -0,0 +1,197 @@
+package com.ams.service;
+
+import com.ams.repository.AlertRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory unread alert counts per user and per manager, so notification badges do not count rows on every request.
+ * A count is loaded from the alerts table the first time it is read and then adjusted by AlertService once each
+ * change commits; changes whose effect on a count is unknown (bulk inserts and updates) evict the affected counts
+ * instead. A periodic reconciliation replaces every cached count with a fresh one from the table, which also
+ * repairs counts affected by changes made outside AlertService, such as moving a user to another department.
+ */
+@Component
+public class UnreadAlertCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadAlertCounter.class);
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    private final Map<UUID, Long> byUser = new ConcurrentHashMap<>();
+    private final Map<String, Long> byManager = new ConcurrentHashMap<>();
+
+    // A freshly loaded count is only cached if no change was in flight or applied while it was being read;
+    // otherwise the load could miss a change that is then applied on top of it, or count one twice
+    private final AtomicInteger pendingChanges = new AtomicInteger();
+    private final AtomicLong changeEpoch = new AtomicLong();
+
+    public long getForUser(UUID userId) {
+        return get(byUser, userId, () -> alertRepository.countUnreadAlertsByUserId(userId));
+    }
+
+    public long getForManager(String managerId) {
+        return get(byManager, managerId, () -> alertRepository.countUnreadAlertsByManagerId(managerId));
+    }
+
+    // An unread alert was inserted; managerId is null for users without a department manager
+    public void recordCreated(UUID userId, String managerId) {
+        afterCommit(() -> {
+            adjust(byUser, userId, 1);
+            adjust(byManager, managerId, 1);
+        });
+    }
+
+    // An unread alert was marked as read or deleted
+    public void recordRead(UUID userId, String managerId) {
+        afterCommit(() -> {
+            adjust(byUser, userId, -1);
+            adjust(byManager, managerId, -1);
+        });
+    }
+
+    public void evict(Collection<UUID> userIds, Collection<String> managerIds) {
+        afterCommit(() -> {
+            userIds.forEach(byUser::remove);
+            managerIds.forEach(byManager::remove);
+        });
+    }
+
+    public void evictUser(UUID userId) {
+        // The user's manager is not known here, so every manager count is reloaded
+        afterCommit(() -> {
+            byUser.remove(userId);
+            byManager.clear();
+        });
+    }
+
+    public void evictManager(String managerId) {
+        // The manager's team is not known here, so every user count is reloaded
+        afterCommit(() -> {
+            byManager.remove(managerId);
+            byUser.clear();
+        });
+    }
+
+    public void evictAll() {
+        afterCommit(() -> {
+            byUser.clear();
+            byManager.clear();
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.unread-counter-reconcile-millis:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        if (byUser.isEmpty() && byManager.isEmpty()) {
+            return;
+        }
+
+        long epoch = changeEpoch.get();
+        Map<UUID, Long> userCounts = toCountMap(alertRepository.countUnreadAlertsGroupedByUser());
+        Map<String, Long> managerCounts = toCountMap(alertRepository.countUnreadAlertsGroupedByManager());
+
+        if (pendingChanges.get() > 0 || changeEpoch.get() != epoch) {
+            // Alerts changed while counting, so the fresh counts cannot be trusted either; reload lazily instead
+            byUser.clear();
+            byManager.clear();
+            logger.debug("Unread alert counters changed during reconciliation, cleared instead");
+            return;
+        }
+
+        int corrected = replaceCounts(byUser, userCounts) + replaceCounts(byManager, managerCounts);
+        if (corrected > 0) {
+            logger.info("Reconciled unread alert counters, {} counts corrected", corrected);
+        }
+    }
+
+    private <K> long get(Map<K, Long> counts, K key, Supplier<Long> loader) {
+        Long cached = counts.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long epoch = changeEpoch.get();
+        boolean quiet = pendingChanges.get() == 0;
+        long loaded = loader.get();
+        if (quiet && pendingChanges.get() == 0 && changeEpoch.get() == epoch) {
+            counts.putIfAbsent(key, loaded);
+        }
+        return loaded;
+    }
+
+    private <K> void adjust(Map<K, Long> counts, K key, long delta) {
+        if (key != null) {
+            // Counts not loaded yet stay unloaded; they are read from the table when first needed
+            counts.computeIfPresent(key, (k, count) -> Math.max(0, count + delta));
+        }
+    }
+
+    // Applies a counter change once the surrounding transaction commits; a rollback leaves the counts untouched
+    private void afterCommit(Runnable change) {
+        pendingChanges.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                change.run();
+            } finally {
+                changeEpoch.incrementAndGet();
+                pendingChanges.decrementAndGet();
+            }
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                changeEpoch.incrementAndGet();
+                pendingChanges.decrementAndGet();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> Map<K, Long> toCountMap(List<Object[]> rows) {
+        Map<K, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counts.put((K) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+
+    // Refreshes the cached keys only; keys absent from the grouped counts have no unread alerts
+    private static <K> int replaceCounts(Map<K, Long> cached, Map<K, Long> fresh) {
+        int corrected = 0;
+        for (Map.Entry<K, Long> entry : cached.entrySet()) {
+            long count = fresh.getOrDefault(entry.getKey(), 0L);
+            if (entry.getValue() != count) {
+                entry.setValue(count);
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+}
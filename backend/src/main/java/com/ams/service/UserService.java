@@ -1,12 +1,15 @@
 package com.ams.service;
 
+import com.ams.dto.CursorPage;
 import com.ams.entity.User;
 import com.ams.entity.enums.UserRole;
 import com.ams.exception.ResourceNotFoundException;
 import com.ams.repository.UserRepository;
+import com.ams.util.KeysetCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -61,6 +64,14 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with employee ID: " + employeeId));
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<User> getActiveUsersPage(String cursor, Integer limit) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.resolveLimit(limit);
+        return CursorPage.of(userRepository.findActivePage(position.getCreatedAt(), position.getId(),
+                PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
     @Transactional(readOnly = true)
     public List<User> getAllActiveUsers() {
         return userRepository.findAll().stream()
@@ -78,6 +89,11 @@ public class UserService implements UserDetailsService {
         return userRepository.findTeamMembersByManagerId(managerId);
     }
 
+    @Transactional(readOnly = true)
+    public List<User> getTeamMembersWithDepartment(String managerId) {
+        return userRepository.findTeamMembersWithDepartmentByManagerId(managerId);
+    }
+
     @Transactional(readOnly = true)
     public List<User> getUsersByRole(UserRole role) {
         return userRepository.findByRoleAndIsActiveTrue(role);
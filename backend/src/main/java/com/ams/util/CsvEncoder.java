@@ -0,0 +1,304 @@
+package com.ams.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Streaming CSV encoder that formats rows directly into a pooled char buffer.
+ * Fields are escaped in a single pass and dates, integers and decimals are written digit by digit,
+ * so encoding a row allocates no intermediate Strings. Not thread-safe; use one per export.
+ * Closing the encoder flushes pending output but leaves the underlying writer open.
+ */
+public class CsvEncoder implements Closeable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 16;
+    private static final ConcurrentLinkedQueue<char[]> BUFFER_POOL = new ConcurrentLinkedQueue<>();
+
+    private static final char BOM = '\ufeff';
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final Writer writer;
+    private char[] buffer;
+    private int position;
+    private boolean rowStarted;
+
+    public CsvEncoder(Writer writer) {
+        this.writer = writer;
+        char[] pooled = BUFFER_POOL.poll();
+        this.buffer = pooled != null ? pooled : new char[BUFFER_SIZE];
+    }
+
+    // UTF-8 byte order mark so Excel detects the encoding
+    public CsvEncoder bom() throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = BOM;
+        return this;
+    }
+
+    // Writes a pre-formatted line (e.g. a header) as is, followed by a newline
+    public CsvEncoder line(String text) throws IOException {
+        int length = text.length();
+        ensureCapacity(length + 1);
+        text.getChars(0, length, buffer, position);
+        position += length;
+        buffer[position++] = '\n';
+        rowStarted = false;
+        return this;
+    }
+
+    public CsvEncoder field(CharSequence value) throws IOException {
+        separator();
+        if (value == null) {
+            return this;
+        }
+
+        int length = value.length();
+        ensureCapacity(length * 2 + 2);
+        int start = position;
+        boolean quoted = false;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == ',' || c == '\n' || c == '\r') {
+                if (!quoted) {
+                    // Shift what has been copied so far to make room for the opening quote
+                    System.arraycopy(buffer, start, buffer, start + 1, position - start);
+                    buffer[start] = '"';
+                    position++;
+                    quoted = true;
+                }
+                if (c == '"') {
+                    buffer[position++] = '"';
+                }
+            }
+            buffer[position++] = c;
+        }
+        if (quoted) {
+            buffer[position++] = '"';
+        }
+        return this;
+    }
+
+    public CsvEncoder field(Enum<?> value) throws IOException {
+        return field(value != null ? value.name() : null);
+    }
+
+    public CsvEncoder field(long value) throws IOException {
+        separator();
+        ensureCapacity(20);
+        appendLong(value);
+        return this;
+    }
+
+    public CsvEncoder field(LocalDate value) throws IOException {
+        separator();
+        if (value != null) {
+            ensureCapacity(10);
+            appendDate(value);
+        }
+        return this;
+    }
+
+    // Formatted as yyyy-MM-dd HH:mm:ss
+    public CsvEncoder field(LocalDateTime value) throws IOException {
+        separator();
+        if (value != null) {
+            ensureCapacity(19);
+            appendDate(value.toLocalDate());
+            buffer[position++] = ' ';
+            appendPadded(value.getHour(), 2);
+            buffer[position++] = ':';
+            appendPadded(value.getMinute(), 2);
+            buffer[position++] = ':';
+            appendPadded(value.getSecond(), 2);
+        }
+        return this;
+    }
+
+    public CsvEncoder field(UUID value) throws IOException {
+        separator();
+        if (value != null) {
+            ensureCapacity(36);
+            long msb = value.getMostSignificantBits();
+            long lsb = value.getLeastSignificantBits();
+            appendHex(msb >>> 32, 8);
+            buffer[position++] = '-';
+            appendHex(msb >>> 16, 4);
+            buffer[position++] = '-';
+            appendHex(msb, 4);
+            buffer[position++] = '-';
+            appendHex(lsb >>> 48, 4);
+            buffer[position++] = '-';
+            appendHex(lsb, 12);
+        }
+        return this;
+    }
+
+    // Fixed-point decimal with the output of String.format("%.Nf"): half-up on the exact value, except that a
+    // value whose shortest representation is the halfway point itself (2.675, 1.005) rounds up, as its
+    // decimal form does. Magnitudes whose doubles are spaced wider than the digit after the last one printed
+    // (above ~1e9 at scale 6, never hour columns) fall back to String.format.
+    public CsvEncoder decimal(double value, int scale) throws IOException {
+        if (scale < 0 || scale >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Unsupported decimal scale: " + scale);
+        }
+        separator();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return this;
+        }
+
+        long factor = POWERS_OF_TEN[scale];
+        double magnitude = Math.abs(value);
+        // Below this bound the halfway point is the only candidate shortest form near the value, and the scaled
+        // value, its fraction and 2 * units + 1 are exact in a double
+        if (Math.ulp(magnitude) * factor * 10 >= 1) {
+            String text = String.format(Locale.ROOT, "%." + scale + "f", value);
+            ensureCapacity(text.length());
+            text.getChars(0, text.length(), buffer, position);
+            position += text.length();
+            return this;
+        }
+
+        // scaled + error is exactly magnitude * factor, so the rounding decision sees no product rounding
+        double scaled = magnitude * factor;
+        double error = Math.fma(magnitude, factor, -scaled);
+        long units = (long) scaled;
+        double fraction = scaled - units;
+        if (fraction == 0 && error < 0) {
+            units--;
+            fraction = 1;
+        }
+
+        boolean roundUp;
+        if ((double) (2 * units + 1) / (2 * factor) == magnitude) {
+            // The nearest double to the halfway point is this value, so its shortest form is the halfway point
+            roundUp = true;
+        } else {
+            // Exact for fractions from 0.25 up; anything smaller is below halfway whatever the error
+            roundUp = fraction >= 0.25 && fraction - 0.5 >= -error;
+        }
+        if (roundUp) {
+            units++;
+        }
+
+        ensureCapacity(28);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            buffer[position++] = '-';
+        }
+        appendLong(units / factor);
+        if (scale > 0) {
+            buffer[position++] = '.';
+            appendPadded(units % factor, scale);
+        }
+        return this;
+    }
+
+    public CsvEncoder endRow() throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = '\n';
+        rowStarted = false;
+        return this;
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            flushBuffer();
+        } finally {
+            release(buffer);
+            buffer = null;
+        }
+    }
+
+    private void separator() throws IOException {
+        if (rowStarted) {
+            ensureCapacity(1);
+            buffer[position++] = ',';
+        } else {
+            rowStarted = true;
+        }
+    }
+
+    private void ensureCapacity(int required) throws IOException {
+        if (position + required <= buffer.length) {
+            return;
+        }
+        flushBuffer();
+        if (required > buffer.length) {
+            // Oversized fields get a one-off buffer that is dropped on close; the pooled one goes back now
+            release(buffer);
+            buffer = new char[Math.max(required, buffer.length * 2)];
+        }
+    }
+
+    private static void release(char[] buffer) {
+        if (buffer.length == BUFFER_SIZE && BUFFER_POOL.size() < MAX_POOLED_BUFFERS) {
+            BUFFER_POOL.offer(buffer);
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            writer.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void appendDate(LocalDate date) {
+        appendPadded(date.getYear(), 4);
+        buffer[position++] = '-';
+        appendPadded(date.getMonthValue(), 2);
+        buffer[position++] = '-';
+        appendPadded(date.getDayOfMonth(), 2);
+    }
+
+    private void appendLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            String text = Long.toString(value);
+            text.getChars(0, text.length(), buffer, position);
+            position += text.length();
+            return;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        appendPadded(value, digits);
+    }
+
+    private void appendPadded(long value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + (value % 10));
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void appendHex(long value, int digits) {
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        position += digits;
+    }
+}
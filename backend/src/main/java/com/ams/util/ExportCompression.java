@@ -0,0 +1,84 @@
+package com.ams.util;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression applied to export output on the streaming path. Compressors work on fixed-size
+ * buffers, so memory use stays constant regardless of export size.
+ */
+public enum ExportCompression {
+
+    NONE(null, ""),
+    GZIP("application/gzip", ".gz"),
+    ZSTD("application/zstd", ".zst");
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final int ZSTD_LEVEL = 3;
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportCompression(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public OutputStream wrap(OutputStream out) throws IOException {
+        return switch (this) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+            case ZSTD -> new ZstdOutputStream(out, ZSTD_LEVEL);
+        };
+    }
+
+    // Explicit format parameter, e.g. csv, csv.gz or csv.zst
+    public static ExportCompression fromFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return NONE;
+        }
+        return switch (format.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> NONE;
+            case "csv.gz", "gz", "gzip" -> GZIP;
+            case "csv.zst", "zst", "zstd" -> ZSTD;
+            default -> throw new IllegalArgumentException("サポートされていない出力形式です: " + format);
+        };
+    }
+
+    // True when the Accept-Encoding header lists gzip without q=0
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
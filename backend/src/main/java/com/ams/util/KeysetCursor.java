@@ -0,0 +1,71 @@
+package com.ams.util;
+
+import com.ams.entity.BaseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Position in a list ordered by (created_at DESC, id DESC), encoded as an opaque
+ * base64url token. A missing cursor starts above every real row.
+ */
+public class KeysetCursor {
+
+    // Same order as the database: PostgreSQL compares UUIDs as unsigned bytes, unlike UUID.compareTo
+    public static final Comparator<BaseEntity> NEWEST_FIRST = Comparator
+            .comparing(BaseEntity::getCreatedAt)
+            .thenComparing(BaseEntity::getId, (a, b) -> {
+                int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+            })
+            .reversed();
+
+    private static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), new UUID(-1L, -1L));
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    private KeysetCursor(LocalDateTime createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("カーソルの形式が正しくありません");
+            }
+            return new KeysetCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("カーソルの形式が正しくありません");
+        }
+    }
+
+    public static String encode(BaseEntity entity) {
+        return encode(entity.getCreatedAt(), entity.getId());
+    }
+
+    // For rows read as projections rather than entities
+    public static String encode(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
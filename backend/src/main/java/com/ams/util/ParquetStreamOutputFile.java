@@ -0,0 +1,76 @@
+package com.ams.util;
+
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Parquet {@link OutputFile} over a plain output stream, so row groups can be streamed
+ * to an HTTP response or staging file without going through a Hadoop file system.
+ */
+public class ParquetStreamOutputFile implements OutputFile {
+
+    private final OutputStream out;
+
+    public ParquetStreamOutputFile(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public PositionOutputStream create(long blockSizeHint) {
+        return new CountingPositionOutputStream(out);
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+        return new CountingPositionOutputStream(out);
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+        return false;
+    }
+
+    @Override
+    public long defaultBlockSize() {
+        return 0;
+    }
+
+    private static class CountingPositionOutputStream extends PositionOutputStream {
+        private final OutputStream out;
+        private long position;
+
+        CountingPositionOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public long getPos() {
+            return position;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.ams.exception.BusinessRuleViolationException;
 import com.ams.repository.LeaveRequestRepository;
 import com.ams.repository.TimeModificationRequestRepository;
 import com.ams.repository.TimeRecordRepository;
+import com.ams.service.LeaveBalanceService;
 
 @Component
 public class BusinessRuleValidator {
@@ -37,6 +38,9 @@ public class BusinessRuleValidator {
     @Autowired
     private TimeRecordRepository timeRecordRepository;
 
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
     // Leave request validation rules
     public void validateLeaveRequest(User user, LeaveType leaveType, LocalDate startDate, LocalDate endDate, String reason) {
         logger.debug("Validating leave request for user: {} from {} to {}", user.getEmployeeId(), startDate, endDate);
@@ -53,7 +57,7 @@ public class BusinessRuleValidator {
         // Rule 4: Maximum consecutive leave days based on leave type
         validateMaxConsecutiveDays(leaveType, startDate, endDate);
 
-        // Rule 5: Cannot exceed annual leave balance (simplified - assume 20 days per year)
+        // Rule 5: Cannot exceed the leave balance of balance-tracked types
         validateLeaveBalance(user, leaveType, startDate, endDate);
 
         // Rule 6: Cannot request leave for past dates
@@ -212,23 +216,19 @@ public class BusinessRuleValidator {
         }
     }
 
+    // One read of the leave ledger row; the reservation made when the request is saved repeats the check
+    // atomically, so this only gives the early, detailed message
     private void validateLeaveBalance(User user, LeaveType leaveType, LocalDate startDate, LocalDate endDate) {
-        if (leaveType == LeaveType.ANNUAL) {
-            long requestedDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
-            
-            // Get used annual leave days this year
-            LocalDate yearStart = LocalDate.of(LocalDate.now().getYear(), 1, 1);
-            LocalDate yearEnd = LocalDate.of(LocalDate.now().getYear(), 12, 31);
-            
-            long usedDays = leaveRequestRepository.countApprovedLeaveDays(
-                    user.getId(), LeaveType.ANNUAL, yearStart, yearEnd);
-            
-            // Assume 20 days annual leave entitlement
-            if (usedDays + requestedDays > 20) {
-                throw new BusinessRuleViolationException(
-                        String.format("年次休暇の残日数が不足しています（使用済み: %d日、申請: %d日、上限: 20日）", 
-                                    usedDays, requestedDays));
-            }
+        Integer remainingDays = leaveBalanceService.getRemainingDays(user.getId(), leaveType, startDate.getYear());
+        if (remainingDays == null) {
+            return;
+        }
+
+        long requestedDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (requestedDays > remainingDays) {
+            throw new BusinessRuleViolationException(
+                    String.format("%sの残日数が不足しています（残り: %d日、申請: %d日）",
+                                leaveType.getDisplayName(), remainingDays, requestedDays));
         }
     }
 
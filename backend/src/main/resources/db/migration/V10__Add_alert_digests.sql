@@ -0,0 +1,39 @@
+-- Digest mode: alerts of the configured types are coalesced into one row per manager, type and time window,
+-- with the affected employees listed as items instead of one alert row each
+CREATE TABLE alert_digests (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    manager_id VARCHAR(20) NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    window_start TIMESTAMP NOT NULL,
+    window_end TIMESTAMP NOT NULL,
+    item_count INTEGER NOT NULL DEFAULT 0,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_alert_digest_manager_type_window UNIQUE (manager_id, type, window_start)
+);
+
+CREATE INDEX idx_alert_digest_manager_created_at ON alert_digests(manager_id, created_at, id);
+
+CREATE TABLE alert_digest_items (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    digest_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    employee_id VARCHAR(20) NOT NULL,
+    employee_name VARCHAR(100) NOT NULL,
+    alert_date DATE NOT NULL,
+    detail VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_alert_digest_item_digest FOREIGN KEY (digest_id) REFERENCES alert_digests(id) ON DELETE CASCADE,
+    CONSTRAINT fk_alert_digest_item_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT uk_alert_digest_item_user_date UNIQUE (digest_id, user_id, alert_date)
+);
+
+CREATE INDEX idx_alert_digest_item_digest_created_at ON alert_digest_items(digest_id, created_at, id);
+
+CREATE TRIGGER update_alert_digests_updated_at BEFORE UPDATE ON alert_digests
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_alert_digest_items_updated_at BEFORE UPDATE ON alert_digest_items
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
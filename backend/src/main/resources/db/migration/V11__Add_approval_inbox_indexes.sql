@@ -0,0 +1,5 @@
+-- Access paths for the unified approval inbox: manager -> departments -> users -> pending requests,
+-- each request branch read in (created_at, id) order per user so the keyset page stops early
+CREATE INDEX idx_department_manager ON departments(manager_id);
+CREATE INDEX idx_leave_request_user_status_created_at ON leave_requests(user_id, status, created_at, id);
+CREATE INDEX idx_time_mod_request_user_status_created_at ON time_modification_requests(user_id, status, created_at, id);
@@ -0,0 +1,20 @@
+-- Audit trail of approval decisions made without a manager, e.g. by auto-approval rules.
+-- Requests are referenced by type and id without a foreign key, so entries outlive cancelled requests.
+CREATE TABLE approval_audit_logs (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    request_type VARCHAR(30) NOT NULL,
+    request_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    action VARCHAR(30) NOT NULL,
+    rule_name VARCHAR(50),
+    detail VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_approval_audit_log_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_approval_audit_log_request ON approval_audit_logs(request_id, action);
+CREATE INDEX idx_approval_audit_log_created_at ON approval_audit_logs(created_at, id);
+
+CREATE TRIGGER update_approval_audit_logs_updated_at BEFORE UPDATE ON approval_audit_logs
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
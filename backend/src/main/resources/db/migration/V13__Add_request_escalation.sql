@@ -0,0 +1,32 @@
+-- Department hierarchy: escalated requests go to the manager of the next department up
+ALTER TABLE departments ADD COLUMN parent_id UUID;
+ALTER TABLE departments ADD CONSTRAINT fk_department_parent FOREIGN KEY (parent_id) REFERENCES departments(id) ON DELETE SET NULL;
+CREATE INDEX idx_department_parent ON departments(parent_id);
+
+-- SLA escalation of pending requests. escalation_due_at is when the request escalates next; null once there is
+-- nobody left to escalate to. escalated_to is the manager currently holding the request besides the department manager.
+ALTER TABLE leave_requests ADD COLUMN escalation_due_at TIMESTAMP;
+ALTER TABLE leave_requests ADD COLUMN escalation_level INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE leave_requests ADD COLUMN escalated_to VARCHAR(20);
+ALTER TABLE leave_requests ADD CONSTRAINT fk_leave_request_escalated_to FOREIGN KEY (escalated_to) REFERENCES users(employee_id) ON DELETE SET NULL;
+
+ALTER TABLE time_modification_requests ADD COLUMN escalation_due_at TIMESTAMP;
+ALTER TABLE time_modification_requests ADD COLUMN escalation_level INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE time_modification_requests ADD COLUMN escalated_to VARCHAR(20);
+ALTER TABLE time_modification_requests ADD CONSTRAINT fk_time_mod_request_escalated_to FOREIGN KEY (escalated_to) REFERENCES users(employee_id) ON DELETE SET NULL;
+
+-- Existing pending requests get the default 48 hour SLA from when they were created
+UPDATE leave_requests SET escalation_due_at = created_at + INTERVAL '48 hours' WHERE status = 'PENDING';
+UPDATE time_modification_requests SET escalation_due_at = created_at + INTERVAL '48 hours' WHERE status = 'PENDING';
+
+-- Partial indexes cover only pending rows still due to escalate, so the per-minute scan never touches history
+CREATE INDEX idx_leave_request_escalation_due ON leave_requests(escalation_due_at, id)
+    WHERE status = 'PENDING' AND escalation_due_at IS NOT NULL;
+CREATE INDEX idx_time_mod_request_escalation_due ON time_modification_requests(escalation_due_at, id)
+    WHERE status = 'PENDING' AND escalation_due_at IS NOT NULL;
+
+-- Inbox access path for the manager a request was escalated to
+CREATE INDEX idx_leave_request_escalated_to ON leave_requests(escalated_to, created_at, id)
+    WHERE status = 'PENDING' AND escalated_to IS NOT NULL;
+CREATE INDEX idx_time_mod_request_escalated_to ON time_modification_requests(escalated_to, created_at, id)
+    WHERE status = 'PENDING' AND escalated_to IS NOT NULL;
@@ -0,0 +1,18 @@
+-- Optimistic locking: every entity table gets the version column mapped by BaseEntity.
+-- A constant default is stored in the catalog only, so existing rows are not rewritten, and native inserts
+-- that do not name the column start at 0 like JPA inserts.
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE departments ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE time_records ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE leave_requests ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE time_modification_requests ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE refresh_tokens ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Added on the partitioned parent, so every partition, and those created later with LIKE alerts, gets it
+ALTER TABLE alerts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE alert_digests ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE alert_digest_items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE outbox_events ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE monthly_work_summaries ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE approval_audit_logs ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,35 @@
+-- Leave ledger: one row per user, year and balance-tracked leave type, kept current by every request
+-- transition, so a balance check or the remaining-days display reads one row by its unique key instead of
+-- aggregating leave_requests. Days are calendar days, and a request counts towards the year it starts in.
+CREATE TABLE leave_balances (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    user_id UUID NOT NULL,
+    leave_year INTEGER NOT NULL,
+    leave_type VARCHAR(20) NOT NULL,
+    granted_days INTEGER NOT NULL DEFAULT 0,
+    carried_over_days INTEGER NOT NULL DEFAULT 0,
+    used_days INTEGER NOT NULL DEFAULT 0,
+    pending_days INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_leave_balance_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT uk_leave_balance_user_year_type UNIQUE (user_id, leave_year, leave_type),
+    CONSTRAINT chk_leave_balance_days CHECK (used_days >= 0 AND pending_days >= 0)
+);
+
+CREATE TRIGGER update_leave_balances_updated_at BEFORE UPDATE ON leave_balances
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+-- Backfill from existing requests with the previous fixed entitlement of 20 days per tracked type.
+-- Pending requests are reserved as they will be from now on, so approving them later moves them to used.
+INSERT INTO leave_balances (user_id, leave_year, leave_type, granted_days, used_days, pending_days)
+SELECT lr.user_id,
+       EXTRACT(YEAR FROM lr.start_date)::int,
+       lr.type,
+       20,
+       COALESCE(SUM(lr.end_date - lr.start_date + 1) FILTER (WHERE lr.status = 'APPROVED'), 0),
+       COALESCE(SUM(lr.end_date - lr.start_date + 1) FILTER (WHERE lr.status = 'PENDING'), 0)
+FROM leave_requests lr
+WHERE lr.type IN ('ANNUAL', 'PAID') AND lr.status IN ('APPROVED', 'PENDING')
+GROUP BY lr.user_id, EXTRACT(YEAR FROM lr.start_date), lr.type;
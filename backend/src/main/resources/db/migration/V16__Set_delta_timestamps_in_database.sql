@@ -0,0 +1,11 @@
+-- Delta exports compare updated_at with the database clock. Updates already take it from the database
+-- (update_updated_at_column); inserts took it from the application clock, so skew between the two could
+-- place a new row behind a watermark. Inserts into delta-exported tables now use the database clock too.
+CREATE TRIGGER set_time_records_inserted_updated_at BEFORE INSERT ON time_records
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER set_leave_requests_inserted_updated_at BEFORE INSERT ON leave_requests
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER set_time_modification_requests_inserted_updated_at BEFORE INSERT ON time_modification_requests
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
@@ -0,0 +1,8 @@
+-- Export cache fingerprints. COUNT and MAX(updated_at) over a date range are read from this index alone
+-- instead of every heap row in the range; it also serves every lookup idx_time_record_date did.
+CREATE INDEX idx_time_record_date_updated_at ON time_records(record_date, updated_at);
+DROP INDEX idx_time_record_date;
+
+-- MAX(updated_at) of users and departments is read from the end of these indexes instead of a scan
+CREATE INDEX idx_user_updated_at ON users(updated_at);
+CREATE INDEX idx_department_updated_at ON departments(updated_at);
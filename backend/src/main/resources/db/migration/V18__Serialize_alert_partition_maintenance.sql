@@ -0,0 +1,50 @@
+-- Instances starting together could both pass the to_regclass check in create_alert_partition and one
+-- would fail on CREATE TABLE. Partition maintenance now takes a transaction-scoped advisory lock first,
+-- so the second caller waits and then sees the partition the first one attached.
+CREATE OR REPLACE FUNCTION create_alert_partition(month_start DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    start_date DATE := date_trunc('month', month_start)::date;
+    end_date DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := 'alerts_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('alert_partition_maintenance'));
+
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE alerts INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM alerts_default WHERE alert_date >= %L AND alert_date < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved', start_date, end_date, partition_name);
+    EXECUTE format('ALTER TABLE alerts ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, start_date, end_date);
+    RETURN TRUE;
+END;
+$$ language 'plpgsql';
+
+CREATE OR REPLACE FUNCTION drop_alert_partitions_before(cutoff DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    expired RECORD;
+    dropped INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('alert_partition_maintenance'));
+
+    FOR expired IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'alerts'::regclass
+          AND c.relname ~ '^alerts_[0-9]{4}_[0-9]{2}$'
+          AND (to_date(substring(c.relname FROM 8), 'YYYY_MM') + INTERVAL '1 month')::date <= cutoff
+    LOOP
+        EXECUTE format('ALTER TABLE alerts DETACH PARTITION %I', expired.relname);
+        EXECUTE format('DROP TABLE %I', expired.relname);
+        dropped := dropped + 1;
+    END LOOP;
+
+    DELETE FROM alerts_default WHERE alert_date < cutoff;
+    RETURN dropped;
+END;
+$$ language 'plpgsql';
@@ -0,0 +1,29 @@
+-- Digest items were unique per digest, so an alert redelivered after its window closed listed the employee
+-- again in a later digest. Items now carry the digest's manager and type and are unique per manager, type,
+-- employee and alert date, whichever window they land in.
+ALTER TABLE alert_digest_items ADD COLUMN manager_id VARCHAR(20);
+ALTER TABLE alert_digest_items ADD COLUMN type VARCHAR(20);
+
+UPDATE alert_digest_items i SET manager_id = d.manager_id, type = d.type
+FROM alert_digests d
+WHERE d.id = i.digest_id;
+
+ALTER TABLE alert_digest_items ALTER COLUMN manager_id SET NOT NULL;
+ALTER TABLE alert_digest_items ALTER COLUMN type SET NOT NULL;
+
+-- Keep the earliest listing of each employee and recount the digests that lost items
+DELETE FROM alert_digest_items i
+USING alert_digest_items e
+WHERE e.manager_id = i.manager_id AND e.type = i.type AND e.user_id = i.user_id AND e.alert_date = i.alert_date
+  AND (e.created_at, e.id) < (i.created_at, i.id);
+
+UPDATE alert_digests d
+SET item_count = c.item_count, version = d.version + 1
+FROM (SELECT dg.id, COUNT(i.id) AS item_count
+      FROM alert_digests dg LEFT JOIN alert_digest_items i ON i.digest_id = dg.id
+      GROUP BY dg.id) c
+WHERE c.id = d.id AND c.item_count <> d.item_count;
+
+ALTER TABLE alert_digest_items DROP CONSTRAINT uk_alert_digest_item_user_date;
+ALTER TABLE alert_digest_items ADD CONSTRAINT uk_alert_digest_item_manager_type_user_date
+    UNIQUE (manager_id, type, user_id, alert_date);
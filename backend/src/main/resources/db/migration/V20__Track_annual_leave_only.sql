@@ -0,0 +1,3 @@
+-- Only annual leave had an entitlement before the ledger, so paid leave is no longer tracked by default and the
+-- rows V15 backfilled for it are removed. Deployments that track it again get them rebuilt from leave_requests.
+DELETE FROM leave_balances WHERE leave_type = 'PAID';
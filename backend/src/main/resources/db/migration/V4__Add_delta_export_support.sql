@@ -0,0 +1,37 @@
+-- Keyset indexes for delta exports ordered by (updated_at, id)
+CREATE INDEX idx_time_record_updated_at ON time_records(updated_at, id);
+CREATE INDEX idx_leave_request_updated_at ON leave_requests(updated_at, id);
+CREATE INDEX idx_time_mod_request_updated_at ON time_modification_requests(updated_at, id);
+
+-- Tombstones for rows removed from delta-exported tables (e.g. cancelled requests)
+CREATE TABLE deleted_records (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    table_name VARCHAR(50) NOT NULL,
+    record_id UUID NOT NULL,
+    user_id UUID,
+    department_id UUID,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_deleted_record_table_deleted_at ON deleted_records(table_name, deleted_at, id);
+
+-- Record the owner's department at deletion time so tombstones can be scoped to a manager's team
+CREATE OR REPLACE FUNCTION record_deleted_row()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO deleted_records (table_name, record_id, user_id, department_id, deleted_at)
+    VALUES (TG_TABLE_NAME, OLD.id, OLD.user_id,
+            (SELECT department_id FROM users WHERE id = OLD.user_id),
+            clock_timestamp());
+    RETURN OLD;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER record_time_records_deleted AFTER DELETE ON time_records
+    FOR EACH ROW EXECUTE FUNCTION record_deleted_row();
+
+CREATE TRIGGER record_leave_requests_deleted AFTER DELETE ON leave_requests
+    FOR EACH ROW EXECUTE FUNCTION record_deleted_row();
+
+CREATE TRIGGER record_time_modification_requests_deleted AFTER DELETE ON time_modification_requests
+    FOR EACH ROW EXECUTE FUNCTION record_deleted_row();
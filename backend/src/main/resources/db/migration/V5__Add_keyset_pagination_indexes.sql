@@ -0,0 +1,7 @@
+-- Composite indexes backing keyset pagination ordered by (created_at, id)
+CREATE INDEX idx_alert_created_at ON alerts(created_at, id);
+CREATE INDEX idx_alert_user_created_at ON alerts(user_id, created_at, id);
+CREATE INDEX idx_time_mod_request_user_created_at ON time_modification_requests(user_id, created_at, id);
+CREATE INDEX idx_time_mod_request_status_created_at ON time_modification_requests(status, created_at, id);
+CREATE INDEX idx_leave_request_status_created_at ON leave_requests(status, created_at, id);
+CREATE INDEX idx_user_created_at ON users(created_at, id);
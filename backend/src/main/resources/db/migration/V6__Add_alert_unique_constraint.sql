@@ -0,0 +1,11 @@
+-- Keep the earliest alert of each (user, type, date) before enforcing uniqueness
+DELETE FROM alerts a
+USING alerts b
+WHERE a.user_id = b.user_id
+  AND a.type = b.type
+  AND a.alert_date = b.alert_date
+  AND (a.created_at, a.id) > (b.created_at, b.id);
+
+-- One alert per user, type and date; alert creators insert with ON CONFLICT DO NOTHING
+ALTER TABLE alerts
+ADD CONSTRAINT uk_alert_user_type_date UNIQUE (user_id, type, alert_date);
@@ -0,0 +1,22 @@
+-- Side effects recorded in the same transaction as the change that caused them,
+-- delivered afterwards by the outbox relay with retry
+CREATE TABLE outbox_events (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id UUID NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000),
+    processed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- The relay polls pending events in availability order
+CREATE INDEX idx_outbox_event_status_available ON outbox_events(status, available_at, id);
+CREATE INDEX idx_outbox_event_processed_at ON outbox_events(processed_at);
+
+CREATE TRIGGER update_outbox_events_updated_at BEFORE UPDATE ON outbox_events
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
@@ -0,0 +1,96 @@
+-- Range-partition alerts by month of alert_date so retention drops whole partitions instead of deleting rows.
+-- The partition key must be part of every unique constraint, which alert_date already is for
+-- uk_alert_user_type_date; the primary key becomes (id, alert_date).
+CREATE TABLE alerts_partitioned (
+    id UUID NOT NULL DEFAULT uuid_generate_v4(),
+    type VARCHAR(20) NOT NULL,
+    user_id UUID NOT NULL,
+    alert_date DATE NOT NULL,
+    message VARCHAR(500) NOT NULL,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (alert_date);
+
+-- Catches dates no monthly partition covers yet; create_alert_partition moves them out
+CREATE TABLE alerts_default PARTITION OF alerts_partitioned DEFAULT;
+
+INSERT INTO alerts_partitioned (id, type, user_id, alert_date, message, is_read, created_at, updated_at)
+SELECT id, type, user_id, alert_date, message, is_read, created_at, updated_at FROM alerts;
+
+DROP TABLE alerts;
+ALTER TABLE alerts_partitioned RENAME TO alerts;
+
+ALTER TABLE alerts ADD CONSTRAINT alerts_pkey PRIMARY KEY (id, alert_date);
+ALTER TABLE alerts ADD CONSTRAINT fk_alert_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+ALTER TABLE alerts ADD CONSTRAINT uk_alert_user_type_date UNIQUE (user_id, type, alert_date);
+
+CREATE INDEX idx_alert_user ON alerts(user_id);
+CREATE INDEX idx_alert_type ON alerts(type);
+CREATE INDEX idx_alert_date ON alerts(alert_date);
+CREATE INDEX idx_alert_read ON alerts(is_read);
+CREATE INDEX idx_alert_created_at ON alerts(created_at, id);
+CREATE INDEX idx_alert_user_created_at ON alerts(user_id, created_at, id);
+
+CREATE TRIGGER update_alerts_updated_at BEFORE UPDATE ON alerts
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+-- Creates the partition alerts_YYYY_MM for the month containing month_start, moving any rows for that
+-- month out of the default partition first. Returns false if the partition already exists.
+CREATE OR REPLACE FUNCTION create_alert_partition(month_start DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    start_date DATE := date_trunc('month', month_start)::date;
+    end_date DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := 'alerts_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE alerts INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM alerts_default WHERE alert_date >= %L AND alert_date < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved', start_date, end_date, partition_name);
+    EXECUTE format('ALTER TABLE alerts ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, start_date, end_date);
+    RETURN TRUE;
+END;
+$$ language 'plpgsql';
+
+-- Detaches and drops every monthly partition that ends on or before cutoff, and removes older rows
+-- left in the default partition. Returns the number of partitions dropped.
+CREATE OR REPLACE FUNCTION drop_alert_partitions_before(cutoff DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    expired RECORD;
+    dropped INTEGER := 0;
+BEGIN
+    FOR expired IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'alerts'::regclass
+          AND c.relname ~ '^alerts_[0-9]{4}_[0-9]{2}$'
+          AND (to_date(substring(c.relname FROM 8), 'YYYY_MM') + INTERVAL '1 month')::date <= cutoff
+    LOOP
+        EXECUTE format('ALTER TABLE alerts DETACH PARTITION %I', expired.relname);
+        EXECUTE format('DROP TABLE %I', expired.relname);
+        dropped := dropped + 1;
+    END LOOP;
+
+    DELETE FROM alerts_default WHERE alert_date < cutoff;
+    RETURN dropped;
+END;
+$$ language 'plpgsql';
+
+-- Partitions for every month with existing alerts, through three months ahead
+DO $$
+DECLARE
+    month_cursor DATE := date_trunc('month', LEAST(COALESCE((SELECT MIN(alert_date) FROM alerts), CURRENT_DATE), CURRENT_DATE))::date;
+BEGIN
+    WHILE month_cursor <= (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::date LOOP
+        PERFORM create_alert_partition(month_cursor);
+        month_cursor := (month_cursor + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
@@ -0,0 +1,43 @@
+-- Running per-user monthly totals maintained by the attendance rule engine as punches arrive
+CREATE TABLE monthly_work_summaries (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    user_id UUID NOT NULL,
+    summary_month DATE NOT NULL,
+    worked_minutes INTEGER NOT NULL DEFAULT 0,
+    overtime_minutes INTEGER NOT NULL DEFAULT 0,
+    days_worked INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_monthly_work_summary_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT uk_monthly_work_summary_user_month UNIQUE (user_id, summary_month)
+);
+
+-- What each completed time record last added to its month, so re-evaluating a corrected record
+-- applies only the difference and evaluating the same record twice adds nothing
+CREATE TABLE work_summary_contributions (
+    time_record_id UUID PRIMARY KEY,
+    user_id UUID NOT NULL,
+    summary_month DATE NOT NULL,
+    worked_minutes INTEGER NOT NULL,
+    overtime_minutes INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_work_summary_contribution_record FOREIGN KEY (time_record_id) REFERENCES time_records(id) ON DELETE CASCADE
+);
+
+CREATE TRIGGER update_monthly_work_summaries_updated_at BEFORE UPDATE ON monthly_work_summaries
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+-- Seed the current month from records completed before the rule engine existed
+-- (overtime against the default 480-minute standard day)
+INSERT INTO work_summary_contributions (time_record_id, user_id, summary_month, worked_minutes, overtime_minutes)
+SELECT tr.id, tr.user_id, date_trunc('month', tr.record_date)::date,
+       ROUND(tr.total_hours * 60)::integer,
+       GREATEST(ROUND(tr.total_hours * 60)::integer - 480, 0)
+FROM time_records tr
+WHERE tr.record_date >= date_trunc('month', CURRENT_DATE)::date
+  AND tr.clock_in IS NOT NULL AND tr.clock_out IS NOT NULL AND tr.total_hours IS NOT NULL;
+
+INSERT INTO monthly_work_summaries (user_id, summary_month, worked_minutes, overtime_minutes, days_worked)
+SELECT user_id, summary_month, SUM(worked_minutes), SUM(overtime_minutes), COUNT(*)
+FROM work_summary_contributions
+GROUP BY user_id, summary_month;
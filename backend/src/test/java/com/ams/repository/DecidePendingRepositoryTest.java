@@ -0,0 +1,74 @@
+package com.ams.repository;
+
+import com.ams.PostgresIntegrationTest;
+import com.ams.entity.LeaveRequest;
+import com.ams.entity.TimeModificationRequest;
+import com.ams.entity.enums.RequestStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The set-based decisions behind bulk and auto approval, run against the requests seeded by V2
+@Transactional
+class DecidePendingRepositoryTest extends PostgresIntegrationTest {
+
+	private static final UUID PENDING_LEAVE = UUID.fromString("550e8400-e29b-41d4-a716-446655440051");
+	private static final UUID APPROVED_LEAVE = UUID.fromString("550e8400-e29b-41d4-a716-446655440053");
+	private static final UUID PENDING_MODIFICATION = UUID.fromString("550e8400-e29b-41d4-a716-446655440061");
+	private static final UUID OTHER_PENDING_MODIFICATION = UUID.fromString("550e8400-e29b-41d4-a716-446655440062");
+
+	@Autowired
+	private LeaveRequestRepository leaveRequestRepository;
+
+	@Autowired
+	private TimeModificationRequestRepository timeModificationRequestRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void leaveDecisionReturnsOnlyTheRequestsStillPending() {
+		Long pendingVersion = leaveRequestRepository.findById(PENDING_LEAVE).orElseThrow().getVersion();
+		entityManager.clear();
+
+		List<UUID> decided = leaveRequestRepository.decidePending(List.of(PENDING_LEAVE, APPROVED_LEAVE),
+				RequestStatus.REJECTED.name(), "MGR001", LocalDateTime.now(), "業務繁忙のため");
+
+		assertThat(decided).containsExactly(PENDING_LEAVE);
+		LeaveRequest rejected = leaveRequestRepository.findById(PENDING_LEAVE).orElseThrow();
+		assertThat(rejected.getStatus()).isEqualTo(RequestStatus.REJECTED);
+		assertThat(rejected.getApprovedBy()).isEqualTo("MGR001");
+		assertThat(rejected.getRejectionReason()).isEqualTo("業務繁忙のため");
+		assertThat(rejected.getVersion()).isEqualTo(pendingVersion + 1);
+		assertThat(leaveRequestRepository.findById(APPROVED_LEAVE).orElseThrow().getStatus())
+				.isEqualTo(RequestStatus.APPROVED);
+
+		// A second decision on the same requests finds nothing left to decide
+		assertThat(leaveRequestRepository.decidePending(List.of(PENDING_LEAVE, APPROVED_LEAVE),
+				RequestStatus.APPROVED.name(), "MGR001", LocalDateTime.now(), null)).isEmpty();
+	}
+
+	@Test
+	void automaticModificationDecisionLeavesTheApproverEmpty() {
+		List<UUID> decided = timeModificationRequestRepository.decidePending(
+				List.of(PENDING_MODIFICATION, OTHER_PENDING_MODIFICATION),
+				RequestStatus.APPROVED.name(), null, LocalDateTime.now(), null);
+
+		assertThat(decided).containsExactlyInAnyOrder(PENDING_MODIFICATION, OTHER_PENDING_MODIFICATION);
+		entityManager.clear();
+		TimeModificationRequest approved = timeModificationRequestRepository.findById(PENDING_MODIFICATION).orElseThrow();
+		assertThat(approved.getStatus()).isEqualTo(RequestStatus.APPROVED);
+		assertThat(approved.getApprovedBy()).isNull();
+		assertThat(approved.getApprovedAt()).isNotNull();
+
+		assertThat(timeModificationRequestRepository.decidePending(List.of(PENDING_MODIFICATION),
+				RequestStatus.REJECTED.name(), "MGR001", LocalDateTime.now(), "重複申請")).isEmpty();
+	}
+}
@@ -0,0 +1,207 @@
+package com.ams.service;
+
+import com.ams.PostgresIntegrationTest;
+import com.ams.dto.request.BulkApprovalResult;
+import com.ams.entity.LeaveBalance;
+import com.ams.entity.LeaveRequest;
+import com.ams.entity.User;
+import com.ams.entity.enums.LeaveType;
+import com.ams.entity.enums.RequestStatus;
+import com.ams.exception.BusinessRuleViolationException;
+import com.ams.repository.LeaveBalanceRepository;
+import com.ams.repository.LeaveRequestRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Each test runs in a transaction that is rolled back, so the seed data of V2 is the starting point every time.
+// Balances are compared with the ones read before the test, since the V15 backfill may already reserve days.
+@Transactional
+class LeaveBalanceServiceIntegrationTest extends PostgresIntegrationTest {
+
+	private static final String MANAGER = "MGR001";
+	private static final String EMPLOYEE = "EMP002";
+	private static final String OTHER_EMPLOYEE = "EMP001";
+
+	@Autowired
+	private LeaveRequestService leaveRequestService;
+
+	@Autowired
+	private LeaveBalanceService leaveBalanceService;
+
+	@Autowired
+	private LeaveBalanceRepository leaveBalanceRepository;
+
+	@Autowired
+	private LeaveRequestRepository leaveRequestRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private LocalDate monday;
+	private int year;
+
+	@BeforeEach
+	void setUp() {
+		// A working week clear of the seed requests, inside the 30-day booking window and a single leave year
+		monday = LocalDate.now().plusDays(10).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+		if (monday.getYear() != monday.plusDays(4).getYear()) {
+			monday = monday.plusWeeks(1);
+		}
+		year = monday.getYear();
+	}
+
+	@Test
+	void filingReservesDaysAndCannotOverdraw() {
+		LeaveBalance before = annualBalance(EMPLOYEE);
+		leaveBalanceService.grant(EMPLOYEE, LeaveType.ANNUAL, year, 1 - before.getRemainingDays());
+
+		leaveRequestService.createLeaveRequest(EMPLOYEE, LeaveType.ANNUAL, monday, monday, "私用");
+
+		LeaveBalance afterFiling = annualBalance(EMPLOYEE);
+		assertThat(afterFiling.getPendingDays()).isEqualTo(before.getPendingDays() + 1);
+		assertThat(afterFiling.getRemainingDays()).isZero();
+
+		assertThatThrownBy(() -> leaveRequestService.createLeaveRequest(EMPLOYEE, LeaveType.ANNUAL,
+				monday.plusDays(1), monday.plusDays(1), "私用"))
+				.isInstanceOf(BusinessRuleViolationException.class);
+
+		// The conditional reservation holds on its own, without the early balance check
+		User user = userService.getUserByEmployeeId(EMPLOYEE);
+		LeaveRequest unchecked = new LeaveRequest(user, LeaveType.ANNUAL, monday.plusDays(2), monday.plusDays(2), "私用");
+		assertThatThrownBy(() -> leaveBalanceService.reserve(unchecked))
+				.isInstanceOf(BusinessRuleViolationException.class);
+
+		LeaveBalance after = annualBalance(EMPLOYEE);
+		assertThat(after.getPendingDays()).isEqualTo(afterFiling.getPendingDays());
+		assertThat(after.getRemainingDays()).isZero();
+	}
+
+	@Test
+	void editingMovesTheReservation() {
+		LeaveBalance before = annualBalance(EMPLOYEE);
+		LeaveRequest request = leaveRequestService.createLeaveRequest(EMPLOYEE, LeaveType.ANNUAL, monday, monday, "私用");
+
+		LeaveRequest longer = new LeaveRequest();
+		longer.setStartDate(monday.plusDays(1));
+		longer.setEndDate(monday.plusDays(3));
+		leaveRequestService.updateLeaveRequest(request.getId(), EMPLOYEE, longer);
+		assertThat(annualBalance(EMPLOYEE).getPendingDays()).isEqualTo(before.getPendingDays() + 3);
+
+		// Sick leave has no ledger, so switching to it gives every reserved day back
+		LeaveRequest untracked = new LeaveRequest();
+		untracked.setType(LeaveType.SICK);
+		leaveRequestService.updateLeaveRequest(request.getId(), EMPLOYEE, untracked);
+		assertThat(annualBalance(EMPLOYEE).getPendingDays()).isEqualTo(before.getPendingDays());
+	}
+
+	@Test
+	void cancellationAndRejectionReleaseTheReservation() {
+		LeaveBalance before = annualBalance(EMPLOYEE);
+		LeaveRequest cancelled = leaveRequestService.createLeaveRequest(EMPLOYEE, LeaveType.ANNUAL, monday, monday, "私用");
+		LeaveRequest rejected = leaveRequestService.createLeaveRequest(EMPLOYEE, LeaveType.ANNUAL,
+				monday.plusDays(1), monday.plusDays(2), "私用");
+		assertThat(annualBalance(EMPLOYEE).getPendingDays()).isEqualTo(before.getPendingDays() + 3);
+
+		leaveRequestService.cancelLeaveRequest(cancelled.getId(), EMPLOYEE);
+		assertThat(leaveRequestRepository.findById(cancelled.getId())).isEmpty();
+		assertThat(annualBalance(EMPLOYEE).getPendingDays()).isEqualTo(before.getPendingDays() + 2);
+
+		leaveRequestService.rejectLeaveRequest(rejected.getId(), MANAGER, "業務繁忙のため");
+		LeaveBalance after = annualBalance(EMPLOYEE);
+		assertThat(after.getPendingDays()).isEqualTo(before.getPendingDays());
+		assertThat(after.getUsedDays()).isEqualTo(before.getUsedDays());
+	}
+
+	@Test
+	void bulkApprovalConsumesEachDecidedRequestOnce() {
+		LeaveBalance employeeBefore = annualBalance(EMPLOYEE);
+		LeaveBalance otherBefore = annualBalance(OTHER_EMPLOYEE);
+		LeaveRequest first = leaveRequestService.createLeaveRequest(EMPLOYEE, LeaveType.ANNUAL, monday, monday, "私用");
+		LeaveRequest second = leaveRequestService.createLeaveRequest(EMPLOYEE, LeaveType.ANNUAL,
+				monday.plusDays(1), monday.plusDays(2), "私用");
+		LeaveRequest other = leaveRequestService.createLeaveRequest(OTHER_EMPLOYEE, LeaveType.ANNUAL, monday, monday, "私用");
+		leaveRequestService.approveLeaveRequest(second.getId(), MANAGER);
+
+		UUID missing = UUID.randomUUID();
+		List<BulkApprovalResult.Item> results = leaveRequestService.approveLeaveRequests(
+				List.of(first.getId(), second.getId(), other.getId(), missing), userService.getUserByEmployeeId(MANAGER));
+
+		Map<UUID, BulkApprovalResult.Item> byId = results.stream()
+				.collect(Collectors.toMap(BulkApprovalResult.Item::getRequestId, Function.identity()));
+		assertThat(byId.get(first.getId()).isSuccess()).isTrue();
+		assertThat(byId.get(other.getId()).isSuccess()).isTrue();
+		assertThat(byId.get(second.getId()).getError()).isEqualTo("この申請は既に処理済みです");
+		assertThat(byId.get(missing).getError()).isEqualTo("申請が見つかりません");
+
+		LeaveBalance employeeAfter = annualBalance(EMPLOYEE);
+		assertThat(employeeAfter.getPendingDays()).isEqualTo(employeeBefore.getPendingDays());
+		assertThat(employeeAfter.getUsedDays()).isEqualTo(employeeBefore.getUsedDays() + 3);
+		LeaveBalance otherAfter = annualBalance(OTHER_EMPLOYEE);
+		assertThat(otherAfter.getPendingDays()).isEqualTo(otherBefore.getPendingDays());
+		assertThat(otherAfter.getUsedDays()).isEqualTo(otherBefore.getUsedDays() + 1);
+
+		assertThat(leaveRequestRepository.findById(first.getId()).orElseThrow().getStatus())
+				.isEqualTo(RequestStatus.APPROVED);
+	}
+
+	@Test
+	void autoApprovalSkipsRequestsDecidedSinceTheyWereLoaded() {
+		LeaveBalance before = annualBalance(EMPLOYEE);
+		LeaveRequest approved = leaveRequestService.createLeaveRequest(EMPLOYEE, LeaveType.ANNUAL, monday, monday, "私用");
+		LeaveRequest rejected = leaveRequestService.createLeaveRequest(EMPLOYEE, LeaveType.ANNUAL,
+				monday.plusDays(1), monday.plusDays(1), "私用");
+		entityManager.flush();
+		List<LeaveRequest> matched = leaveRequestRepository.findAllWithUserByIdIn(List.of(approved.getId(), rejected.getId()));
+
+		leaveRequestService.rejectLeaveRequest(rejected.getId(), MANAGER, "業務繁忙のため");
+		List<UUID> autoApproved = leaveRequestService.autoApproveLeaveRequests(matched);
+
+		assertThat(autoApproved).containsExactly(approved.getId());
+		LeaveBalance after = annualBalance(EMPLOYEE);
+		assertThat(after.getPendingDays()).isEqualTo(before.getPendingDays());
+		assertThat(after.getUsedDays()).isEqualTo(before.getUsedDays() + 1);
+
+		LeaveRequest reloaded = leaveRequestRepository.findById(approved.getId()).orElseThrow();
+		assertThat(reloaded.getStatus()).isEqualTo(RequestStatus.APPROVED);
+		assertThat(reloaded.getApprovedBy()).isNull();
+	}
+
+	@Test
+	void decisionFailsWhenTheLedgerNoLongerCoversTheRequest() {
+		LeaveRequest request = leaveRequestService.createLeaveRequest(EMPLOYEE, LeaveType.ANNUAL, monday, monday, "私用");
+		User user = userService.getUserByEmployeeId(EMPLOYEE);
+		leaveBalanceRepository.adjust(user.getId(), year, LeaveType.ANNUAL.name(), 0,
+				-annualBalance(EMPLOYEE).getPendingDays(), 0);
+
+		assertThatThrownBy(() -> leaveRequestService.approveLeaveRequest(request.getId(), MANAGER))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	// Read after a flush and clear, since the ledger is changed by native updates the persistence context misses
+	private LeaveBalance annualBalance(String employeeId) {
+		entityManager.flush();
+		entityManager.clear();
+		return leaveBalanceService.getBalances(employeeId, year).stream()
+				.filter(balance -> balance.getLeaveType() == LeaveType.ANNUAL)
+				.findFirst()
+				.orElseThrow();
+	}
+}
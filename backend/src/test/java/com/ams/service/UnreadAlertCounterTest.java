@@ -0,0 +1,142 @@
+package com.ams.service;
+
+import com.ams.repository.AlertRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The epoch and pending-change guard that keeps a count loaded alongside a change out of the cache
+@ExtendWith(MockitoExtension.class)
+class UnreadAlertCounterTest {
+
+	private static final UUID USER = UUID.fromString("550e8400-e29b-41d4-a716-446655440021");
+	private static final String MANAGER = "MGR001";
+
+	@Mock
+	private AlertRepository alertRepository;
+
+	@InjectMocks
+	private UnreadAlertCounter counter;
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void cachesALoadWithNoChangeAround() {
+		when(alertRepository.countUnreadAlertsByUserId(USER)).thenReturn(3L);
+
+		assertThat(counter.getForUser(USER)).isEqualTo(3);
+		assertThat(counter.getForUser(USER)).isEqualTo(3);
+
+		verify(alertRepository, times(1)).countUnreadAlertsByUserId(USER);
+	}
+
+	@Test
+	void adjustsCachedCountsAndLeavesUnloadedOnesAlone() {
+		when(alertRepository.countUnreadAlertsByUserId(USER)).thenReturn(3L);
+		counter.getForUser(USER);
+
+		counter.recordCreated(USER, MANAGER);
+		counter.recordRead(USER, null);
+		counter.recordCreated(USER, null);
+
+		assertThat(counter.getForUser(USER)).isEqualTo(4);
+		when(alertRepository.countUnreadAlertsByManagerId(MANAGER)).thenReturn(7L);
+		assertThat(counter.getForManager(MANAGER)).isEqualTo(7);
+	}
+
+	@Test
+	void doesNotCacheALoadThatAChangeCompletedDuring() {
+		// The change lands between the count and the put, so caching the count would lose it
+		when(alertRepository.countUnreadAlertsByUserId(USER)).thenAnswer(invocation -> {
+			counter.recordCreated(USER, MANAGER);
+			return 3L;
+		}).thenReturn(4L);
+
+		assertThat(counter.getForUser(USER)).isEqualTo(3);
+		assertThat(counter.getForUser(USER)).isEqualTo(4);
+		assertThat(counter.getForUser(USER)).isEqualTo(4);
+
+		verify(alertRepository, times(2)).countUnreadAlertsByUserId(USER);
+	}
+
+	@Test
+	void doesNotCacheWhileAChangeAwaitsItsCommit() {
+		when(alertRepository.countUnreadAlertsByUserId(USER)).thenReturn(3L, 4L, 4L);
+		TransactionSynchronizationManager.initSynchronization();
+		counter.recordCreated(USER, MANAGER);
+		List<TransactionSynchronization> pending = TransactionSynchronizationManager.getSynchronizations();
+
+		// The count may or may not include the uncommitted alert, so it is not kept
+		assertThat(counter.getForUser(USER)).isEqualTo(3);
+
+		pending.forEach(TransactionSynchronization::afterCommit);
+		pending.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+		TransactionSynchronizationManager.clearSynchronization();
+
+		assertThat(counter.getForUser(USER)).isEqualTo(4);
+		assertThat(counter.getForUser(USER)).isEqualTo(4);
+		verify(alertRepository, times(2)).countUnreadAlertsByUserId(USER);
+	}
+
+	@Test
+	void rollbackLeavesTheCountUntouched() {
+		when(alertRepository.countUnreadAlertsByUserId(USER)).thenReturn(3L);
+		counter.getForUser(USER);
+		TransactionSynchronizationManager.initSynchronization();
+		counter.recordCreated(USER, MANAGER);
+		List<TransactionSynchronization> pending = TransactionSynchronizationManager.getSynchronizations();
+
+		pending.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		TransactionSynchronizationManager.clearSynchronization();
+
+		assertThat(counter.getForUser(USER)).isEqualTo(3);
+		verify(alertRepository, times(1)).countUnreadAlertsByUserId(USER);
+	}
+
+	@Test
+	void reconciliationCorrectsCachedCounts() {
+		when(alertRepository.countUnreadAlertsByUserId(USER)).thenReturn(3L);
+		counter.getForUser(USER);
+		when(alertRepository.countUnreadAlertsGroupedByUser()).thenReturn(List.<Object[]>of(new Object[]{USER, 5L}));
+		when(alertRepository.countUnreadAlertsGroupedByManager()).thenReturn(List.of());
+
+		counter.reconcile();
+
+		assertThat(counter.getForUser(USER)).isEqualTo(5);
+		verify(alertRepository, times(1)).countUnreadAlertsByUserId(USER);
+	}
+
+	@Test
+	void reconciliationClearsInsteadWhenAlertsChangeWhileCounting() {
+		when(alertRepository.countUnreadAlertsByUserId(USER)).thenReturn(3L, 6L);
+		counter.getForUser(USER);
+		when(alertRepository.countUnreadAlertsGroupedByUser()).thenAnswer(invocation -> {
+			counter.recordCreated(USER, MANAGER);
+			return List.<Object[]>of(new Object[]{USER, 5L});
+		});
+		when(alertRepository.countUnreadAlertsGroupedByManager()).thenReturn(List.of());
+
+		counter.reconcile();
+
+		assertThat(counter.getForUser(USER)).isEqualTo(6);
+		verify(alertRepository, times(2)).countUnreadAlertsByUserId(USER);
+	}
+}
@@ -0,0 +1,121 @@
+package com.ams.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The export encoder against the output the exports had when they went through String.format and the CSV printer
+class CsvEncoderTest {
+
+	@Test
+	void quotesOnlyFieldsThatNeedIt() throws IOException {
+		String csv = encode(encoder -> encoder
+				.field("plain")
+				.field("a,b")
+				.field("say \"hi\"")
+				.field("line\nbreak")
+				.field("carriage\rreturn")
+				.field((CharSequence) null)
+				.field("")
+				.endRow());
+
+		assertThat(csv).isEqualTo("plain,\"a,b\",\"say \"\"hi\"\"\",\"line\nbreak\",\"carriage\rreturn\",,\n");
+	}
+
+	@Test
+	void quotesFromTheFirstCharacterWhenTheSpecialCharacterComesLate() throws IOException {
+		assertThat(encode(encoder -> encoder.field("山田 一郎, 開発部").endRow()))
+				.isEqualTo("\"山田 一郎, 開発部\"\n");
+	}
+
+	@Test
+	void writesDatesTimesNumbersAndUuids() throws IOException {
+		UUID id = UUID.fromString("550e8400-e29b-41d4-a716-446655440021");
+		String csv = encode(encoder -> encoder
+				.field(LocalDate.of(2024, 8, 5))
+				.field(LocalDateTime.of(2024, 8, 5, 9, 3, 7))
+				.field(0L)
+				.field(-42L)
+				.field(Long.MIN_VALUE)
+				.field(id)
+				.endRow());
+
+		assertThat(csv).isEqualTo("2024-08-05,2024-08-05 09:03:07,0,-42," + Long.MIN_VALUE + "," + id + "\n");
+	}
+
+	@Test
+	void roundsDecimalsLikeStringFormat() throws IOException {
+		assertThat(decimal(2.675, 2)).isEqualTo("2.68");
+		assertThat(decimal(1.005, 2)).isEqualTo("1.01");
+		assertThat(decimal(0.125, 2)).isEqualTo("0.13");
+		assertThat(decimal(8.0, 2)).isEqualTo("8.00");
+		assertThat(decimal(7.999, 2)).isEqualTo("8.00");
+		assertThat(decimal(0.994999999, 2)).isEqualTo("0.99");
+		assertThat(decimal(-0.125, 2)).isEqualTo("-0.13");
+		assertThat(decimal(-0.001, 2)).isEqualTo("-0.00");
+		assertThat(decimal(2.5, 0)).isEqualTo("3");
+		assertThat(decimal(Double.NaN, 2)).isEmpty();
+	}
+
+	@Test
+	void matchesStringFormatForRandomValues() throws IOException {
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			int scale = random.nextInt(7);
+			double value = switch (i % 3) {
+				case 0 -> random.nextDouble() * 24;
+				case 1 -> (random.nextInt(2_000_000) + 0.5) / Math.pow(10, scale);
+				default -> (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(14));
+			};
+			assertThat(decimal(value, scale))
+					.as("%s at scale %d", value, scale)
+					.isEqualTo(String.format(Locale.ROOT, "%." + scale + "f", value));
+		}
+	}
+
+	@Test
+	void rejectsUnsupportedScales() {
+		assertThatThrownBy(() -> decimal(1.0, 7)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> decimal(1.0, -1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void writesFieldsLargerThanTheBuffer() throws IOException {
+		String large = "x".repeat(40_000) + ",";
+		String csv = encode(encoder -> encoder.field("before").field(large).field("after").endRow());
+
+		assertThat(csv).isEqualTo("before,\"" + large + "\",after\n");
+	}
+
+	@Test
+	void writesTheBomOnlyWhenAsked() throws IOException {
+		assertThat(encode(encoder -> encoder.bom().line("a,b"))).isEqualTo("﻿a,b\n");
+		assertThat(encode(encoder -> encoder.line("a,b"))).isEqualTo("a,b\n");
+	}
+
+	private static String decimal(double value, int scale) throws IOException {
+		return encode(encoder -> encoder.decimal(value, scale));
+	}
+
+	private static String encode(Rows rows) throws IOException {
+		StringWriter out = new StringWriter();
+		try (CsvEncoder encoder = new CsvEncoder(out)) {
+			rows.write(encoder);
+		}
+		return out.toString();
+	}
+
+	@FunctionalInterface
+	private interface Rows {
+		void write(CsvEncoder encoder) throws IOException;
+	}
+}
@@ -0,0 +1,85 @@
+package com.ams.util;
+
+import com.ams.entity.Alert;
+import com.ams.entity.BaseEntity;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The cursor has to agree with PostgreSQL's order, which compares UUIDs as unsigned bytes
+class KeysetCursorTest {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 8, 5, 9, 30);
+
+	@Test
+	void ordersNewestFirstThenByUnsignedIdDescending() {
+		// UUID.compareTo would put the ids with the top bit set below the others, as negative longs
+		BaseEntity low = entity(CREATED_AT, "00000000-0000-0000-0000-000000000001");
+		BaseEntity middle = entity(CREATED_AT, "7fffffff-ffff-ffff-0000-000000000000");
+		BaseEntity highLeast = entity(CREATED_AT, "7fffffff-ffff-ffff-8000-000000000000");
+		BaseEntity high = entity(CREATED_AT, "80000000-0000-0000-0000-000000000000");
+		BaseEntity newer = entity(CREATED_AT.plusSeconds(1), "00000000-0000-0000-0000-000000000000");
+
+		List<BaseEntity> sorted = new ArrayList<>(List.of(low, high, newer, highLeast, middle));
+		sorted.sort(KeysetCursor.NEWEST_FIRST);
+
+		assertThat(sorted).containsExactly(newer, high, highLeast, middle, low);
+	}
+
+	@Test
+	void roundTripsThePosition() {
+		UUID id = UUID.fromString("f47ac10b-58cc-4372-a567-0e02b2c3d479");
+		LocalDateTime createdAt = CREATED_AT.withNano(123_456_000);
+
+		KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(createdAt, id));
+
+		assertThat(cursor.getCreatedAt()).isEqualTo(createdAt);
+		assertThat(cursor.getId()).isEqualTo(id);
+		assertThat(KeysetCursor.encode(entity(createdAt, id.toString()))).isEqualTo(KeysetCursor.encode(createdAt, id));
+	}
+
+	@Test
+	void missingCursorStartsAboveEveryRow() {
+		KeysetCursor start = KeysetCursor.decode(null);
+
+		assertThat(KeysetCursor.decode("  ")).isSameAs(start);
+		assertThat(start.getCreatedAt()).isAfter(LocalDateTime.of(9999, 1, 1, 0, 0));
+		BaseEntity topRow = entity(start.getCreatedAt(), "ffffffff-ffff-ffff-ffff-fffffffffffe");
+		BaseEntity atStart = entity(start.getCreatedAt(), start.getId().toString());
+		assertThat(KeysetCursor.NEWEST_FIRST.compare(atStart, topRow)).isNegative();
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		assertMalformed("not base64!");
+		assertMalformed(token("2024-08-05T09:30"));
+		assertMalformed(token("yesterday|f47ac10b-58cc-4372-a567-0e02b2c3d479"));
+		assertMalformed(token("2024-08-05T09:30|not-a-uuid"));
+		assertMalformed(token("|"));
+	}
+
+	private static void assertMalformed(String token) {
+		assertThatThrownBy(() -> KeysetCursor.decode(token))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("カーソルの形式が正しくありません");
+	}
+
+	private static String token(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static BaseEntity entity(LocalDateTime createdAt, String id) {
+		Alert alert = new Alert();
+		alert.setCreatedAt(createdAt);
+		alert.setId(UUID.fromString(id));
+		return alert;
+	}
+}
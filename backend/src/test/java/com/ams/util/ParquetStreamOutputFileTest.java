@@ -0,0 +1,53 @@
+package com.ams.util;
+
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Writes with the same settings as ParquetExportService, so it fails if the trimmed hadoop-common
+// classpath is missing a class the writer loads
+class ParquetStreamOutputFileTest {
+
+	private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+	private static final MessageType SCHEMA = Types.buildMessage()
+			.required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("employee_id")
+			.optional(PrimitiveTypeName.INT32).named("break_minutes")
+			.named("row");
+
+	@Test
+	void writesSnappyParquetToStream() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SimpleGroupFactory groups = new SimpleGroupFactory(SCHEMA);
+
+		try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new ParquetStreamOutputFile(out))
+				.withType(SCHEMA)
+				.withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+				.withCompressionCodec(CompressionCodecName.SNAPPY)
+				.withDictionaryEncoding(true)
+				.build()) {
+			for (int i = 0; i < 100; i++) {
+				writer.write(groups.newGroup().append("employee_id", "EMP" + i).append("break_minutes", i));
+			}
+		}
+
+		byte[] bytes = out.toByteArray();
+		assertThat(bytes.length).isGreaterThan(2 * MAGIC.length);
+		assertThat(Arrays.copyOfRange(bytes, 0, MAGIC.length)).isEqualTo(MAGIC);
+		assertThat(Arrays.copyOfRange(bytes, bytes.length - MAGIC.length, bytes.length)).isEqualTo(MAGIC);
+	}
+}